@@ -0,0 +1,79 @@
+package net.petersil98.core.http;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import net.petersil98.core.Core;
+import net.petersil98.core.constant.Region;
+import net.petersil98.core.model.Account;
+import net.petersil98.core.util.Util;
+import net.petersil98.core.util.settings.Settings;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the request path of {@link RiotAPI} that doesn't touch the network: building the Url,
+ * serving a cached response and mapping the JSON body to an {@link Account}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RiotAPIBenchmark {
+
+    private static final String PUUID = "kYp3Gq5R1wBzV7vX8mN2cL4hT6jF9dS0aQeWrTyUiOpAsDfGhJkLzXcVbNm1234567890abcdefghijk";
+    private static final String ACCOUNT_JSON = "{\"puuid\":\"" + PUUID + "\",\"gameName\":\"Petersil98\",\"tagLine\":\"EUW\"}";
+    private static final String ENDPOINT_METHOD = "account/v1/accounts/by-puuid/";
+
+    private JavaType accountType;
+    private Map<String, String> emptyFilter;
+    private Map<String, String> filter;
+    private String cachedUrl;
+
+    @Setup
+    public void setup() {
+        this.accountType = TypeFactory.defaultInstance().constructType(Account.class);
+        this.emptyFilter = new HashMap<>();
+        this.filter = new HashMap<>();
+        this.filter.put("start", "0");
+        this.filter.put("count", "20");
+        this.filter.put("queue", "420");
+        this.cachedUrl = RiotAPI.constructUrl(ENDPOINT_METHOD + PUUID, RiotAPI.AppType.RIOT, Region.EUROPE);
+
+        Settings.useCache(true);
+        String urlWithGetParams = this.cachedUrl + "?" + Util.buildParameters(this.emptyFilter);
+        RiotClient.getDefault().cache.put(urlWithGetParams, new StubHttpResponse(200, urlWithGetParams, Map.of(
+                "x-app-rate-limit", List.of("20:1,100:120"),
+                "x-method-rate-limit", List.of("1000:60")), ACCOUNT_JSON));
+    }
+
+    @Benchmark
+    public String constructUrl() {
+        return RiotAPI.constructUrl(ENDPOINT_METHOD + PUUID, RiotAPI.AppType.RIOT, Region.EUROPE);
+    }
+
+    @Benchmark
+    public String buildEmptyParameters() {
+        return Util.buildParameters(this.emptyFilter);
+    }
+
+    @Benchmark
+    public String buildParameters() {
+        return Util.buildParameters(this.filter);
+    }
+
+    @Benchmark
+    public Account cacheHit() {
+        return RiotAPI.handleCacheAndRateLimiter(this.cachedUrl, ENDPOINT_METHOD, Region.EUROPE, this.accountType, this.emptyFilter);
+    }
+
+    @Benchmark
+    public Account decodeAccount() throws Exception {
+        return Core.MAPPER.readValue(ACCOUNT_JSON, this.accountType);
+    }
+}
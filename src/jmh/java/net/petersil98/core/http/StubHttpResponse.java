@@ -0,0 +1,69 @@
+package net.petersil98.core.http;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Minimal in-memory {@link HttpResponse} used by the benchmarks to feed canned responses into the library
+ */
+public class StubHttpResponse implements HttpResponse<String> {
+
+    private final int statusCode;
+    private final URI uri;
+    private final HttpHeaders headers;
+    private final String body;
+
+    public StubHttpResponse(int statusCode, String url, Map<String, List<String>> headers, String body) {
+        this.statusCode = statusCode;
+        this.uri = URI.create(url);
+        this.headers = HttpHeaders.of(headers, (name, value) -> true);
+        this.body = body;
+    }
+
+    @Override
+    public int statusCode() {
+        return this.statusCode;
+    }
+
+    @Override
+    public HttpRequest request() {
+        return HttpRequest.newBuilder(this.uri).GET().build();
+    }
+
+    @Override
+    public Optional<HttpResponse<String>> previousResponse() {
+        return Optional.empty();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return this.headers;
+    }
+
+    @Override
+    public String body() {
+        return this.body;
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+        return this.uri;
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return HttpClient.Version.HTTP_1_1;
+    }
+}
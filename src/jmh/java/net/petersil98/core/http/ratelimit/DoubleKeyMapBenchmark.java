@@ -0,0 +1,57 @@
+package net.petersil98.core.http.ratelimit;
+
+import net.petersil98.core.constant.Region;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the lookup and iteration paths of {@link DoubleKeyMap} as they are used by the Rate Limiter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoubleKeyMapBenchmark {
+
+    private static final Region[] REGIONS = {Region.AMERICA, Region.EUROPE, Region.ASIA, Region.SEA};
+    private static final int METHODS_PER_REGION = 16;
+
+    private DoubleKeyMap<Region, String, Integer> map;
+    private String hitMethod;
+
+    @Setup
+    public void setup() {
+        this.map = new DoubleKeyMap<>();
+        for (Region region : REGIONS) {
+            for (int i = 0; i < METHODS_PER_REGION; i++) {
+                this.map.put(region, "endpoint/v1/method" + i, i);
+            }
+        }
+        this.hitMethod = "endpoint/v1/method" + (METHODS_PER_REGION / 2);
+    }
+
+    @Benchmark
+    public Integer getHit() {
+        return this.map.get(Region.EUROPE, this.hitMethod);
+    }
+
+    @Benchmark
+    public boolean containsKeyHit() {
+        return this.map.containsKey(Region.EUROPE, this.hitMethod);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer getHitContended() {
+        return this.map.get(Region.EUROPE, this.hitMethod);
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        this.map.forEach((region, method, value) -> blackhole.consume(value));
+    }
+}
@@ -0,0 +1,87 @@
+package net.petersil98.core.http.ratelimit;
+
+import net.petersil98.core.constant.Region;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.http.HttpHeaders;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the contended {@link BlockingRateLimiter#acquire(Region, String)} and {@link IPermit#close()} path.
+ * The Rate Limiter runs on a clock that is 1000 times faster than the system clock, so a window of one second ends
+ * after a millisecond. The Rate Limit of 1,000,000 requests per window therefore allows a billion Permits per second,
+ * which threads never reach, and the Permits tracked at a time stay bounded. The numbers reflect the bookkeeping overhead
+ * of the Rate Limiter rather than the configured quota.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final String ENDPOINT_METHOD = "account/v1/accounts/by-puuid/";
+    private static final String RATE_LIMIT = "1000000:1";
+    private static final long SPEEDUP = 1000;
+
+    private BlockingRateLimiter rateLimiter;
+
+    @Setup
+    public void setup() {
+        long start = System.nanoTime();
+        long startMillis = System.currentTimeMillis();
+        this.rateLimiter = new BlockingRateLimiter(new IClock() {
+            @Override
+            public long nanoTime() {
+                return (System.nanoTime() - start) * SPEEDUP;
+            }
+
+            @Override
+            public long currentTimeMillis() {
+                return startMillis + (System.currentTimeMillis() - startMillis) * SPEEDUP;
+            }
+        });
+        HttpHeaders headers = HttpHeaders.of(Map.of(
+                "x-app-rate-limit", List.of(RATE_LIMIT),
+                "x-method-rate-limit", List.of(RATE_LIMIT)), (name, value) -> true);
+        this.rateLimiter.updateRateLimitsFromHeaders(Region.EUROPE, ENDPOINT_METHOD, headers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.rateLimiter.shutdown();
+    }
+
+    private void acquireAndClose() throws Exception {
+        try (IPermit ignored = this.rateLimiter.acquire(Region.EUROPE, ENDPOINT_METHOD)) {
+            // The request would be made here
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void acquire1Thread() throws Exception {
+        acquireAndClose();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void acquire4Threads() throws Exception {
+        acquireAndClose();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void acquire16Threads() throws Exception {
+        acquireAndClose();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void acquire64Threads() throws Exception {
+        acquireAndClose();
+    }
+}
@@ -0,0 +1,64 @@
+package net.petersil98.core.util;
+
+import net.petersil98.core.Core;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the overhead of logging on the request path with several Threads logging at once: disabled messages built
+ * eagerly vs. parameterized, messages dropped by a {@link LogThrottle}, and enabled messages written to a file
+ * synchronously vs. through the asynchronous logger (see <code>log4j2-core-async.xml</code>)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = LoggingBenchmark.CONFIGURATION)
+public class LoggingBenchmark {
+
+    static final String CONFIGURATION = "-Dlog4j.configurationFile=log4j2-benchmark.xml";
+    private static final String ASYNC_CONTEXT_SELECTOR = "-Dlog4j2.contextSelector=org.apache.logging.log4j.core.async.AsyncLoggerContextSelector";
+
+    private static final Marker MARKER = MarkerManager.getMarker(LoggingBenchmark.class.getSimpleName());
+    private static final LogThrottle LOG_THROTTLE = new LogThrottle(MARKER, 10, Duration.ofSeconds(10));
+
+    private String endpointMethod;
+
+    @Setup
+    public void setup() {
+        this.endpointMethod = "account/v1/accounts/by-puuid/";
+    }
+
+    @Benchmark
+    public void disabledConcatenation() {
+        Core.LOGGER.debug(MARKER, "Rate Limit has been exceeded for endpoint " + this.endpointMethod + "!");
+    }
+
+    @Benchmark
+    public void disabledParameterized() {
+        Core.LOGGER.debug(MARKER, "Rate Limit has been exceeded for endpoint {}!", this.endpointMethod);
+    }
+
+    @Benchmark
+    public void throttled() {
+        if (LOG_THROTTLE.shouldLog(Level.WARN)) Core.LOGGER.warn(MARKER, "Rate Limit has been exceeded for endpoint {}!", this.endpointMethod);
+    }
+
+    @Benchmark
+    public void enabledSync() {
+        Core.LOGGER.warn(MARKER, "Rate Limit has been exceeded for endpoint {}!", this.endpointMethod);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {CONFIGURATION, ASYNC_CONTEXT_SELECTOR})
+    public void enabledAsync() {
+        Core.LOGGER.warn(MARKER, "Rate Limit has been exceeded for endpoint {}!", this.endpointMethod);
+    }
+}
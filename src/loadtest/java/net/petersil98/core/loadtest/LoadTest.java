@@ -0,0 +1,128 @@
+package net.petersil98.core.loadtest;
+
+import net.petersil98.core.constant.Region;
+import net.petersil98.core.model.Account;
+import net.petersil98.core.util.settings.Settings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Load driver, which runs a number of threads against the {@link RiotAPIStubServer} through the regular
+ * {@link Account} / {@link net.petersil98.core.http.RiotAPI RiotAPI} request path. At the end it prints the achieved
+ * requests per second, the rate of 429 responses seen by the server and client side latency percentiles.
+ * <br>
+ * Arguments are passed as <code>--name value</code> pairs:
+ * <ul>
+ *     <li><b>--threads</b> Number of concurrent callers (default 16)</li>
+ *     <li><b>--duration</b> Duration of the run in seconds (default 30)</li>
+ *     <li><b>--accounts</b> Number of distinct Accounts requested (default 1000)</li>
+ *     <li><b>--app-limit</b> Application Rate Limit of the stub (default <code>20:1,100:120</code>)</li>
+ *     <li><b>--method-limit</b> Method Rate Limit of the stub (default <code>2000:60</code>)</li>
+ *     <li><b>--cache</b> Whether the library's cache should be used (default false)</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments = parseArguments(args);
+        int threads = Integer.parseInt(arguments.getOrDefault("threads", "16"));
+        int durationInSeconds = Integer.parseInt(arguments.getOrDefault("duration", "30"));
+        int accounts = Integer.parseInt(arguments.getOrDefault("accounts", "1000"));
+
+        RiotAPIStubServer server = new RiotAPIStubServer(0,
+                arguments.getOrDefault("app-limit", "20:1,100:120"),
+                arguments.getOrDefault("method-limit", "2000:60"));
+        server.start();
+        Settings.setAPIBasePath(server.getBasePath());
+        Settings.setAPIKey(() -> "RGAPI-stub");
+        Settings.useCache(Boolean.parseBoolean(arguments.getOrDefault("cache", "false")));
+
+        long end = System.nanoTime() + durationInSeconds * 1_000_000_000L;
+        List<Recorder> recorders = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    String puuid = RiotAPIStubServer.puuid(random.nextInt(accounts));
+                    long before = System.nanoTime();
+                    Account account = Account.getAccountByPuuid(puuid, Region.EUROPE);
+                    recorder.record(System.nanoTime() - before, account != null);
+                }
+                done.countDown();
+            }, "load-test-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        // Callers that are stuck inside the library (e.g. waiting for a Permit that never gets released) must not hang the driver
+        boolean finished = done.await(durationInSeconds + 30L, TimeUnit.SECONDS);
+        double elapsedInSeconds = (System.nanoTime() - start) / 1e9;
+        server.stop();
+
+        long[] latencies = recorders.stream().flatMapToLong(Recorder::latencies).sorted().toArray();
+        long successful = recorders.stream().mapToLong(recorder -> recorder.successful.get()).sum();
+        long served = server.getServed();
+        long rejected = server.getRejected();
+        System.out.printf("Threads:            %d%s%n", threads, finished ? "" : " (" + done.getCount() + " still blocked after the run)");
+        System.out.printf("Duration:           %.1f s%n", elapsedInSeconds);
+        System.out.printf("Calls:              %d (%d successful)%n", latencies.length, successful);
+        System.out.printf("Achieved rate:      %.1f calls/s, %.1f successful/s%n", latencies.length / elapsedInSeconds, successful / elapsedInSeconds);
+        System.out.printf("Server responses:   %d OK, %d 429 (%.2f%% 429 rate)%n", served, rejected,
+                served + rejected == 0 ? 0 : 100.0 * rejected / (served + rejected));
+        System.out.printf("Latency p50:        %.2f ms%n", percentile(latencies, 0.50));
+        System.out.printf("Latency p90:        %.2f ms%n", percentile(latencies, 0.90));
+        System.out.printf("Latency p99:        %.2f ms%n", percentile(latencies, 0.99));
+        System.out.printf("Latency p99.9:      %.2f ms%n", percentile(latencies, 0.999));
+        System.out.printf("Latency max:        %.2f ms%n", latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        System.exit(0);
+    }
+
+    private static double percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) return 0;
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1e6;
+    }
+
+    private static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> arguments = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Expected an argument name but got " + args[i]);
+            arguments.put(args[i].substring(2), args[i + 1]);
+        }
+        return arguments;
+    }
+
+    /**
+     * Per thread latency recorder, such that the callers don't contend on a shared structure
+     */
+    private static class Recorder {
+        private volatile long[] latencies = new long[1024];
+        private volatile int size = 0;
+        private final AtomicLong successful = new AtomicLong();
+
+        private void record(long latencyInNanos, boolean success) {
+            long[] latencies = this.latencies;
+            if (size == latencies.length) latencies = this.latencies = Arrays.copyOf(latencies, size * 2);
+            latencies[size] = latencyInNanos;
+            size++;
+            if (success) successful.incrementAndGet();
+        }
+
+        private LongStream latencies() {
+            int size = this.size;
+            return Arrays.stream(latencies, 0, size);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package net.petersil98.core.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded stub of the Riot Games API based on the JDK {@link HttpServer}. It serves canned <b>Account-v1</b> responses
+ * and behaves like the real API regarding Rate Limits: every response carries the <i>x-app-rate-limit</i>,
+ * <i>x-method-rate-limit</i> and matching <i>*-count</i> headers, and requests exceeding a limit are answered with
+ * <b>429</b> and a <i>Retry-After</i> header.
+ * <br>
+ * The Region is expected as the first path segment, so the library has to be pointed at
+ * {@link #getBasePath()} using {@link net.petersil98.core.util.settings.Settings#setAPIBasePath(String)}.
+ */
+public class RiotAPIStubServer {
+
+    public static final String BY_PUUID = "account/v1/accounts/by-puuid/";
+    public static final String BY_RIOT_ID = "account/v1/accounts/by-riot-id/";
+
+    private static final String ACCOUNT_PREFIX = "/riot/";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String appRateLimit;
+    private final String methodRateLimit;
+    private final Map<String, Window[]> appWindows = new ConcurrentHashMap<>();
+    private final Map<String, Window[]> methodWindows = new ConcurrentHashMap<>();
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param port The port to listen on, {@code 0} picks a free port
+     * @param appRateLimit The Application Rate Limit in the format of the <i>x-app-rate-limit</i> header (e.g. <code>20:1,100:120</code>)
+     * @param methodRateLimit The Method Rate Limit applied to each Method in the format of the <i>x-method-rate-limit</i> header
+     * @throws IOException If the server can't be bound to the port
+     */
+    public RiotAPIStubServer(int port, String appRateLimit, String methodRateLimit) throws IOException {
+        this.appRateLimit = appRateLimit;
+        this.methodRateLimit = methodRateLimit;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.executor = Executors.newCachedThreadPool();
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        this.server.start();
+    }
+
+    public void stop() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Gets the Base Path of this server in the format expected by {@link net.petersil98.core.util.settings.Settings#setAPIBasePath(String)}
+     * @return The Base Path
+     */
+    public String getBasePath() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort() + "/#/";
+    }
+
+    public long getServed() {
+        return this.served.get();
+    }
+
+    public long getRejected() {
+        return this.rejected.get();
+    }
+
+    public long getNotFound() {
+        return this.notFound.get();
+    }
+
+    /**
+     * Canned PUUID for the given index. All PUUIDs are 78 characters long like the real ones
+     * @param index The index of the Account
+     * @return The PUUID
+     */
+    public static String puuid(int index) {
+        String prefix = String.format("stub-%08d-", index);
+        return prefix + "x".repeat(78 - prefix.length());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getRawPath();
+            int regionEnd = path.indexOf('/', 1);
+            if (regionEnd < 0 || !path.startsWith(ACCOUNT_PREFIX, regionEnd)) {
+                respond(exchange, 404, "{\"status\":{\"message\":\"Data not found\",\"status_code\":404}}");
+                return;
+            }
+            String region = path.substring(1, regionEnd);
+            String endpoint = path.substring(regionEnd + ACCOUNT_PREFIX.length());
+            String method;
+            String body;
+            if (endpoint.startsWith(BY_PUUID)) {
+                method = BY_PUUID;
+                body = account(endpoint.substring(BY_PUUID.length()), "Stub", "EUW");
+            } else if (endpoint.startsWith(BY_RIOT_ID)) {
+                method = BY_RIOT_ID;
+                String[] riotId = endpoint.substring(BY_RIOT_ID.length()).split("/");
+                String name = URLDecoder.decode(riotId[0], StandardCharsets.UTF_8);
+                String tag = riotId.length > 1 ? URLDecoder.decode(riotId[1], StandardCharsets.UTF_8) : "";
+                body = account(puuid(Math.abs((name + "#" + tag).hashCode() % 100000)), name, tag);
+            } else {
+                respond(exchange, 404, "{\"status\":{\"message\":\"Data not found\",\"status_code\":404}}");
+                return;
+            }
+
+            Window[] app = this.appWindows.computeIfAbsent(region, r -> Window.parse(this.appRateLimit));
+            Window[] methodLimits = this.methodWindows.computeIfAbsent(region + "/" + method, m -> Window.parse(this.methodRateLimit));
+            long now = System.currentTimeMillis();
+            String limitType = null;
+            long retryAfter = 0;
+            // Both counters are checked and incremented under one lock, such that concurrent requests can't overshoot
+            synchronized (app) {
+                synchronized (methodLimits) {
+                    long appRetry = Window.retryAfter(app, now);
+                    long methodRetry = Window.retryAfter(methodLimits, now);
+                    if (appRetry > 0) {
+                        limitType = "application";
+                        retryAfter = appRetry;
+                    } else if (methodRetry > 0) {
+                        limitType = "method";
+                        retryAfter = methodRetry;
+                    } else {
+                        Window.count(app);
+                        Window.count(methodLimits);
+                    }
+                }
+                exchange.getResponseHeaders().add("x-app-rate-limit", this.appRateLimit);
+                exchange.getResponseHeaders().add("x-app-rate-limit-count", Window.format(app));
+            }
+            synchronized (methodLimits) {
+                exchange.getResponseHeaders().add("x-method-rate-limit", this.methodRateLimit);
+                exchange.getResponseHeaders().add("x-method-rate-limit-count", Window.format(methodLimits));
+            }
+            if (limitType != null) {
+                this.rejected.incrementAndGet();
+                exchange.getResponseHeaders().add("x-rate-limit-type", limitType);
+                exchange.getResponseHeaders().add("retry-after", String.valueOf((retryAfter + 999) / 1000));
+                respond(exchange, 429, "{\"status\":{\"message\":\"Rate limit exceeded\",\"status_code\":429}}");
+            } else {
+                this.served.incrementAndGet();
+                respond(exchange, 200, body);
+            }
+        }
+    }
+
+    private void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        if (statusCode == 404) this.notFound.incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("content-type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static String account(String puuid, String gameName, String tagLine) {
+        return "{\"puuid\":\"" + puuid + "\",\"gameName\":\"" + gameName + "\",\"tagLine\":\"" + tagLine + "\"}";
+    }
+
+    /**
+     * A fixed Rate Limit window as used by the Riot API. The window starts with the first request and resets after its interval
+     */
+    private static class Window {
+        private final int limit;
+        private final int intervalInSeconds;
+        private long start;
+        private int count;
+
+        private Window(int limit, int intervalInSeconds) {
+            this.limit = limit;
+            this.intervalInSeconds = intervalInSeconds;
+        }
+
+        private static Window[] parse(String header) {
+            return Arrays.stream(header.split(",")).map(limit -> {
+                String[] split = limit.split(":");
+                return new Window(Integer.parseInt(split[0]), Integer.parseInt(split[1]));
+            }).toArray(Window[]::new);
+        }
+
+        private static long retryAfter(Window[] windows, long now) {
+            long retryAfter = 0;
+            for (Window window : windows) {
+                if (now - window.start >= window.intervalInSeconds * 1000L) {
+                    window.start = now;
+                    window.count = 0;
+                }
+                if (window.count >= window.limit) {
+                    retryAfter = Math.max(retryAfter, window.start + window.intervalInSeconds * 1000L - now);
+                }
+            }
+            return retryAfter;
+        }
+
+        private static void count(Window[] windows) {
+            for (Window window : windows) {
+                window.count++;
+            }
+        }
+
+        private static String format(Window[] windows) {
+            return Arrays.stream(windows).map(window -> window.count + ":" + window.intervalInSeconds).collect(Collectors.joining(","));
+        }
+    }
+
+    /**
+     * Starts the stub server standalone, e.g. for manual testing
+     * @param args Optional port, Application and Method Rate Limit
+     * @throws IOException If the server can't be started
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> arguments = List.of(args);
+        RiotAPIStubServer server = new RiotAPIStubServer(
+                arguments.size() > 0 ? Integer.parseInt(arguments.get(0)) : 8080,
+                arguments.size() > 1 ? arguments.get(1) : "20:1,100:120",
+                arguments.size() > 2 ? arguments.get(2) : "2000:60");
+        server.start();
+        System.out.println("Stub server listening on " + server.getBasePath());
+    }
+}
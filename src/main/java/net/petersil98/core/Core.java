@@ -5,7 +5,11 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * Main Class, which holds global instances of a {@link Logger} and {@link ObjectMapper}
+ * Main Class, which holds global instances of a {@link Logger} and {@link ObjectMapper}.
+ * <br>
+ * The Logger logs synchronously by default. To log asynchronously, add the <b>asyncLogging</b> capability of this library
+ * (which brings the LMAX Disruptor) and start the JVM with <code>-Dlog4j.configurationFile=log4j2-core-async.xml</code>,
+ * or declare an <code>AsyncLogger</code> for <code>net.petersil98.core.Core</code> in your own configuration.
  */
 public class Core {
     public static final Logger LOGGER = LogManager.getLogger(Core.class);
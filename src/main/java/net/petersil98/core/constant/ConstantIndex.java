@@ -0,0 +1,107 @@
+package net.petersil98.core.constant;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Immutable index of the constants of a class, see {@link Platform#values(Class)}. The constants are looked up by their
+ * name case-insensitively in an open addressing table, which is built once per class and doesn't allocate on lookup.
+ * @param <T> Type of the constants
+ */
+final class ConstantIndex<T> {
+
+    private final List<T> values;
+    private final String[] names;
+    private final Object[] constants;
+    private final boolean complete;
+
+    /**
+     * Constructor
+     * @param clazz Class containing the constants
+     * @param nameOf Function returning the name of a constant
+     */
+    ConstantIndex(Class<T> clazz, Function<? super T, String> nameOf) {
+        List<T> values = new ArrayList<>();
+        boolean complete = true;
+        for (Field field : clazz.getDeclaredFields()) {
+            if (Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers()) && Modifier.isFinal(field.getModifiers())) {
+                try {
+                    Object value = field.get(null);
+                    // Fields of a class which is still being initialized are null
+                    if (value == null) complete = false;
+                    else if (clazz.isInstance(value)) values.add(clazz.cast(value));
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        this.values = List.copyOf(values);
+        this.complete = complete;
+        int capacity = Integer.highestOneBit(Math.max(2, values.size() * 2) - 1) << 1;
+        this.names = new String[capacity];
+        this.constants = new Object[capacity];
+        for (T value : values) {
+            String name = nameOf.apply(value);
+            int slot = slot(name);
+            if (this.names[slot] != null) continue;
+            this.names[slot] = name;
+            this.constants[slot] = value;
+        }
+    }
+
+    /**
+     * Gets all constants in declaration order
+     * @return Unmodifiable List of the constants
+     */
+    List<T> values() {
+        return this.values;
+    }
+
+    /**
+     * Gets a constant by its name (case-insensitive)
+     * @param name The name of the constant
+     * @return The constant if found, {@code null} otherwise
+     */
+    @SuppressWarnings("unchecked")
+    T get(String name) {
+        if (name == null) return null;
+        int slot = slot(name);
+        return this.names[slot] != null ? (T) this.constants[slot] : null;
+    }
+
+    /**
+     * Whether all constants were initialized when the index was built. Incomplete indices must not be cached
+     * @return Whether the index is complete
+     */
+    boolean isComplete() {
+        return this.complete;
+    }
+
+    /**
+     * Utility Method to find the slot of a name, which is either the slot holding it or the empty slot it would be inserted in
+     * @param name The name
+     * @return The index of the slot
+     */
+    private int slot(String name) {
+        int mask = this.names.length - 1;
+        for (int i = hash(name) & mask; ; i = (i + 1) & mask) {
+            if (this.names[i] == null || this.names[i].equalsIgnoreCase(name)) return i;
+        }
+    }
+
+    /**
+     * Utility Method to compute a case-insensitive hash without creating the lower case String
+     * @param name The name
+     * @return The hash
+     */
+    private static int hash(String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
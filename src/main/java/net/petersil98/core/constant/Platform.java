@@ -1,8 +1,5 @@
 package net.petersil98.core.constant;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -10,6 +7,14 @@ import java.util.List;
  */
 public class Platform {
 
+    private static final ClassValue<ConstantIndex<?>> INDEX = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected ConstantIndex<?> computeValue(Class<?> type) {
+            return new ConstantIndex<>((Class<Platform>) type, platform -> platform.name);
+        }
+    };
+
     private final String name;
 
     protected Platform(String name) {
@@ -22,30 +27,36 @@ public class Platform {
      * @return The platform if found, {@code null} otherwise
      */
     public static Platform getPlatform(String platformName) {
-        for (Platform platform: Platform.values(Platform.class)) {
-            if (platform.name.equalsIgnoreCase(platformName)) return platform;
-        }
-        return null;
+        return getPlatform(Platform.class, platformName);
+    }
+
+    /**
+     * Utility Method to get a platform of a subclass, e.g. of a game module, by its name (case-insensitive).
+     * The constants of each class are indexed once, so the lookup neither uses reflection nor allocates
+     * @param clazz Class containing the constants
+     * @param platformName The Name of the Platform
+     * @return The platform if found, {@code null} otherwise
+     * @param <T> Type of the Platform
+     */
+    public static <T extends Platform> T getPlatform(Class<T> clazz, String platformName) {
+        return index(clazz).get(platformName);
     }
 
     /**
      * Utility Method to get all the constants of a class similar to how <b><code>values()</code></b> works in enums.
      * A Field is considered a constant if its <b>public</b>, <b>static</b> and <b>final</b>
      * @param clazz Class containing the constants
-     * @return List of the Constants
+     * @return Unmodifiable List of the Constants
      */
     protected static <T extends Platform> List<T> values(Class<T> clazz) {
-        List<T> platforms = new ArrayList<>();
-        for (Field field : clazz.getDeclaredFields()) {
-            if (Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers()) && Modifier.isFinal(field.getModifiers())) {
-                try {
-                    platforms.add((T) field.get(null));
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        }
-        return platforms;
+        return index(clazz).values();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Platform> ConstantIndex<T> index(Class<T> clazz) {
+        ConstantIndex<T> index = (ConstantIndex<T>) INDEX.get(clazz);
+        if (!index.isComplete()) INDEX.remove(clazz);
+        return index;
     }
 
     @Override
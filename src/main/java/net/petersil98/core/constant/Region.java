@@ -1,5 +1,7 @@
 package net.petersil98.core.constant;
 
+import java.util.List;
+
 /**
  * Enumeration of the possible Regions for the Account Endpoint
  */
@@ -9,6 +11,13 @@ public class Region {
     public static final Region ASIA = new Region("asia");
     public static final Region SEA = new Region("sea");
 
+    private static final ClassValue<ConstantIndex<?>> INDEX = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected ConstantIndex<?> computeValue(Class<?> type) {
+            return new ConstantIndex<>((Class<Region>) type, region -> region.name);
+        }
+    };
 
     private final String name;
 
@@ -16,6 +25,44 @@ public class Region {
         this.name = name;
     }
 
+    /**
+     * Utility Method to get a region by its name (case-insensitive)
+     * @param regionName The Name of the Region
+     * @return The region if found, {@code null} otherwise
+     */
+    public static Region getRegion(String regionName) {
+        return getRegion(Region.class, regionName);
+    }
+
+    /**
+     * Utility Method to get a region of a subclass, e.g. of a game module, by its name (case-insensitive).
+     * The constants of each class are indexed once, so the lookup neither uses reflection nor allocates
+     * @param clazz Class containing the constants
+     * @param regionName The Name of the Region
+     * @return The region if found, {@code null} otherwise
+     * @param <T> Type of the Region
+     */
+    public static <T extends Region> T getRegion(Class<T> clazz, String regionName) {
+        return index(clazz).get(regionName);
+    }
+
+    /**
+     * Utility Method to get all the constants of a class similar to how <b><code>values()</code></b> works in enums.
+     * A Field is considered a constant if its <b>public</b>, <b>static</b> and <b>final</b>
+     * @param clazz Class containing the constants
+     * @return Unmodifiable List of the Constants
+     */
+    protected static <T extends Region> List<T> values(Class<T> clazz) {
+        return index(clazz).values();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Region> ConstantIndex<T> index(Class<T> clazz) {
+        ConstantIndex<T> index = (ConstantIndex<T>) INDEX.get(clazz);
+        if (!index.isComplete()) INDEX.remove(clazz);
+        return index;
+    }
+
     @Override
     public String toString() {
         return this.name;
@@ -0,0 +1,174 @@
+package net.petersil98.core.http;
+
+import net.petersil98.core.Core;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * {@link Flow.Publisher} that requests a result for each key of a Stream (e.g. PUUIDs or Riot IDs) and emits the results as they complete.
+ * <br>
+ * Requests are only started for outstanding demand: there are never more requests in flight or results buffered than the
+ * Subscriber requested, and at most <b>{@code maxInFlight}</b> requests run at once. Since each request acquires a Permit
+ * from the Rate Limiter, a slow Subscriber throttles the fetch rate, instead of results piling up in memory.
+ * <br>
+ * Keys whose request fails or returns {@code null} (e.g. because the resource doesn't exist) are logged and skipped.
+ * Requests already running when the Subscription is cancelled still finish, but their results are dropped.
+ * The results are emitted in the order the requests complete, which is not necessarily the order of the keys.
+ * The Publisher can only be subscribed to once. The requests are made for the {@link RiotClient} that was current when the
+ * Publisher was created.
+ * @param <K> Type of the Keys
+ * @param <T> Type of the Results
+ */
+public class BulkRequestPublisher<K, T> implements Flow.Publisher<T> {
+
+    private static final Marker MARKER = MarkerManager.getMarker(BulkRequestPublisher.class.getSimpleName());
+
+    private final Stream<K> keys;
+    private final Function<K, T> request;
+    private final int maxInFlight;
+    private final RiotClient client = RiotClient.current();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Constructor
+     * @param keys The keys to request the results for. The Stream is consumed lazily, one key per started request
+     * @param request The blocking function requesting the result of a key, e.g. via {@link RiotAPI}
+     * @param maxInFlight The maximum number of concurrent requests, needs to be positive
+     */
+    public BulkRequestPublisher(Stream<K> keys, Function<K, T> request, int maxInFlight) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight needs to be positive but got " + maxInFlight);
+        this.keys = Objects.requireNonNull(keys);
+        this.request = Objects.requireNonNull(request);
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!this.subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {}
+
+                @Override
+                public void cancel() {}
+            });
+            subscriber.onError(new IllegalStateException("BulkRequestPublisher can only be subscribed to once"));
+            return;
+        }
+        BulkSubscription subscription = new BulkSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Subscription driving the requests. All signals to the Subscriber are emitted from {@link #drain()}, which only ever
+     * runs on one Thread at a time.
+     */
+    private class BulkSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Iterator<K> keyIterator;
+        private final ExecutorService executor;
+        private final Queue<T> results = new ConcurrentLinkedQueue<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private boolean exhausted;
+        private boolean done;
+
+        private BulkSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.keyIterator = keys.iterator();
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(maxInFlight, runnable -> {
+                Thread thread = new Thread(runnable, "BulkRequest-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                this.error = new IllegalArgumentException("Requested demand needs to be positive but got " + n);
+            } else {
+                this.requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (this.wip.getAndIncrement() != 0) return;
+            do {
+                if (this.done) continue;
+                if (this.cancelled) {
+                    terminate();
+                    continue;
+                }
+                T result;
+                while (this.requested.get() > 0 && (result = this.results.poll()) != null) {
+                    this.requested.decrementAndGet();
+                    this.subscriber.onNext(result);
+                }
+                while (this.error == null && !this.exhausted && this.inFlight.get() < maxInFlight
+                        && this.inFlight.get() + this.results.size() < this.requested.get()) {
+                    try {
+                        if (this.keyIterator.hasNext()) {
+                            K key = this.keyIterator.next();
+                            this.inFlight.incrementAndGet();
+                            this.executor.execute(() -> client.run(() -> fetch(key)));
+                        } else {
+                            this.exhausted = true;
+                        }
+                    } catch (RuntimeException e) {
+                        this.error = e;
+                    }
+                }
+                if (this.error != null) {
+                    terminate();
+                    this.subscriber.onError(this.error);
+                } else if (this.exhausted && this.inFlight.get() == 0 && this.results.isEmpty()) {
+                    terminate();
+                    this.subscriber.onComplete();
+                }
+            } while (this.wip.decrementAndGet() != 0);
+        }
+
+        private void fetch(K key) {
+            try {
+                T result = this.cancelled ? null : request.apply(key);
+                if (result != null) this.results.offer(result);
+                else if (!this.cancelled) Core.LOGGER.debug(MARKER, "Skipping {}, because there is no result", key);
+            } catch (RuntimeException e) {
+                Core.LOGGER.debug(MARKER, "Skipping {}, because its request failed", key, e);
+            } finally {
+                this.inFlight.decrementAndGet();
+                drain();
+            }
+        }
+
+        private void terminate() {
+            this.done = true;
+            this.results.clear();
+            this.executor.shutdown();
+            keys.close();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package net.petersil98.core.http;
 
 import net.petersil98.core.Core;
-import net.petersil98.core.util.settings.Settings;
+import net.petersil98.core.util.LogThrottle;
+import net.petersil98.core.util.settings.ClientSettings;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
@@ -10,29 +12,35 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 
 /**
  * This class represents an HTTP Client and is used by {@link RiotAPI}. It uses the {@link HttpClient} internally to make the Requests.
+ * Each {@link RiotClient} has its own HTTP Client sending its API Key, while the {@link HttpClient} and its connections are shared.
  */
 public class HTTPClient {
 
-    private final HttpClient client;
-    private static final HTTPClient INSTANCE = new HTTPClient();
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
     private static final Marker MARKER = MarkerManager.getMarker(HTTPClient.class.getSimpleName());
+    private static final LogThrottle LOG_THROTTLE = new LogThrottle(MARKER, 10, Duration.ofSeconds(10));
+
+    private final ClientSettings settings;
 
     /**
-     * Gets an Instance of the HTTP Client using the <b>Singleton</b> Pattern.
+     * Gets the HTTP Client of the current {@link RiotClient}
+     * @see RiotClient#current()
      * @return Instance of the HTTP Client
      */
     public static HTTPClient getInstance() {
-        return INSTANCE;
+        return RiotClient.current().getHttpClient();
     }
 
     /**
-     * Private Constructor
+     * Constructor
+     * @param settings The Settings of the {@link RiotClient} the HTTP Client belongs to
      */
-    private HTTPClient() {
-        this.client = HttpClient.newHttpClient();
+    HTTPClient(ClientSettings settings) {
+        this.settings = settings;
     }
 
     /**
@@ -44,11 +52,11 @@ public class HTTPClient {
         try {
             URI uri = URI.create(url);
             return request(HttpRequest.newBuilder(uri)
-                    .header("X-Riot-Token", Settings.getAPIKey())
+                    .header("X-Riot-Token", this.settings.getAPIKey())
                     .GET()
                     .build());
         } catch (Exception e) {
-            Core.LOGGER.error(MARKER, "Failed to perform GET request", e);
+            if (LOG_THROTTLE.shouldLog(Level.ERROR)) Core.LOGGER.error(MARKER, "Failed to perform GET request to {}", url, e);
         }
         return null;
     }
@@ -62,6 +70,6 @@ public class HTTPClient {
      * @throws InterruptedException InterruptedException
      */
     private HttpResponse<String> request(HttpRequest request) throws IOException, InterruptedException {
-        return client.send(request, HttpResponse.BodyHandlers.ofString());
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
     }
 }
@@ -0,0 +1,124 @@
+package net.petersil98.core.http;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Memory-compact filter of requests known to return {@link org.apache.http.HttpStatus#SC_NOT_FOUND}, based on Bloom Filters.
+ * It never forgets a missing resource until it rotates, but may report a resource as missing that isn't (with the configured
+ * false positive probability). In exchange, it needs only a few bits per entry, so it can remember far more missing resources
+ * than the negative cache of {@link RiotAPI} and keeps repeated lookups of invalid ids from draining the Rate Limits.
+ * <br>
+ * The filter consists of two generations. Once the current generation holds the expected number of entries, it becomes the
+ * previous generation and a new one is started, such that the false positive probability stays bounded and old entries
+ * are eventually forgotten.
+ * @see RiotAPI#setNotFoundFilter(NotFoundFilter)
+ */
+public class NotFoundFilter {
+
+    private static final int MAGIC = 0x4E464654;
+    private static final short VERSION = 1;
+
+    private final int expectedInsertions;
+    private final double falsePositiveProbability;
+    private volatile BloomFilter<CharSequence> current;
+    private volatile BloomFilter<CharSequence> previous;
+
+    /**
+     * Constructor
+     * @param expectedInsertions The number of missing resources each generation holds
+     * @param falsePositiveProbability The probability of reporting a resource as missing, which isn't
+     */
+    public NotFoundFilter(int expectedInsertions, double falsePositiveProbability) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.current = create();
+    }
+
+    /**
+     * Checks whether the resource might be missing
+     * @param key The key of the resource, e.g. the Url of the request
+     * @return {@code false} if the resource isn't known to be missing, {@code true} if it might be missing
+     */
+    public boolean mightBeMissing(String key) {
+        BloomFilter<CharSequence> previous = this.previous;
+        return this.current.mightContain(key) || (previous != null && previous.mightContain(key));
+    }
+
+    /**
+     * Remembers the resource as missing
+     * @param key The key of the resource, e.g. the Url of the request
+     */
+    public void markMissing(String key) {
+        this.current.put(key);
+        if (this.current.approximateElementCount() >= this.expectedInsertions) rotate();
+    }
+
+    /**
+     * Forgets all missing resources
+     */
+    public synchronized void clear() {
+        this.previous = null;
+        this.current = create();
+    }
+
+    /**
+     * Writes this filter to the given file. The file is replaced atomically.
+     * @param file The file the filter should be written to
+     * @throws IOException If the file can't be written
+     */
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            BloomFilter<CharSequence> current;
+            BloomFilter<CharSequence> previous;
+            synchronized (this) {
+                current = this.current;
+                previous = this.previous;
+            }
+            data.writeInt(MAGIC);
+            data.writeShort(VERSION);
+            data.writeInt(this.expectedInsertions);
+            data.writeDouble(this.falsePositiveProbability);
+            current.writeTo(data);
+            data.writeBoolean(previous != null);
+            if (previous != null) previous.writeTo(data);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a filter previously written by {@link #save(Path)}
+     * @param file The file the filter should be read from
+     * @return The filter
+     * @throws IOException If the file can't be read or is not a valid filter file
+     */
+    public static NotFoundFilter load(Path file) throws IOException {
+        try (DataInputStream data = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (data.readInt() != MAGIC) throw new IOException("Not a not found filter file");
+            short version = data.readShort();
+            if (version != VERSION) throw new IOException("Unsupported not found filter version " + version);
+            NotFoundFilter filter = new NotFoundFilter(data.readInt(), data.readDouble());
+            filter.current = BloomFilter.readFrom(data, Funnels.stringFunnel(StandardCharsets.UTF_8));
+            if (data.readBoolean()) filter.previous = BloomFilter.readFrom(data, Funnels.stringFunnel(StandardCharsets.UTF_8));
+            return filter;
+        }
+    }
+
+    private synchronized void rotate() {
+        if (this.current.approximateElementCount() < this.expectedInsertions) return;
+        this.previous = this.current;
+        this.current = create();
+    }
+
+    private BloomFilter<CharSequence> create() {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), this.expectedInsertions, this.falsePositiveProbability);
+    }
+}
@@ -0,0 +1,11 @@
+package net.petersil98.core.http;
+
+import net.petersil98.core.constant.Region;
+
+/**
+ * Request issued by the {@link Prefetcher} in the background, such that a later request of the same Url is served from the cache
+ * @param url The full Url of the request, without GET parameters, e.g. as built by {@link RiotAPI#constructUrl(String, RiotAPI.AppType, Region)}
+ * @param endpointMethod The Endpoint used in the url. Used for the Rate Limiter
+ * @param region The Region to which the request is made. Used for the Rate Limiter
+ */
+public record PrefetchRequest(String url, String endpointMethod, Region region) {}
@@ -0,0 +1,22 @@
+package net.petersil98.core.http;
+
+import net.petersil98.core.constant.Region;
+
+import java.util.Collection;
+
+/**
+ * Rule deciding which requests to prefetch after a successful response of an Endpoint
+ * @see Prefetcher#addRule(String, Class, PrefetchRule)
+ * @param <T> Type of the response
+ */
+@FunctionalInterface
+public interface PrefetchRule<T> {
+
+    /**
+     * Gets the requests likely to follow the given response
+     * @param response The response, cast to <b>T</b>
+     * @param region The Region the response came from
+     * @return The requests to prefetch, may be empty
+     */
+    Collection<PrefetchRequest> followUps(T response, Region region);
+}
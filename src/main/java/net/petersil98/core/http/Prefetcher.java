@@ -0,0 +1,319 @@
+package net.petersil98.core.http;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.petersil98.core.Core;
+import net.petersil98.core.constant.Region;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests in the background that are likely to follow the requests made by the application, such that the later
+ * requests are served from the cache (see {@link net.petersil98.core.util.settings.Settings#useCache(boolean)}).
+ * <br>
+ * Prefetch requests form a low priority lane: they only get a Permit while no other request waits for the Rate Limiter
+ * and every Rate Limit keeps the configured reserve free (see {@link net.petersil98.core.http.ratelimit.RateLimiter#tryAcquire(Region, String, double)}).
+ * Requests that don't get a Permit within {@link #MAX_PREFETCH_DELAY} are dropped.
+ * <br>
+ * Follow-up requests are either registered as {@link PrefetchRule PrefetchRules}, or learned: after a response containing
+ * a <i>puuid</i>, requests whose Url contains that PUUID within the learning window are counted per Endpoint and Url pattern.
+ * Once a pattern followed at least the configured share of responses, it's prefetched for every new PUUID of that Endpoint.
+ * @see RiotAPI#setPrefetcher(Prefetcher)
+ * @see RiotClient#setPrefetcher(Prefetcher)
+ */
+public class Prefetcher {
+
+    private static final Marker MARKER = MarkerManager.getMarker(Prefetcher.class.getSimpleName());
+
+    private static final Duration MAX_PREFETCH_DELAY = Duration.ofSeconds(5);
+    private static final long RETRY_INTERVAL_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int MAX_QUEUED = 1000;
+    private static final Duration LEARNING_WINDOW = Duration.ofSeconds(30);
+    private static final String PUUID_FIELD = "\"puuid\"";
+    private static final String PUUID_PLACEHOLDER = "{puuid}";
+
+    private final double reserve;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, List<RegisteredRule<?>>> rules = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private volatile RiotClient client = RiotClient.getDefault();
+
+    private volatile int minSamples;
+    private volatile double minConfidence;
+    private final Cache<String, Observation> recentPuuids = CacheBuilder.newBuilder().maximumSize(10000).expireAfterWrite(LEARNING_WINDOW).build();
+    private final Map<String, LongAdder> responsesPerEndpoint = new ConcurrentHashMap<>();
+    private final Map<String, Map<FollowUp, LongAdder>> followUps = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     * @param parallelism The maximum number of prefetch requests in flight
+     * @param reserve The share of each Rate Limit that is kept free for the requests of the application, between 0 and 1
+     */
+    public Prefetcher(int parallelism, double reserve) {
+        this.reserve = reserve;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(MAX_QUEUED), runnable -> {
+            Thread thread = new Thread(runnable, "Prefetcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Registers a rule for the responses of an Endpoint. Rules are applied in the background to successful responses to
+     * requests of the application sent over the network
+     * @param endpointMethod The Endpoint, as passed to the Rate Limiter
+     * @param responseClass Class the response is cast to for the rule
+     * @param rule The rule
+     * @param <T> Type of the response
+     */
+    public <T> void addRule(String endpointMethod, Class<T> responseClass, PrefetchRule<T> rule) {
+        this.rules.computeIfAbsent(endpointMethod, method -> new CopyOnWriteArrayList<>()).add(new RegisteredRule<>(responseClass, rule));
+    }
+
+    /**
+     * Enables learning follow-up requests of responses containing a <i>puuid</i>. Disabled by default
+     * @param minSamples The number of times a Url pattern has to follow the responses of an Endpoint before it's prefetched
+     * @param minConfidence The share of responses of an Endpoint a Url pattern has to follow before it's prefetched, between 0 and 1
+     */
+    public void learnFollowUps(int minSamples, double minConfidence) {
+        this.minSamples = minSamples;
+        this.minConfidence = minConfidence;
+    }
+
+    /**
+     * Preloads the given requests into the cache, e.g. the most requested resources at startup. Requests use the low
+     * priority lane, and the Method returns once all requests are done or the budget is used up.
+     * @param requests The requests, in the order they should be loaded
+     * @param budget The maximum time spent on loading
+     * @param maxRequests The maximum number of requests sent. Requests already cached don't count
+     * @return The number of requests that are cached now
+     */
+    public int warmUp(Collection<PrefetchRequest> requests, Duration budget, int maxRequests) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger cached = new AtomicInteger();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        Semaphore slots = new Semaphore(this.executor.getMaximumPoolSize());
+        for (PrefetchRequest request : requests) {
+            if (System.nanoTime() - deadline >= 0 || sent.get() >= maxRequests) break;
+            if (RiotAPI.isCached(this.client, request)) {
+                cached.incrementAndGet();
+                continue;
+            }
+            try {
+                if (!slots.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                pending.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        if (prefetch(request, deadline)) cached.incrementAndGet();
+                    } finally {
+                        slots.release();
+                    }
+                }, this.executor));
+            } catch (RejectedExecutionException e) {
+                this.dropped.increment();
+                break;
+            }
+            sent.incrementAndGet();
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            Core.LOGGER.debug(MARKER, "Warm-up ended before all requests completed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Core.LOGGER.info(MARKER, "Warmed up {} of {} requests", cached.get(), requests.size());
+        return cached.get();
+    }
+
+    /**
+     * Schedules a request in the low priority lane. Requests already scheduled or cached are ignored, and requests are
+     * dropped if too many are queued
+     * @param request The request
+     */
+    public void prefetch(PrefetchRequest request) {
+        if (!this.inFlight.add(request.url())) return;
+        long deadline = System.nanoTime() + MAX_PREFETCH_DELAY.toNanos();
+        try {
+            this.executor.execute(() -> {
+                try {
+                    prefetch(request, deadline);
+                } finally {
+                    this.inFlight.remove(request.url());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.inFlight.remove(request.url());
+            this.dropped.increment();
+        }
+    }
+
+    /**
+     * Gets the number of prefetch requests dropped, because too many were queued or they didn't get a Permit in time
+     * @return The number of dropped requests
+     */
+    public long getDroppedCount() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Stops the background Threads. Scheduled requests are dropped
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Binds the Prefetcher to the client whose requests it prefetches
+     * @param client The client
+     */
+    void bind(RiotClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Utility Method to send a request in the low priority lane, waiting for spare capacity of the Rate Limiter until the deadline
+     * @param request The request
+     * @param deadline The {@link System#nanoTime()} after which the request is dropped
+     * @return Whether the response is cached now
+     */
+    private boolean prefetch(PrefetchRequest request, long deadline) {
+        RiotClient client = this.client;
+        return client.call(() -> prefetch(client, request, deadline));
+    }
+
+    private boolean prefetch(RiotClient client, PrefetchRequest request, long deadline) {
+        while (true) {
+            Boolean cached = RiotAPI.prefetch(client, request, this.reserve);
+            if (cached != null) return cached;
+            if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+                this.dropped.increment();
+                return false;
+            }
+            LockSupport.parkNanos(this, RETRY_INTERVAL_IN_NANOS);
+        }
+    }
+
+    /**
+     * Gets called by {@link RiotAPI} for each request of the application, before it's looked up in the cache, to learn
+     * which requests follow responses containing a PUUID
+     * @param url The full Url of the request, without GET parameters
+     * @param endpointMethod The Endpoint used in the url
+     * @param region The Region to which the request is made
+     */
+    void onRequest(String url, String endpointMethod, Region region) {
+        if (this.minSamples <= 0) return;
+        for (String segment : url.substring(url.indexOf("//") + 2).split("/")) {
+            if (segment.length() < 32) continue;
+            Observation observation = this.recentPuuids.getIfPresent(segment);
+            if (observation == null || observation.url.equals(url)) continue;
+            String pattern = url.replace(segment, PUUID_PLACEHOLDER);
+            if (observation.patterns.add(pattern)) {
+                this.followUps.computeIfAbsent(observation.endpointMethod, method -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(new FollowUp(pattern, endpointMethod, region), followUp -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    /**
+     * Gets called by {@link RiotAPI} for each successful response to a request of the application sent over the network,
+     * to apply the rules and learned follow-ups of the Endpoint. Responses to prefetch requests are not passed in, so
+     * prefetches don't trigger further prefetches. The rules are applied on the Threads of this Prefetcher, since they
+     * parse the response, only the learned follow-ups are looked up on the calling Thread.
+     * @param url The full Url of the request, without GET parameters
+     * @param endpointMethod The Endpoint used in the url
+     * @param region The Region to which the request was made
+     * @param body The body of the response
+     */
+    void onResponse(String url, String endpointMethod, Region region, String body) {
+        List<RegisteredRule<?>> endpointRules = this.rules.get(endpointMethod);
+        if (endpointRules != null) {
+            try {
+                this.executor.execute(() -> applyRules(endpointRules, endpointMethod, region, body));
+            } catch (RejectedExecutionException e) {
+                this.dropped.increment();
+            }
+        }
+        if (this.minSamples <= 0) return;
+        String puuid = findPuuid(body);
+        if (puuid == null) return;
+        this.recentPuuids.put(puuid, new Observation(url, endpointMethod));
+        LongAdder responseCount = this.responsesPerEndpoint.computeIfAbsent(endpointMethod, method -> new LongAdder());
+        responseCount.increment();
+        Map<FollowUp, LongAdder> endpointFollowUps = this.followUps.get(endpointMethod);
+        if (endpointFollowUps == null) return;
+        long responses = responseCount.sum();
+        endpointFollowUps.forEach((followUp, count) -> {
+            long samples = count.sum();
+            if (samples >= this.minSamples && samples >= responses * this.minConfidence) {
+                prefetch(new PrefetchRequest(followUp.pattern.replace(PUUID_PLACEHOLDER, puuid), followUp.endpointMethod, followUp.region));
+            }
+        });
+    }
+
+    private void applyRules(List<RegisteredRule<?>> endpointRules, String endpointMethod, Region region, String body) {
+        for (RegisteredRule<?> rule : endpointRules) {
+            try {
+                rule.followUps(body, region).forEach(this::prefetch);
+            } catch (IOException | RuntimeException e) {
+                Core.LOGGER.debug(MARKER, "Prefetch rule for {} failed", endpointMethod, e);
+            }
+        }
+    }
+
+    /**
+     * Utility Method to find the value of the first <i>puuid</i> field in a JSON body without parsing it
+     * @param body The JSON body
+     * @return The PUUID, {@code null} if there is none
+     */
+    private static String findPuuid(String body) {
+        int field = body.indexOf(PUUID_FIELD);
+        if (field < 0) return null;
+        int start = body.indexOf('"', body.indexOf(':', field + PUUID_FIELD.length()) + 1);
+        int end = start < 0 ? -1 : body.indexOf('"', start + 1);
+        return end < 0 ? null : body.substring(start + 1, end);
+    }
+
+    private record RegisteredRule<T>(Class<T> responseClass, PrefetchRule<T> rule) {
+
+        private Collection<PrefetchRequest> followUps(String body, Region region) throws IOException {
+            return this.rule.followUps(Core.MAPPER.readValue(body, this.responseClass), region);
+        }
+    }
+
+    /**
+     * A response containing a PUUID, and the Url patterns already counted as its follow-ups
+     */
+    private static class Observation {
+        private final String url;
+        private final String endpointMethod;
+        private final Set<String> patterns = ConcurrentHashMap.newKeySet();
+
+        private Observation(String url, String endpointMethod) {
+            this.url = url;
+            this.endpointMethod = endpointMethod;
+        }
+    }
+
+    /**
+     * A Url pattern requested after the responses of an Endpoint, with {@link #PUUID_PLACEHOLDER} in place of the PUUID
+     */
+    private record FollowUp(String pattern, String endpointMethod, Region region) {}
+}
@@ -0,0 +1,158 @@
+package net.petersil98.core.http;
+
+import net.petersil98.core.http.exceptions.*;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Result of a request to the Riot Games API, either a {@link Success} holding the response cast to <b>T</b>,
+ * or a {@link Failure} describing why there is none. Unlike the Methods returning <b>T</b> directly, no exception is
+ * thrown for failed requests, which keeps expected errors like 404s cheap on the caller's side.
+ * @param <T> Type of the response
+ */
+public sealed interface Result<T> {
+
+    static <T> Result<T> success(T value) {
+        return new Success<>(value);
+    }
+
+    static <T> Result<T> failure(ErrorType type, int statusCode, String url, String body) {
+        return new Failure<>(type, statusCode, url, body, null);
+    }
+
+    static <T> Result<T> failure(ErrorType type, RuntimeException exception) {
+        return new Failure<>(type, 0, null, null, exception);
+    }
+
+    boolean isSuccess();
+
+    /**
+     * @return The response if the request succeeded, {@code null} otherwise
+     */
+    T getOrNull();
+
+    /**
+     * @return The response if the request succeeded
+     * @throws RuntimeException The exception matching the {@link ErrorType} of the {@link Failure}, see {@link Failure#toException()}
+     */
+    T getOrThrow();
+
+    /**
+     * @return The response if the request succeeded and the response isn't {@code null}, an empty Optional otherwise
+     */
+    default Optional<T> toOptional() {
+        return Optional.ofNullable(getOrNull());
+    }
+
+    /**
+     * Utility Method to map the response of a successful Result. Failures are passed on unchanged
+     * @param mapper The mapping function
+     * @return The mapped Result
+     * @param <R> Type of the mapped response
+     */
+    <R> Result<R> map(Function<? super T, ? extends R> mapper);
+
+    /**
+     * Successful Result
+     * @param value The response, cast to <b>T</b>
+     * @param <T> Type of the response
+     */
+    record Success<T>(T value) implements Result<T> {
+
+        @Override
+        public boolean isSuccess() {
+            return true;
+        }
+
+        @Override
+        public T getOrNull() {
+            return this.value;
+        }
+
+        @Override
+        public T getOrThrow() {
+            return this.value;
+        }
+
+        @Override
+        public <R> Result<R> map(Function<? super T, ? extends R> mapper) {
+            return new Success<>(mapper.apply(this.value));
+        }
+    }
+
+    /**
+     * Failed Result
+     * @param type The kind of error
+     * @param statusCode The status code of the response, 0 if there is none
+     * @param url The Url of the request
+     * @param body The body of the response, {@code null} if there is none
+     * @param exception The exception describing the error if the request didn't return a usable response, {@code null} otherwise
+     * @param <T> Type of the response
+     */
+    record Failure<T>(ErrorType type, int statusCode, String url, String body, RuntimeException exception) implements Result<T> {
+
+        @Override
+        public boolean isSuccess() {
+            return false;
+        }
+
+        @Override
+        public T getOrNull() {
+            return null;
+        }
+
+        @Override
+        public T getOrThrow() {
+            throw toException();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> Result<R> map(Function<? super T, ? extends R> mapper) {
+            return (Result<R>) this;
+        }
+
+        /**
+         * Utility Method to create the exception the Methods returning <b>T</b> directly would throw for this Failure
+         * @return The exception
+         */
+        public RuntimeException toException() {
+            if (this.exception != null) return this.exception;
+            return switch (this.type) {
+                case BAD_REQUEST -> new BadRequestException(this.url, this.body);
+                case UNAUTHORIZED -> new UnauthorizedException(this.url, this.body);
+                case FORBIDDEN -> new ForbiddenException(this.url, this.body);
+                case NOT_FOUND -> new NotFoundException(this.url, this.body);
+                case RATE_LIMIT_EXCEEDED -> new RateLimitExceededException(this.url, this.body);
+                default -> new IllegalStateException(String.format("Got %s (status code %d) for URL %s. Body: %s", this.type, this.statusCode, this.url, this.body));
+            };
+        }
+    }
+
+    /**
+     * The kinds of errors a {@link Failure} can represent
+     */
+    enum ErrorType {
+        BAD_REQUEST,
+        UNAUTHORIZED,
+        FORBIDDEN,
+        NOT_FOUND,
+        RATE_LIMIT_EXCEEDED,
+        /**
+         * A status code without a dedicated {@link ErrorType}, e.g. a server error
+         */
+        UNEXPECTED_STATUS,
+        /**
+         * The request was made, but didn't return a response
+         */
+        REQUEST_FAILED,
+        /**
+         * The response couldn't be parsed into the required Type
+         */
+        PARSE_ERROR,
+        DEADLINE_EXCEEDED,
+        CIRCUIT_OPEN,
+        BULKHEAD_FULL
+    }
+}
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.type.TypeBase;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import net.petersil98.core.Core;
 import net.petersil98.core.constant.Platform;
 import net.petersil98.core.constant.Region;
@@ -12,17 +11,25 @@ import net.petersil98.core.http.exceptions.*;
 import net.petersil98.core.http.ratelimit.BlockingRateLimiter;
 import net.petersil98.core.http.ratelimit.IPermit;
 import net.petersil98.core.http.ratelimit.RateLimiter;
+import net.petersil98.core.http.resilience.AdaptiveConcurrencyLimiter;
+import net.petersil98.core.http.resilience.Bulkhead;
+import net.petersil98.core.http.resilience.CircuitBreaker;
+import net.petersil98.core.jfr.*;
+import net.petersil98.core.util.LogThrottle;
 import net.petersil98.core.util.Util;
 import net.petersil98.core.util.settings.Settings;
 import org.apache.http.HttpStatus;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 
 /**
@@ -31,21 +38,192 @@ import java.util.Map;
 public class RiotAPI {
 
     private static final Marker MARKER = MarkerManager.getMarker(RiotAPI.class.getSimpleName());
-    private static final Cache<String, HttpResponse<String>> CACHE = CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofMinutes(10)).build();
-
-    private static final String API_BASE_PATH = "https://#.api.riotgames.com/";
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+    private static final LogThrottle LOG_THROTTLE = new LogThrottle(MARKER, 10, Duration.ofSeconds(10));
+    private static final String SKIPPED_BODY = "Skipped request, because the resource is known to not exist";
 
     private static final String ACCOUNT_V1 = "account/v1/";
 
+    /**
+     * The Rate Limiter of the {@link RiotClient#getDefault() default client}. Other clients use their own Rate Limiter
+     */
     protected static RateLimiter rateLimiter = new BlockingRateLimiter();
 
     /**
-     * Utility Method that delegates the request to the {@link HTTPClient}
+     * Sets a filter of requests known to return {@link HttpStatus#SC_NOT_FOUND}. Requests the filter reports as possibly missing
+     * fail like a 404 response without being sent, and each 404 response is added to the filter.
+     * Unlike the negative cache (see {@link Settings#setNotFoundCacheTTL(Duration)}), the filter may reject requests for
+     * resources that exist, with the false positive probability it was created with. Applies to the current {@link RiotClient}.
+     * @param filter The filter, {@code null} to disable it
+     */
+    public static void setNotFoundFilter(NotFoundFilter filter) {
+        RiotClient.current().setNotFoundFilter(filter);
+    }
+
+    public static NotFoundFilter getNotFoundFilter() {
+        return RiotClient.current().getNotFoundFilter();
+    }
+
+    /**
+     * Sets the Prefetcher, which issues requests likely to follow the requests made by the application in the background,
+     * using spare capacity of the Rate Limiter. Prefetching needs caching to be enabled (see {@link Settings#useCache(boolean)}).
+     * The previous Prefetcher is shut down. Applies to the current {@link RiotClient}.
+     * @param newPrefetcher The Prefetcher, {@code null} to disable prefetching
+     */
+    public static void setPrefetcher(Prefetcher newPrefetcher) {
+        RiotClient.current().setPrefetcher(newPrefetcher);
+    }
+
+    public static Prefetcher getPrefetcher() {
+        return RiotClient.current().getPrefetcher();
+    }
+
+    /**
+     * Runs the given requests with a deadline. Requests made by the current Thread within <b>{@code call}</b> wait for a Permit
+     * of the Rate Limiter at most until the deadline, are preferred over requests with later deadlines, and fail with a
+     * {@link DeadlineExceededException} without being sent once the deadline passed. Nested calls keep the earlier deadline.
+     * The deadline is measured with the {@link net.petersil98.core.http.ratelimit.IClock clock} of the current client's Rate Limiter.
+     * @param timeout The time from now after which the requests are not needed anymore
+     * @param call The requests, e.g. <code>() -> Account.getAccountByPuuid(puuid, region)</code>
+     * @return The result of <b>{@code call}</b>
+     * @param <T> Type of the result
+     * @throws DeadlineExceededException If the deadline passed before a request could be sent
+     */
+    public static <T> T withDeadline(Duration timeout, Supplier<T> call) {
+        Long previous = DEADLINE.get();
+        long deadline = RiotClient.current().getRateLimiter().getClock().nanoTime() + timeout.toNanos();
+        DEADLINE.set(previous != null && previous - deadline < 0 ? previous : deadline);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) DEADLINE.set(previous);
+            else DEADLINE.remove();
+        }
+    }
+
+    /**
+     * Utility Method to let a request through the {@link CircuitBreaker} and {@link Bulkhead} of its route (see {@link #getRoute(String, String)}),
+     * such that each Region and Platform (see {@link #constructUrl(String, AppType, Region)} and {@link #constructUrl(String, AppType, Platform)})
+     * is isolated from the others. This happens before a Permit of the Rate Limiter is acquired, such that rejected requests
+     * don't use up the Rate Limits shared by all Regions and Platforms.
+     * @param client The client the request is made for
+     * @param route The route of the request
+     * @return The entry, which needs to be {@link RouteEntry#release() released} once the request is done
+     * @throws CircuitOpenException If the Circuit Breaker of the route is open
+     * @throws BulkheadFullException If the Bulkhead of the route is full
+     */
+    private static RouteEntry enter(RiotClient client, String route) {
+        CircuitBreaker circuitBreaker = client.getCircuitBreaker(route);
+        if (!circuitBreaker.tryAcquire()) throw new CircuitOpenException(route);
+        Bulkhead bulkhead = client.getBulkhead(route);
+        if (!bulkhead.tryEnter()) {
+            circuitBreaker.release();
+            throw new BulkheadFullException(route);
+        }
+        return new RouteEntry(client, route, circuitBreaker, bulkhead);
+    }
+
+    /**
+     * Utility Method that sends a request let through by {@link #enter(RiotClient, String)} through the {@link AdaptiveConcurrencyLimiter}
+     * of its route. Missing responses and server errors count as failures.
+     * @param entry The entry of the request's route
      * @param url The full Url
      * @return The response
      */
-    private static HttpResponse<String> request(String url) {
-        return HTTPClient.getInstance().get(url);
+    private static HttpResponse<String> request(RouteEntry entry, String url) {
+        entry.sent = true;
+        AdaptiveConcurrencyLimiter concurrencyLimiter = entry.client.getConcurrencyLimiter(entry.route);
+        if (concurrencyLimiter != null) concurrencyLimiter.acquire();
+        HttpRoundTripEvent event = new HttpRoundTripEvent();
+        event.begin();
+        long start = System.nanoTime();
+        HttpResponse<String> response = null;
+        try {
+            response = entry.client.getHttpClient().get(url);
+            return response;
+        } finally {
+            long duration = System.nanoTime() - start;
+            event.finish(url, response != null ? response.statusCode() : 0);
+            boolean success = response != null && response.statusCode() < 500;
+            if (concurrencyLimiter != null) concurrencyLimiter.release(duration, !success);
+            entry.bulkhead.exit();
+            entry.circuitBreaker.onResult(success, duration);
+        }
+    }
+
+    /**
+     * Utility Method to get the route of a Url, which is the part of the Url identifying the Region or Platform the request
+     * is sent to: the Url up to the end of the host or path segment the Region or Platform was inserted in by
+     * {@link #constructUrl(String, AppType, Region)}, e.g. <i>https://euw1.api.riotgames.com</i>
+     * @param apiBasePath The API base path the Url was constructed with (see {@link Settings#setAPIBasePath(String)})
+     * @param url The full Url
+     * @return The route
+     */
+    static String getRoute(String apiBasePath, String url) {
+        int placeholder = apiBasePath.indexOf('#');
+        if (placeholder < 0) return apiBasePath;
+        int end = url.indexOf('/', placeholder);
+        return end < 0 ? url : url.substring(0, end);
+    }
+
+    /**
+     * Gets the adaptive concurrency limiter of a Region of the current {@link RiotClient}
+     * @see RiotClient#getConcurrencyLimiter(Region)
+     * @param region The Region
+     * @return The adaptive concurrency limiter, {@code null} if it's disabled
+     */
+    public static AdaptiveConcurrencyLimiter getConcurrencyLimiter(Region region) {
+        return RiotClient.current().getConcurrencyLimiter(region);
+    }
+
+    /**
+     * Gets the Circuit Breaker of a Region of the current {@link RiotClient}
+     * @see RiotClient#getCircuitBreaker(Region)
+     * @param region The Region
+     * @return The Circuit Breaker
+     */
+    public static CircuitBreaker getCircuitBreaker(Region region) {
+        return RiotClient.current().getCircuitBreaker(region);
+    }
+
+    /**
+     * Gets the Bulkhead of a Region of the current {@link RiotClient}
+     * @see RiotClient#getBulkhead(Region)
+     * @param region The Region
+     * @return The Bulkhead
+     */
+    public static Bulkhead getBulkhead(Region region) {
+        return RiotClient.current().getBulkhead(region);
+    }
+
+    /**
+     * Gets the adaptive concurrency limiter of a Platform of the current {@link RiotClient}
+     * @see RiotClient#getConcurrencyLimiter(Platform)
+     * @param platform The Platform
+     * @return The adaptive concurrency limiter, {@code null} if it's disabled
+     */
+    public static AdaptiveConcurrencyLimiter getConcurrencyLimiter(Platform platform) {
+        return RiotClient.current().getConcurrencyLimiter(platform);
+    }
+
+    /**
+     * Gets the Circuit Breaker of a Platform of the current {@link RiotClient}
+     * @see RiotClient#getCircuitBreaker(Platform)
+     * @param platform The Platform
+     * @return The Circuit Breaker
+     */
+    public static CircuitBreaker getCircuitBreaker(Platform platform) {
+        return RiotClient.current().getCircuitBreaker(platform);
+    }
+
+    /**
+     * Gets the Bulkhead of a Platform of the current {@link RiotClient}
+     * @see RiotClient#getBulkhead(Platform)
+     * @param platform The Platform
+     * @return The Bulkhead
+     */
+    public static Bulkhead getBulkhead(Platform platform) {
+        return RiotClient.current().getBulkhead(platform);
     }
 
     /**
@@ -115,40 +293,269 @@ public class RiotAPI {
     }
 
     /**
-     * Utility Method that reads the cached response if caching is enable and that deals with the Rate Limiter (blocking) while making the API request
+     * Creates a request to the Riot {@link RiotAPI#ACCOUNT_V1} endpoint for the {@link Prefetcher}, e.g. to warm up the cache
+     * @see Prefetcher#warmUp(java.util.Collection, Duration, int)
+     * @param method Method in the Endpoint that should get called
+     * @param args Extra data needed for the Request
+     * @param region Region to make the request to
+     * @return The request
+     */
+    public static PrefetchRequest prefetchRiotAccountEndpoint(String method, String args, Region region) {
+        return new PrefetchRequest(constructUrl(ACCOUNT_V1 + method + args, AppType.RIOT, region), ACCOUNT_V1 + method, region);
+    }
+
+    /**
+     * Requests the Riot {@link RiotAPI#ACCOUNT_V1} endpoint without throwing for failed requests.
+     * If caching is enabled, the cached response will be returned.
+     * @see Settings#useCache(boolean)
+     * @param method Method in the Endpoint that should get called
+     * @param args Extra data needed for the Request
+     * @param region Region to make the request to
+     * @param requiredClass Class to which the response should get mapped to
+     * @return A {@link Result} holding an object of class <b>T</b> if the request and casting are successful, or the error otherwise
+     */
+    public static <T> Result<T> tryRequestRiotAccountEndpoint(String method, String args, Region region, Class<T> requiredClass) {
+        return tryRequestRiotAccountEndpoint(method, args, region, TypeFactory.defaultInstance().constructType(requiredClass), new HashMap<>());
+    }
+
+    /**
+     * Requests the Riot {@link RiotAPI#ACCOUNT_V1} endpoint without throwing for failed requests.
+     * If caching is enabled, the cached response will be returned.
+     * @see Settings#useCache(boolean)
+     * @see TypeFactory
+     * @param method Method in the Endpoint that should get called
+     * @param args Extra data needed for the Request
+     * @param region Region to make the request to
+     * @param requiredClass Class to which the response should get mapped to
+     * @param filter The filter that should get used for the request. <b>Note:</b> The Values in the Map need to be Strings,
+     *               even if they represent an integer
+     * @return A {@link Result} holding an object of Type <b>{@code requiredClass}</b> if the request and casting are successful, or the error otherwise
+     */
+    public static <T> Result<T> tryRequestRiotAccountEndpoint(String method, String args, Region region, JavaType requiredClass, Map<String, String> filter) {
+        return requestWithResult(
+                constructUrl(ACCOUNT_V1 + method + args, AppType.RIOT, region),
+                ACCOUNT_V1 + method, region, requiredClass, filter);
+    }
+
+    /**
+     * Utility Method that reads the cached response if caching is enable and that deals with the Rate Limiter (blocking) while making the API request.
+     * While the {@link CircuitBreaker} of the request's Region or Platform is open, the last successful response (if caching is enabled) is returned instead.
+     * Failed requests are logged (rate-limited) and return {@code null}.
+     * @see #requestWithResult(String, String, Region, JavaType, Map)
      * @param url The full url for the request
      * @param endpointMethod The Endpoint used in the url. Used for the Rate Limiter
      * @param region The Region to which the Request is being made. Used for the Rate Limiter
      * @param requiredClass The Class which the response is cast to
      * @param filter The Filter that gets included as GET parameter in the request
      * @return An object of Type <b>{@code requiredClass}</b> if casting is successful, {@code null} otherwise
+     * @throws DeadlineExceededException If the deadline set by {@link #withDeadline(Duration, Supplier)} passed before the request could be sent
+     * @throws CircuitOpenException If the Circuit Breaker of the request's Region or Platform is open and there is no fallback response
+     * @throws BulkheadFullException If the Bulkhead of the request's Region or Platform is full
      */
     protected static <T> T handleCacheAndRateLimiter(String url, String endpointMethod, Region region, JavaType requiredClass, Map<String, String> filter) {
+        Result<T> result = requestWithResult(url, endpointMethod, region, requiredClass, filter);
+        if (result instanceof Result.Failure<T> failure) {
+            switch (failure.type()) {
+                case DEADLINE_EXCEEDED, CIRCUIT_OPEN, BULKHEAD_FULL -> throw failure.toException();
+                default -> logFailure(failure);
+            }
+            return null;
+        }
+        return result.getOrNull();
+    }
+
+    /**
+     * Utility Method that reads the cached response if caching is enable and that deals with the Rate Limiter (blocking) while making the API request.
+     * While the {@link CircuitBreaker} of the request's Region or Platform is open, the last successful response (if caching is enabled) is returned instead.
+     * Errors are returned as {@link Result.Failure} instead of being thrown or logged.
+     * @param url The full url for the request
+     * @param endpointMethod The Endpoint used in the url. Used for the Rate Limiter
+     * @param region The Region to which the Request is being made. Used for the Rate Limiter
+     * @param requiredClass The Class which the response is cast to
+     * @param filter The Filter that gets included as GET parameter in the request
+     * @return A {@link Result} holding an object of Type <b>{@code requiredClass}</b> if the request and casting are successful, or the error otherwise
+     */
+    protected static <T> Result<T> requestWithResult(String url, String endpointMethod, Region region, JavaType requiredClass, Map<String, String> filter) {
+        RequestEvent event = new RequestEvent();
+        event.begin();
+        Result<T> result = null;
+        try {
+            result = performRequest(url, endpointMethod, region, requiredClass, filter);
+            return result;
+        } finally {
+            event.finish(endpointMethod, region, result instanceof Result.Failure<T> failure ? failure.type() : result != null ? "SUCCESS" : null);
+        }
+    }
+
+    private static <T> Result<T> performRequest(String url, String endpointMethod, Region region, JavaType requiredClass, Map<String, String> filter) {
         String urlWithGetParams = url + "?" + Util.buildParameters(filter);
-        if(Settings.useCache()) {
-            HttpResponse<String> cachedResponse = CACHE.getIfPresent(urlWithGetParams);
-            if (cachedResponse != null) return handleAndCastResponse(cachedResponse, requiredClass);
-        } else CACHE.invalidateAll();
-        try(IPermit ignored = rateLimiter.acquire(region, endpointMethod)) {
-            HttpResponse<String> response = request(urlWithGetParams);
-            if(response.statusCode() == HttpStatus.SC_OK) {
-                if(Settings.useCache()) CACHE.put(urlWithGetParams, response);
-                rateLimiter.updateRateLimitsFromHeaders(region, endpointMethod, response.headers());
-            } else if(response.statusCode() == 429) {
-                Core.LOGGER.warn("Rate Limit has been exceeded for endpoint " + endpointMethod + "!");
-                rateLimiter.handleRateLimitExceeded(region, endpointMethod, response.headers());
+        RiotClient client = RiotClient.current();
+        Prefetcher prefetcher = client.getPrefetcher();
+        if (prefetcher != null && filter.isEmpty()) prefetcher.onRequest(url, endpointMethod, region);
+        if(client.getSettings().useCache()) {
+            HttpResponse<String> cachedResponse = lookup(client.cache, "Response", urlWithGetParams);
+            if (cachedResponse != null) return castResponse(cachedResponse, requiredClass);
+        } else {
+            client.cache.invalidateAll();
+            client.fallbackCache.invalidateAll();
+        }
+        NotFoundResponse notFound = lookup(client.notFoundCache, "Not Found", urlWithGetParams);
+        if (notFound != null) {
+            if (System.nanoTime() - notFound.expiresAt < 0) return castResponse(notFound.response, requiredClass);
+            client.notFoundCache.invalidate(urlWithGetParams);
+        }
+        String route = getRoute(client.getSettings().getAPIBasePath(), url);
+        if (!client.getCircuitBreaker(route).isCallPermitted()) {
+            HttpResponse<String> fallbackResponse = client.getSettings().useCache() ? lookup(client.fallbackCache, "Fallback", urlWithGetParams) : null;
+            if (fallbackResponse != null) return castResponse(fallbackResponse, requiredClass);
+            return Result.failure(Result.ErrorType.CIRCUIT_OPEN, new CircuitOpenException(route));
+        }
+        NotFoundFilter missing = client.getNotFoundFilter();
+        if (missing != null && missing.mightBeMissing(urlWithGetParams)) {
+            return Result.failure(Result.ErrorType.NOT_FOUND, HttpStatus.SC_NOT_FOUND, urlWithGetParams, SKIPPED_BODY);
+        }
+        Long deadline = DEADLINE.get();
+        RateLimiter limiter = client.getRateLimiter();
+        RouteEntry entry = null;
+        try {
+            entry = enter(client, route);
+            try (IPermit ignored = deadline != null ? limiter.acquire(region, endpointMethod, deadline) : limiter.acquire(region, endpointMethod)) {
+                HttpResponse<String> response = send(client, entry, url, urlWithGetParams, endpointMethod, region, false);
+                if (response == null) {
+                    return new Result.Failure<>(Result.ErrorType.REQUEST_FAILED, 0, urlWithGetParams, null,
+                            new IllegalStateException("Got no response for URL " + urlWithGetParams));
+                }
+                return castResponse(response, requiredClass);
             }
-            return handleAndCastResponse(response, requiredClass);
+        } catch (DeadlineExceededException e) {
+            return Result.failure(Result.ErrorType.DEADLINE_EXCEEDED, e);
+        } catch (CircuitOpenException e) {
+            return Result.failure(Result.ErrorType.CIRCUIT_OPEN, e);
+        } catch (BulkheadFullException e) {
+            return Result.failure(Result.ErrorType.BULKHEAD_FULL, e);
         } catch (Exception e) {
-            e.printStackTrace();
+            return new Result.Failure<>(Result.ErrorType.REQUEST_FAILED, 0, urlWithGetParams, null,
+                    new IllegalStateException("Failed to perform request to URL " + urlWithGetParams, e));
+        } finally {
+            if (entry != null) entry.release();
+        }
+    }
+
+    /**
+     * Utility Method that sends a request the caller holds a Permit for, and feeds the response to the Rate Limiter, the caches
+     * and the {@link Prefetcher}
+     * @param client The client the request is made for
+     * @param entry The entry of the request's route
+     * @param url The full url for the request, without GET parameters
+     * @param urlWithGetParams The full url for the request, including the GET parameters
+     * @param endpointMethod The Endpoint used in the url. Used for the Rate Limiter
+     * @param region The Region to which the Request is being made. Used for the Rate Limiter
+     * @param prefetch Whether the request is a prefetch, whose response isn't passed to the Prefetcher
+     * @return The response, {@code null} if there is none
+     */
+    private static HttpResponse<String> send(RiotClient client, RouteEntry entry, String url, String urlWithGetParams, String endpointMethod, Region region, boolean prefetch) {
+        HttpResponse<String> response = request(entry, urlWithGetParams);
+        if (response == null) return null;
+        if(response.statusCode() == 429) {
+            if (LOG_THROTTLE.shouldLog(Level.WARN)) Core.LOGGER.warn(MARKER, "Rate Limit has been exceeded for endpoint {}!", endpointMethod);
+            client.getRateLimiter().handleRateLimitExceeded(region, endpointMethod, response.headers());
+        } else {
+            if(response.statusCode() == HttpStatus.SC_OK && client.getSettings().useCache()) {
+                client.cache.put(urlWithGetParams, response);
+                client.fallbackCache.put(urlWithGetParams, response);
+            }
+            if(response.statusCode() == HttpStatus.SC_NOT_FOUND) cacheNotFound(client, urlWithGetParams, endpointMethod, response);
+            client.getRateLimiter().updateRateLimitsFromHeaders(region, endpointMethod, response.headers());
+            Prefetcher prefetcher = client.getPrefetcher();
+            if (response.statusCode() == HttpStatus.SC_OK && prefetcher != null && !prefetch) {
+                prefetcher.onResponse(url, endpointMethod, region, response.body());
+            }
         }
-        return null;
+        return response;
+    }
+
+    /**
+     * Utility Method to check whether the response of a request is cached by a client, either as successful response or as 404
+     * @param client The client
+     * @param request The request
+     * @return Whether the response is cached
+     */
+    static boolean isCached(RiotClient client, PrefetchRequest request) {
+        String urlWithGetParams = request.url() + "?";
+        return client.cache.getIfPresent(urlWithGetParams) != null || client.notFoundCache.getIfPresent(urlWithGetParams) != null;
+    }
+
+    /**
+     * Utility Method to send a request in the low priority lane of the {@link Prefetcher}, if the Rate Limiter has spare capacity
+     * (see {@link RateLimiter#tryAcquire(Region, String, double)}). Nothing is sent if caching is disabled, the response is
+     * already cached or the Circuit Breaker of the request's Region or Platform isn't closed.
+     * @param client The client the request is made for
+     * @param request The request
+     * @param reserve The share of each Rate Limit that is kept free for other requests
+     * @return Whether the response is cached now, {@code null} if the Rate Limiter had no spare capacity
+     */
+    static Boolean prefetch(RiotClient client, PrefetchRequest request, double reserve) {
+        if (!client.getSettings().useCache()) return false;
+        if (isCached(client, request)) return true;
+        String urlWithGetParams = request.url() + "?";
+        NotFoundFilter missing = client.getNotFoundFilter();
+        if (missing != null && missing.mightBeMissing(urlWithGetParams)) return false;
+        String route = getRoute(client.getSettings().getAPIBasePath(), request.url());
+        if (!client.getCircuitBreaker(route).isCallPermitted()) return false;
+        RouteEntry entry;
+        try {
+            entry = enter(client, route);
+        } catch (CircuitOpenException | BulkheadFullException e) {
+            return false;
+        }
+        try {
+            IPermit permit = client.getRateLimiter().tryAcquire(request.region(), request.endpointMethod(), reserve);
+            if (permit == null) return null;
+            try (permit) {
+                HttpResponse<String> response = send(client, entry, request.url(), urlWithGetParams, request.endpointMethod(), request.region(), true);
+                return response != null && response.statusCode() == HttpStatus.SC_OK;
+            }
+        } catch (Exception e) {
+            Core.LOGGER.debug(MARKER, "Failed to prefetch {}", urlWithGetParams, e);
+            return false;
+        } finally {
+            entry.release();
+        }
+    }
+
+    /**
+     * Utility Method to look up a response in a cache, recorded as {@link CacheLookupEvent}
+     * @param cache The cache
+     * @param name The name of the cache, used for the Event
+     * @param url The full url of the request, including the GET parameters
+     * @return The cached value, {@code null} if there is none
+     */
+    private static <V> V lookup(Cache<String, V> cache, String name, String url) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        V value = cache.getIfPresent(url);
+        event.finish(name, value != null);
+        return value;
+    }
+
+    /**
+     * Utility Method to remember a response with status code {@link HttpStatus#SC_NOT_FOUND} in the negative cache and the
+     * {@link NotFoundFilter}, if enabled
+     * @param url The full url of the request, including the GET parameters
+     * @param endpointMethod The Endpoint used in the url. Used to look up the TTL
+     * @param response The response
+     */
+    private static void cacheNotFound(RiotClient client, String url, String endpointMethod, HttpResponse<String> response) {
+        Duration ttl = client.getSettings().getNotFoundCacheTTL(endpointMethod);
+        if (ttl.compareTo(Duration.ZERO) > 0) client.notFoundCache.put(url, new NotFoundResponse(response, System.nanoTime() + ttl.toNanos()));
+        NotFoundFilter filter = client.getNotFoundFilter();
+        if (filter != null) filter.markMissing(url);
     }
 
     /**
      * Utility Method to deal with the response of the API request and to cast the response into the desired Type.
      * If a {@link HttpStatus} other than {@link HttpStatus#SC_OK} is returned, either the exception gets thrown (if it exists),
-     * or the Error gets logged. The Error gets
+     * or the Error gets logged.
      * @param response The response returned by the request
      * @param requiredTyped The Type into which the response gets cast
      * @return An object of Type <b>{@code requiredTyped}</b> if casting is successful, {@code null} otherwise
@@ -158,45 +565,133 @@ public class RiotAPI {
      * @throws NotFoundException Gets thrown when {@link HttpStatus#SC_NOT_FOUND} Status Code is returned
      */
     protected static <T> T handleAndCastResponse(HttpResponse<String> response, JavaType requiredTyped) throws BadRequestException, UnauthorizedException, ForbiddenException, NotFoundException {
-        try {
-            switch (response.statusCode()) {
-                case HttpStatus.SC_OK -> {return Core.MAPPER.readValue(response.body(), requiredTyped);}
-                case HttpStatus.SC_BAD_REQUEST -> throw new BadRequestException(response.uri().toString(), response.body());
-                case HttpStatus.SC_UNAUTHORIZED -> throw new UnauthorizedException(response.uri().toString(), response.body());
-                case HttpStatus.SC_FORBIDDEN -> throw new ForbiddenException(response.uri().toString(), response.body());
-                case HttpStatus.SC_NOT_FOUND -> throw new NotFoundException(response.uri().toString(), response.body());
-                case 429 -> throw new RateLimitExceededException(response.uri().toString(), response.body());
-                default -> Core.LOGGER.error(MARKER, String.format("Got bad status code %d. Body: %s", response.statusCode(), response.body()));
+        Result<T> result = castResponse(response, requiredTyped);
+        if (result instanceof Result.Failure<T> failure) {
+            switch (failure.type()) {
+                case UNEXPECTED_STATUS, PARSE_ERROR -> logFailure(failure);
+                default -> throw failure.toException();
+            }
+            return null;
+        }
+        return result.getOrNull();
+    }
+
+    /**
+     * Utility Method to cast the response of the API request into the desired Type, without throwing or logging errors
+     * @param response The response returned by the request
+     * @param requiredTyped The Type into which the response gets cast
+     * @return A {@link Result} holding an object of Type <b>{@code requiredTyped}</b> if the status code is {@link HttpStatus#SC_OK}
+     * and casting is successful, or the error otherwise
+     */
+    protected static <T> Result<T> castResponse(HttpResponse<String> response, JavaType requiredTyped) {
+        int statusCode = response.statusCode();
+        if (statusCode == HttpStatus.SC_OK) {
+            DeserializationEvent event = new DeserializationEvent();
+            event.begin();
+            boolean success = false;
+            try {
+                Result<T> result = Result.success(Core.MAPPER.readValue(response.body(), requiredTyped));
+                success = true;
+                return result;
+            } catch (IOException e) {
+                String className = requiredTyped.hasContentType() ? requiredTyped.getContentType().getRawClass().getSimpleName() : requiredTyped.getRawClass().getSimpleName();
+                return new Result.Failure<>(Result.ErrorType.PARSE_ERROR, statusCode, response.uri().toString(), response.body(),
+                        new UncheckedIOException(String.format("Failed to parse JSON to %s object", className), e));
+            } finally {
+                event.finish(requiredTyped, response.body(), success);
+            }
+        }
+        Result.ErrorType type = switch (statusCode) {
+            case HttpStatus.SC_BAD_REQUEST -> Result.ErrorType.BAD_REQUEST;
+            case HttpStatus.SC_UNAUTHORIZED -> Result.ErrorType.UNAUTHORIZED;
+            case HttpStatus.SC_FORBIDDEN -> Result.ErrorType.FORBIDDEN;
+            case HttpStatus.SC_NOT_FOUND -> Result.ErrorType.NOT_FOUND;
+            case 429 -> Result.ErrorType.RATE_LIMIT_EXCEEDED;
+            default -> Result.ErrorType.UNEXPECTED_STATUS;
+        };
+        return Result.failure(type, statusCode, response.uri().toString(), response.body());
+    }
+
+    /**
+     * Utility Method to log a failed request, rate-limited by {@link #LOG_THROTTLE}. 404s are logged at debug level, since
+     * they are expected for unknown identifiers.
+     * @param failure The failed request
+     */
+    private static void logFailure(Result.Failure<?> failure) {
+        switch (failure.type()) {
+            case NOT_FOUND -> {
+                if (LOG_THROTTLE.shouldLog(Level.DEBUG)) Core.LOGGER.debug(MARKER, "Got status code 404 (Not found) for URL {}. Body: {}", failure.url(), failure.body());
+            }
+            case UNEXPECTED_STATUS -> {
+                if (LOG_THROTTLE.shouldLog(Level.ERROR)) Core.LOGGER.error(MARKER, "Got bad status code {} for URL {}. Body: {}", failure.statusCode(), failure.url(), failure.body());
+            }
+            case PARSE_ERROR, REQUEST_FAILED -> {
+                if (LOG_THROTTLE.shouldLog(Level.ERROR)) Core.LOGGER.error(MARKER, failure.exception().getMessage(), failure.exception().getCause());
+            }
+            default -> {
+                if (LOG_THROTTLE.shouldLog(Level.WARN)) Core.LOGGER.warn(MARKER, "Got status code {} ({}) for URL {}. Body: {}", failure.statusCode(), failure.type(), failure.url(), failure.body());
             }
-        } catch (IOException e) {
-            String className = requiredTyped.hasContentType() ? requiredTyped.getContentType().getRawClass().getSimpleName() : requiredTyped.getRawClass().getSimpleName();
-            Core.LOGGER.error(MARKER, String.format("Failed to parse JSON to %s object", className), e);
         }
-        return null;
     }
 
     /**
      * Utility Method to construct the full Url for a given Endpoint, {@link AppType} and {@link Region}
-     * @see #API_BASE_PATH
+     * @see Settings#setAPIBasePath(String)
      * @param endPoint The Endpoint
      * @param app The AppType
      * @param region The Region
      * @return The full Url
      */
     protected static String constructUrl(String endPoint, AppType app, Region region) {
-        return (API_BASE_PATH + app + "/").replaceAll("#", region.toString()) + endPoint;
+        return (Settings.getAPIBasePath() + app + "/").replaceAll("#", region.toString()) + endPoint;
     }
 
     /**
      * Utility Method to construct the full Url for a given Endpoint, {@link AppType} and {@link Platform}
-     * @see #API_BASE_PATH
+     * @see Settings#setAPIBasePath(String)
      * @param endPoint The Endpoint
      * @param app The AppType
      * @param platform The Platform
      * @return The full Url
      */
     protected static String constructUrl(String endPoint, AppType app, Platform platform) {
-        return (API_BASE_PATH + app + "/").replaceAll("#", platform.toString()) + endPoint;
+        return (Settings.getAPIBasePath() + app + "/").replaceAll("#", platform.toString()) + endPoint;
+    }
+
+    /**
+     * Response with status code {@link HttpStatus#SC_NOT_FOUND} in the negative cache
+     * @param response The response
+     * @param expiresAt The {@link System#nanoTime()} at which the entry expires
+     */
+    record NotFoundResponse(HttpResponse<String> response, long expiresAt) {}
+
+    /**
+     * A request let through the {@link CircuitBreaker} and {@link Bulkhead} of its route by {@link #enter(RiotClient, String)}
+     */
+    private static final class RouteEntry {
+        private final RiotClient client;
+        private final String route;
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private boolean sent;
+
+        private RouteEntry(RiotClient client, String route, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+            this.client = client;
+            this.route = route;
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+        }
+
+        /**
+         * Gives back the slot of the Bulkhead and the trial request of the Circuit Breaker if the request wasn't sent after all,
+         * e.g. because no Permit was given out in time. Sent requests give them back once their outcome is known
+         */
+        private void release() {
+            if (this.sent) return;
+            this.sent = true;
+            this.bulkhead.exit();
+            this.circuitBreaker.release();
+        }
     }
 
     /**
@@ -0,0 +1,282 @@
+package net.petersil98.core.http;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.petersil98.core.constant.Platform;
+import net.petersil98.core.constant.Region;
+import net.petersil98.core.http.ratelimit.BlockingRateLimiter;
+import net.petersil98.core.http.ratelimit.RateLimiter;
+import net.petersil98.core.http.resilience.AdaptiveConcurrencyLimiter;
+import net.petersil98.core.http.resilience.Bulkhead;
+import net.petersil98.core.http.resilience.CircuitBreaker;
+import net.petersil98.core.util.settings.ClientSettings;
+
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Context of the requests made on behalf of one API Key, e.g. one tenant of an application serving several. Each client has
+ * its own {@link ClientSettings}, {@link RateLimiter}, caches, resilience state per Region and Platform ({@link CircuitBreaker}, {@link Bulkhead},
+ * {@link AdaptiveConcurrencyLimiter}) and {@link HTTPClient}, so clients don't share or corrupt each other's state.
+ * The underlying {@link java.net.http.HttpClient} and its connections are shared by all clients.
+ * <br>
+ * The static API ({@link RiotAPI}, {@link net.petersil98.core.util.settings.Settings} and the data classes using them) works
+ * on the current client: the client bound to the calling Thread by {@link #call(Supplier)} or {@link #run(Runnable)},
+ * and the {@link #getDefault() default client} otherwise. Applications with a single API Key only ever use the default client.
+ * <pre>{@code
+ * RiotClient tenant = new RiotClient(new ClientSettings());
+ * tenant.getSettings().setAPIKey(() -> tenantKey);
+ * Account account = tenant.call(() -> Account.getAccountByPuuid(puuid, Region.EUROPE));
+ * }</pre>
+ * The static data loaded by {@link net.petersil98.core.util.Loader} is shared by all clients and uses the Settings of the default client.
+ * Clients other than the default client should be {@link #close() closed} once they're not needed anymore, to stop the
+ * Threads of their Rate Limiter and Prefetcher.
+ */
+public class RiotClient implements AutoCloseable {
+
+    private static final RiotClient DEFAULT = new RiotClient(new ClientSettings(), null);
+    private static final ThreadLocal<RiotClient> CURRENT = new ThreadLocal<>();
+
+    private final ClientSettings settings;
+    private final RateLimiter rateLimiter;
+    private final HTTPClient httpClient;
+
+    final Cache<String, HttpResponse<String>> cache = CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofMinutes(10)).build();
+    final Cache<String, RiotAPI.NotFoundResponse> notFoundCache = CacheBuilder.newBuilder().maximumSize(10000).build();
+    final Cache<String, HttpResponse<String>> fallbackCache = CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofHours(1)).build();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, AdaptiveConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+    private volatile NotFoundFilter notFoundFilter;
+    private volatile Prefetcher prefetcher;
+
+    /**
+     * Constructor using a new {@link BlockingRateLimiter}
+     * @param settings The Settings of this client
+     */
+    public RiotClient(ClientSettings settings) {
+        this(settings, new BlockingRateLimiter());
+    }
+
+    /**
+     * Constructor
+     * @param settings The Settings of this client
+     * @param rateLimiter The Rate Limiter of this client. Clients must not share a Rate Limiter unless they share the API Key
+     */
+    public RiotClient(ClientSettings settings, RateLimiter rateLimiter) {
+        this.settings = settings;
+        this.rateLimiter = rateLimiter;
+        this.httpClient = new HTTPClient(settings);
+    }
+
+    /**
+     * Gets the default client, which the static API uses unless another client is bound to the calling Thread
+     * @return The default client
+     */
+    public static RiotClient getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the client bound to the calling Thread
+     * @return The bound client, or the default client if there is none
+     */
+    public static RiotClient current() {
+        RiotClient client = CURRENT.get();
+        return client != null ? client : DEFAULT;
+    }
+
+    /**
+     * Runs the given requests with this client bound to the calling Thread, such that the static API uses this client's
+     * Settings, Rate Limiter and caches. The previously bound client is restored afterward.
+     * @param call The requests, e.g. <code>() -> Account.getAccountByPuuid(puuid, region)</code>
+     * @return The result of <b>{@code call}</b>
+     * @param <T> Type of the result
+     */
+    public <T> T call(Supplier<T> call) {
+        RiotClient previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) CURRENT.set(previous);
+            else CURRENT.remove();
+        }
+    }
+
+    /**
+     * Runs the given requests with this client bound to the calling Thread
+     * @see #call(Supplier)
+     * @param call The requests
+     */
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public ClientSettings getSettings() {
+        return this.settings;
+    }
+
+    /**
+     * Gets the Rate Limiter of this client. The default client uses {@link RiotAPI#rateLimiter}, such that subclasses
+     * replacing it keep working
+     * @return The Rate Limiter
+     */
+    public RateLimiter getRateLimiter() {
+        return this == DEFAULT ? RiotAPI.rateLimiter : this.rateLimiter;
+    }
+
+    public HTTPClient getHttpClient() {
+        return this.httpClient;
+    }
+
+    /**
+     * Gets the adaptive concurrency limiter of a Region
+     * @see #getConcurrencyLimiter(String)
+     * @param region The Region
+     * @return The adaptive concurrency limiter, {@code null} if it's disabled
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter(Region region) {
+        return getConcurrencyLimiter(getRoute(region.toString()));
+    }
+
+    /**
+     * Gets the adaptive concurrency limiter of a Platform
+     * @see #getConcurrencyLimiter(String)
+     * @param platform The Platform
+     * @return The adaptive concurrency limiter, {@code null} if it's disabled
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter(Platform platform) {
+        return getConcurrencyLimiter(getRoute(platform.toString()));
+    }
+
+    /**
+     * Gets the adaptive concurrency limiter of a route, creating it with this client's Settings if the route is used for the first time.
+     * Each Region and Platform has its own route (see {@link RiotAPI#getRoute(String, String)})
+     * @param route The route, e.g. <i>https://euw1.api.riotgames.com</i>
+     * @return The adaptive concurrency limiter, {@code null} if it's disabled
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter(String route) {
+        if (this.settings.getAdaptiveConcurrencyInitialLimit() <= 0) return null;
+        return this.concurrencyLimiters.computeIfAbsent(route, name -> new AdaptiveConcurrencyLimiter(
+                this.settings.getAdaptiveConcurrencyInitialLimit(), this.settings.getAdaptiveConcurrencyMaxLimit()));
+    }
+
+    /**
+     * Gets the Circuit Breaker of a Region
+     * @see #getCircuitBreaker(String)
+     * @param region The Region
+     * @return The Circuit Breaker
+     */
+    public CircuitBreaker getCircuitBreaker(Region region) {
+        return getCircuitBreaker(getRoute(region.toString()));
+    }
+
+    /**
+     * Gets the Circuit Breaker of a Platform
+     * @see #getCircuitBreaker(String)
+     * @param platform The Platform
+     * @return The Circuit Breaker
+     */
+    public CircuitBreaker getCircuitBreaker(Platform platform) {
+        return getCircuitBreaker(getRoute(platform.toString()));
+    }
+
+    /**
+     * Gets the Circuit Breaker of a route, creating it with this client's Settings if the route is used for the first time.
+     * Each Region and Platform has its own route (see {@link RiotAPI#getRoute(String, String)})
+     * @param route The route, e.g. <i>https://euw1.api.riotgames.com</i>
+     * @return The Circuit Breaker
+     */
+    public CircuitBreaker getCircuitBreaker(String route) {
+        return this.circuitBreakers.computeIfAbsent(route, name -> new CircuitBreaker(name,
+                this.settings.getCircuitBreakerFailureRate(), this.settings.getCircuitBreakerSlowCallThreshold(), this.settings.getCircuitBreakerOpenDuration()));
+    }
+
+    /**
+     * Gets the Bulkhead of a Region
+     * @see #getBulkhead(String)
+     * @param region The Region
+     * @return The Bulkhead
+     */
+    public Bulkhead getBulkhead(Region region) {
+        return getBulkhead(getRoute(region.toString()));
+    }
+
+    /**
+     * Gets the Bulkhead of a Platform
+     * @see #getBulkhead(String)
+     * @param platform The Platform
+     * @return The Bulkhead
+     */
+    public Bulkhead getBulkhead(Platform platform) {
+        return getBulkhead(getRoute(platform.toString()));
+    }
+
+    /**
+     * Gets the Bulkhead of a route, creating it with this client's Settings if the route is used for the first time.
+     * Each Region and Platform has its own route (see {@link RiotAPI#getRoute(String, String)})
+     * @param route The route, e.g. <i>https://euw1.api.riotgames.com</i>
+     * @return The Bulkhead
+     */
+    public Bulkhead getBulkhead(String route) {
+        return this.bulkheads.computeIfAbsent(route, name -> new Bulkhead(
+                this.settings.getBulkheadMaxConcurrent(), this.settings.getBulkheadMaxQueued(), this.settings.getBulkheadMaxWait()));
+    }
+
+    public NotFoundFilter getNotFoundFilter() {
+        return this.notFoundFilter;
+    }
+
+    /**
+     * Sets the filter of requests known to return 404 of this client
+     * @see RiotAPI#setNotFoundFilter(NotFoundFilter)
+     * @param filter The filter, {@code null} to disable it
+     */
+    public void setNotFoundFilter(NotFoundFilter filter) {
+        this.notFoundFilter = filter;
+    }
+
+    public Prefetcher getPrefetcher() {
+        return this.prefetcher;
+    }
+
+    /**
+     * Sets the Prefetcher of this client. The previous Prefetcher is shut down
+     * @see RiotAPI#setPrefetcher(Prefetcher)
+     * @param prefetcher The Prefetcher, {@code null} to disable prefetching
+     */
+    public void setPrefetcher(Prefetcher prefetcher) {
+        Prefetcher previous = this.prefetcher;
+        if (prefetcher != null) prefetcher.bind(this);
+        this.prefetcher = prefetcher;
+        if (previous != null && previous != prefetcher) previous.shutdown();
+    }
+
+    /**
+     * Utility Method to get the route of a Region or Platform, according to this client's API base path
+     * @param name The name of the Region or Platform
+     * @return The route
+     */
+    private String getRoute(String name) {
+        String apiBasePath = this.settings.getAPIBasePath();
+        return RiotAPI.getRoute(apiBasePath, apiBasePath.replace("#", name));
+    }
+
+    /**
+     * Shuts down the Prefetcher and the Rate Limiter of this client, including their Threads. The client must not be used afterward
+     * @throws IllegalStateException If this is the default client, which the static API uses for the lifetime of the JVM
+     */
+    @Override
+    public void close() {
+        if (this == DEFAULT) throw new IllegalStateException("The default client can't be closed");
+        setPrefetcher(null);
+        if (this.rateLimiter != null) this.rateLimiter.shutdown();
+    }
+}
@@ -3,7 +3,7 @@ package net.petersil98.core.http.exceptions;
 /**
  * Exception thrown when a {@link org.apache.http.HttpStatus#SC_BAD_REQUEST} Status Code is returned
  */
-public class BadRequestException extends RuntimeException {
+public class BadRequestException extends StatusCodeException {
 
     private static final String TEMPLATE = "Got status code 400 (Bad Request) for URL %s. Body: %s";
 
@@ -12,6 +12,6 @@ public class BadRequestException extends RuntimeException {
     }
 
     public BadRequestException(String url, String body) {
-        this(String.format(TEMPLATE, url, body));
+        super(TEMPLATE, url, body);
     }
 }
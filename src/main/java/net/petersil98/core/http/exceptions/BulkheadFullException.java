@@ -0,0 +1,14 @@
+package net.petersil98.core.http.exceptions;
+
+/**
+ * Exception thrown when a request is rejected without being sent, because too many requests to its Region or Platform are already
+ * in flight or waiting
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private static final String TEMPLATE = "Bulkhead for %s is full, too many requests are in flight or waiting";
+
+    public BulkheadFullException(String region) {
+        super(String.format(TEMPLATE, region), null, false, false);
+    }
+}
@@ -0,0 +1,15 @@
+package net.petersil98.core.http.exceptions;
+
+/**
+ * Exception thrown when a request is rejected without being sent, because the circuit breaker of its Region or Platform is open
+ * <br>
+ * Like the {@link StatusCodeException StatusCodeExceptions}, it doesn't capture a stack trace, since it signals an expected condition.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private static final String TEMPLATE = "Circuit breaker for %s is open, because too many requests to it failed or were slow";
+
+    public CircuitOpenException(String region) {
+        super(String.format(TEMPLATE, region), null, false, false);
+    }
+}
@@ -0,0 +1,18 @@
+package net.petersil98.core.http.exceptions;
+
+/**
+ * Exception thrown when the deadline of a request passed before it got a Permit from the Rate Limiter.
+ * The request has not been sent and hasn't used up any Rate Limits
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final String TEMPLATE = "Deadline passed while waiting for a Permit for Method %s in Region %s";
+
+    public DeadlineExceededException(String message) {
+        super(message, null, false, false);
+    }
+
+    public DeadlineExceededException(String region, String endpointMethod) {
+        this(String.format(TEMPLATE, endpointMethod, region));
+    }
+}
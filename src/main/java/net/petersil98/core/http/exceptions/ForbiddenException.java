@@ -3,7 +3,7 @@ package net.petersil98.core.http.exceptions;
 /**
  * Exception thrown when a {@link org.apache.http.HttpStatus#SC_FORBIDDEN} Status Code is returned
  */
-public class ForbiddenException extends RuntimeException {
+public class ForbiddenException extends StatusCodeException {
 
     private static final String TEMPLATE = "Got status code 403 (Forbidden) for URL %s. Body: %s. Did the API Key expired or is it invalid?";
 
@@ -12,6 +12,6 @@ public class ForbiddenException extends RuntimeException {
     }
 
     public ForbiddenException(String url, String body) {
-        this(String.format(TEMPLATE, url, body));
+        super(TEMPLATE, url, body);
     }
 }
@@ -3,7 +3,7 @@ package net.petersil98.core.http.exceptions;
 /**
  * Exception thrown when a 429 (Too Many Requests) Status Code is returned
  */
-public class RateLimitExceededException extends RuntimeException {
+public class RateLimitExceededException extends StatusCodeException {
 
     private static final String TEMPLATE = "Got status code 429 (Rate Limit Exceeded) for URL %s. Body: %s";
 
@@ -12,6 +12,6 @@ public class RateLimitExceededException extends RuntimeException {
     }
 
     public RateLimitExceededException(String url, String body) {
-        this(String.format(TEMPLATE, url, body));
+        super(TEMPLATE, url, body);
     }
 }
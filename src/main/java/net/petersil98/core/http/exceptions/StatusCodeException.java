@@ -0,0 +1,48 @@
+package net.petersil98.core.http.exceptions;
+
+/**
+ * Base class of the Exceptions thrown for error Status Codes returned by the API.
+ * <br>
+ * These Exceptions are thrown for expected API errors rather than programming errors, so they don't capture a stack trace,
+ * and the message is only formatted when it is requested. This keeps them cheap even when many requests fail at once,
+ * e.g. while the Rate Limit is exceeded.
+ */
+public abstract class StatusCodeException extends RuntimeException {
+
+    private final String template;
+    private final String url;
+    private final String body;
+
+    protected StatusCodeException(String message) {
+        super(message, null, false, false);
+        this.template = null;
+        this.url = null;
+        this.body = null;
+    }
+
+    /**
+     * Constructor
+     * @param template The template of the message, containing two <b>%s</b> for the Url and the body
+     * @param url The Url of the request
+     * @param body The body of the response
+     */
+    protected StatusCodeException(String template, String url, String body) {
+        super(null, null, false, false);
+        this.template = template;
+        this.url = url;
+        this.body = body;
+    }
+
+    @Override
+    public String getMessage() {
+        return this.template == null ? super.getMessage() : String.format(this.template, this.url, this.body);
+    }
+
+    public String getUrl() {
+        return this.url;
+    }
+
+    public String getBody() {
+        return this.body;
+    }
+}
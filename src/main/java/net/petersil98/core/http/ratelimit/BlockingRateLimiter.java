@@ -1,36 +1,76 @@
 package net.petersil98.core.http.ratelimit;
 
+import net.petersil98.core.Core;
 import net.petersil98.core.constant.Region;
+import net.petersil98.core.http.exceptions.DeadlineExceededException;
+import net.petersil98.core.jfr.PermitAcquireEvent;
+import net.petersil98.core.jfr.RateLimiterParkEvent;
+import net.petersil98.core.util.settings.Settings;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 
 /**
  * Concrete Implementation of the Abstract {@link RateLimit} class
+ * <br>
+ * Waiting requests are woken up earliest-deadline-first (see {@link #acquire(Region, String, long)}), requests without a
+ * deadline come after all requests with one, in the order they started waiting. Within a Region and Method, a request
+ * doesn't take a Permit while a request with an earlier deadline is still waiting for one, and requests whose deadline
+ * passed are dropped before they take a Permit.
  */
 public class BlockingRateLimiter extends RateLimiter {
 
-    private final List<AggregatePermit> permits = new CopyOnWriteArrayList<>();
+    private static final Marker MARKER = MarkerManager.getMarker(BlockingRateLimiter.class.getSimpleName());
 
-    private final Map<Region, List<Thread>> threadsWaitingForAppPermit = new ConcurrentHashMap<>();
-    private final DoubleKeyMap<Region, String, List<Thread>> threadsWaitingForMethodPermit = new DoubleKeyMap<>();
-    private final Map<Region, List<Thread>> threadsWaitingForAppExceeded = new ConcurrentHashMap<>();
-    private final DoubleKeyMap<Region, String, List<Thread>> threadsWaitingForMethodExceeded = new DoubleKeyMap<>();
+    /**
+     * Upper bound for how long a Thread stays parked without being woken up. It bounds the delay caused by a wake-up
+     * that raced with the Thread parking itself.
+     */
+    private static final long MAX_PARK_TIME_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Set<AggregatePermit> permits = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong waiterSequence = new AtomicLong();
+
+    private final Map<Region, Queue<Waiter>> threadsWaitingForAppPermit = new ConcurrentHashMap<>();
+    private final DoubleKeyMap<Region, String, Queue<Waiter>> threadsWaitingForMethodPermit = new DoubleKeyMap<>();
+    private final Map<Region, Queue<Waiter>> threadsWaitingForAppExceeded = new ConcurrentHashMap<>();
+    private final DoubleKeyMap<Region, String, Queue<Waiter>> threadsWaitingForMethodExceeded = new DoubleKeyMap<>();
+    private final DoubleKeyMap<Region, String, ProbePermit> probes = new DoubleKeyMap<>();
+
+    private final Thread permitReleaser;
+    private volatile boolean running = true;
 
     /**
-     * Constructor for this class. It creates a Thread, which checks periodically whether permits in {@link #permits} are invalid and can be released.
-     * It also checks if exceeded Rate Limits are now safe to be removed.
+     * Constructor for this class. It creates a daemon Thread, which checks periodically whether permits in {@link #permits} are invalid and can be released.
+     * It also checks if exceeded Rate Limits are now safe to be removed. The Thread runs until {@link #shutdown()} is called.
      */
     public BlockingRateLimiter() {
-        Thread permitReleaser = new Thread(new Runnable() {
+        this(IClock.system());
+    }
+
+    /**
+     * Constructor for this class, measuring the windows of the Rate Limits with the given clock
+     * @see #BlockingRateLimiter()
+     * @param clock The clock, e.g. a {@link CoarseClock} to make reading the time cheaper, or a {@link ManualClock} for tests
+     */
+    public BlockingRateLimiter(IClock clock) {
+        super(clock);
+        this.permitReleaser = new Thread(new Runnable() {
             @Override
             public void run() {
-                while (true) {
+                while (running) {
                     releaseAppPermits();
                     releaseMethodPermits();
                     releaseAggregatePermits();
@@ -39,121 +79,88 @@ public class BlockingRateLimiter extends RateLimiter {
                     try {
                         Thread.sleep(getTimeToWait());
                     } catch (InterruptedException e) {
-                        e.printStackTrace();
+                        if (!running) return;
+                        Core.LOGGER.debug(MARKER, "Permit releaser was interrupted while sleeping");
                     }
                 }
             }
 
             private void releaseAppPermits() {
-                synchronized (appRateLimits) {
-                    appRateLimits.forEach((region, rateLimits) -> rateLimits
-                            .forEach(rateLimit -> List.copyOf(rateLimit.getPermits())
-                                    .stream()
-                                    .filter(permit -> permit != null && permit.isInvalid())
-                                    .forEach(permit -> {
-                                        permit.remove();
-                                        if (threadsWaitingForAppPermit.containsKey(region)
-                                                && !threadsWaitingForAppPermit.get(region).isEmpty()) {
-                                            Thread t = threadsWaitingForAppPermit.get(region).remove(0);
-                                            synchronized (t) {
-                                                t.notify();
-                                            }
-                                        }
-                                    })
-                            )
-                    );
-                }
+                appRateLimits.forEach((region, rateLimits) -> {
+                    int released = 0;
+                    for (RateLimit rateLimit : rateLimits) {
+                        released += rateLimit.releaseInvalidPermits();
+                    }
+                    if (released > 0) wakeUp(threadsWaitingForAppPermit.get(region), released);
+                });
             }
 
             private void releaseMethodPermits() {
-                synchronized (methodRateLimits) {
-                    methodRateLimits.forEach((region, method, rateLimits) -> rateLimits
-                            .forEach(rateLimit -> List.copyOf(rateLimit.getPermits())
-                                    .stream()
-                                    .filter(permit -> permit != null && permit.isInvalid())
-                                    .forEach(permit -> {
-                                        permit.remove();
-                                        if (threadsWaitingForMethodPermit.containsKey(region, method)
-                                                && !threadsWaitingForMethodPermit.get(region, method).isEmpty()) {
-                                            Thread t = threadsWaitingForMethodPermit.get(region, method).remove(0);
-                                            synchronized (t) {
-                                                t.notify();
-                                            }
-                                        }
-                                    })
-                            )
-                    );
-                }
+                methodRateLimits.forEach((region, method, rateLimits) -> {
+                    int released = 0;
+                    for (RateLimit rateLimit : rateLimits) {
+                        released += rateLimit.releaseInvalidPermits();
+                    }
+                    if (released > 0) wakeUp(threadsWaitingForMethodPermit.get(region, method), released);
+                });
             }
 
             private void releaseAggregatePermits() {
-                List<AggregatePermit> copy = List.copyOf(permits);
-                for (AggregatePermit aggregatePermit : copy) {
-                    if (aggregatePermit.isInvalid()) {
-                        aggregatePermit.remove();
-                    }
-                }
+                permits.removeIf(AggregatePermit::isInvalid);
             }
 
             private void checkExceededAppRateLimits() {
-                synchronized (exceededAppRateLimits) {
-                    exceededAppRateLimits.entrySet().removeIf(entry -> {
-                        boolean shouldRemove = !entry.getValue().isStillExceeded();
-                        if(shouldRemove) {
-                            Thread t = threadsWaitingForAppExceeded.get(entry.getKey()).remove(0);
-                            synchronized (t) {t.notify();}
-                        }
-                        return shouldRemove;
-                    });
-                }
+                exceededAppRateLimits.entrySet().removeIf(entry -> {
+                    boolean shouldRemove = !entry.getValue().isStillExceeded();
+                    if(shouldRemove) wakeUp(threadsWaitingForAppExceeded.get(entry.getKey()), Integer.MAX_VALUE);
+                    return shouldRemove;
+                });
             }
 
             private void checkExceededMethodRateLimits() {
-                synchronized (exceededMethodRateLimits) {
-                    exceededMethodRateLimits.entrySet().removeIf(entry -> {
-                        boolean shouldRemove = !entry.getValue().isStillExceeded();
-                        if(shouldRemove) {
-                            Thread t = threadsWaitingForMethodExceeded.get(entry.getKey1(), entry.getKey2()).remove(0);
-                            synchronized (t) {t.notify();}
-                        }
-                        return shouldRemove;
-                    });
-                }
+                exceededMethodRateLimits.removeIf((region, method, exceededRateLimit) -> {
+                    boolean shouldRemove = !exceededRateLimit.isStillExceeded();
+                    if(shouldRemove) wakeUp(threadsWaitingForMethodExceeded.get(region, method), Integer.MAX_VALUE);
+                    return shouldRemove;
+                });
             }
 
             private long getTimeToWait() {
-                long timeToWaitForPermit;
-                synchronized (permits) {
-                    timeToWaitForPermit = permits.stream().mapToLong(aggregatePermit -> {
-                        synchronized (aggregatePermit) {
-                            return aggregatePermit.permits.stream()
-                                    .filter(permit -> !permit.isInvalid())
-                                    .mapToLong(RateLimit.Permit::getRemainingLifespan)
-                                    .min().orElse(Long.MAX_VALUE);
-                        }
-                    }).min().orElse(500);
-                }
-                long timeToWaitForExceedRateLimit;
-                synchronized (exceededMethodRateLimits) {
-                    synchronized (exceededAppRateLimits) {
-                        timeToWaitForExceedRateLimit = Stream.concat(
-                                        exceededMethodRateLimits.entrySet().stream().map(DoubleKeyMap.Entry::getValue),
-                                        exceededAppRateLimits.values().stream())
-                                .filter(ExceededRateLimit::isStillExceeded)
-                                .mapToLong(ExceededRateLimit::getRemainingTime)
-                                .min().orElse(500);
-                    }
-                }
-                return Math.min(timeToWaitForExceedRateLimit, timeToWaitForPermit);
+                long timeToWaitForPermit = Stream.concat(
+                                appRateLimits.values().stream().flatMap(List::stream),
+                                methodRateLimits.values().stream().flatMap(List::stream))
+                        .mapToLong(RateLimit::getTimeUntilNextRelease)
+                        .min().orElse(500);
+                long timeToWaitForExceedRateLimit = Stream.concat(
+                                exceededMethodRateLimits.values().stream(),
+                                exceededAppRateLimits.values().stream())
+                        .filter(ExceededRateLimit::isStillExceeded)
+                        .mapToLong(ExceededRateLimit::getRemainingTime)
+                        .min().orElse(500);
+                return Math.max(1, Math.min(500, Math.min(timeToWaitForExceedRateLimit, timeToWaitForPermit)));
             }
-        });
-        permitReleaser.start();
+        }, "PermitReleaser");
+        this.permitReleaser.setDaemon(true);
+        this.permitReleaser.start();
+    }
+
+    /**
+     * Stops the Thread releasing the Permits, in addition to the Threads stopped by {@link RateLimiter#shutdown()}
+     */
+    @Override
+    public synchronized void shutdown() {
+        super.shutdown();
+        this.running = false;
+        this.permitReleaser.interrupt();
     }
 
     /**
      * Method to acquire a Permit, which is needed in order to make a request.
-     * If the request is the first in a given region or the first in a given region for a given method, then a {@link DummyPermit} is returned.
-     * Otherwise, this Method "parks" the current Thread in a List where it waits for a Permit to become available for this Region and Method.
+     * If the Rate Limits for the given region or method are not known yet, the default Rate Limits from
+     * {@link Settings#setDefaultRateLimits(String, String)} are used. Without default Rate Limits, a single {@link ProbePermit}
+     * is given out per region and method and all other requests wait until the response to the probe request
+     * revealed the Rate Limits.
+     * Otherwise, this Method "parks" the current Thread in a Queue where it waits for a Permit to become available for this Region and Method.
      * This Method is <b>blocking</b> and <b>Thread-safe</b>
      * @param region The region to which the request should be made
      * @param endpointMethod The Method of a given Endpoint to which the request should be made
@@ -161,22 +168,102 @@ public class BlockingRateLimiter extends RateLimiter {
      */
     @Override
     public IPermit acquire(Region region, String endpointMethod) {
+        return acquire(region, endpointMethod, new Waiter(Thread.currentThread(), false, 0, this.waiterSequence.getAndIncrement()));
+    }
+
+    /**
+     * Method to acquire a Permit like {@link #acquire(Region, String)}, giving up once the deadline passed. While waiting,
+     * requests with earlier deadlines are preferred, and once the deadline passed, the request is dropped without taking a Permit.
+     * @param region The region to which the request should be made
+     * @param endpointMethod The Method of a given Endpoint to which the request should be made
+     * @param deadline The {@link IClock#nanoTime()} of this Rate Limiter's clock after which the request is not needed anymore
+     * @return A Permit once the Request can be made safely
+     * @throws DeadlineExceededException If the deadline passed before a Permit could be given out
+     */
+    @Override
+    public IPermit acquire(Region region, String endpointMethod, long deadline) {
+        return acquire(region, endpointMethod, new Waiter(Thread.currentThread(), true, deadline, this.waiterSequence.getAndIncrement()));
+    }
+
+    /**
+     * Method to acquire a Permit for a low priority request without waiting. Rate Limits that are not known yet are not
+     * probed by low priority requests, and no Permit is given out while any request of the Region or Method is waiting.
+     * @param region The region to which the request should be made
+     * @param endpointMethod The Method of a given Endpoint to which the request should be made
+     * @param reserve The share of each Rate Limit that is kept free for other requests, between 0 and 1
+     * @return A Permit if the Request can be made right away, {@code null} otherwise
+     */
+    @Override
+    public IPermit tryAcquire(Region region, String endpointMethod, double reserve) {
+        restoreState(region);
+        installDefaultRateLimits(region, endpointMethod);
+        if (this.exceededAppRateLimits.containsKey(region) || this.exceededMethodRateLimits.containsKey(region, endpointMethod)) return null;
+        List<RateLimit> appLimits = this.appRateLimits.get(region);
+        List<RateLimit> methodLimits = this.methodRateLimits.get(region, endpointMethod);
+        if (appLimits == null || methodLimits == null) return null;
+        if (hasWaiters(this.threadsWaitingForAppPermit.get(region)) || hasWaiters(this.threadsWaitingForMethodPermit.get(region, endpointMethod))) return null;
+        synchronized (appLimits) {
+            synchronized (methodLimits) {
+                if (Stream.concat(appLimits.stream(), methodLimits.stream()).anyMatch(rateLimit -> !rateLimit.isPermitAvailable(reserve))) return null;
+                AggregatePermit permit = new AggregatePermit(Stream.concat(appLimits.stream(), methodLimits.stream()).map(RateLimit::acquire).toList(), this);
+                permits.add(permit);
+                return permit;
+            }
+        }
+    }
+
+    private static boolean hasWaiters(Queue<Waiter> waitingThreads) {
+        return waitingThreads != null && !waitingThreads.isEmpty();
+    }
+
+    private IPermit acquire(Region region, String endpointMethod, Waiter waiter) {
+        PermitAcquireEvent event = new PermitAcquireEvent();
+        event.begin();
+        boolean acquired = false;
+        try {
+            IPermit permit = acquirePermit(region, endpointMethod, waiter);
+            acquired = true;
+            return permit;
+        } finally {
+            event.finish(region, endpointMethod, waiter.parks, waiter.hasDeadline, acquired);
+        }
+    }
+
+    private IPermit acquirePermit(Region region, String endpointMethod, Waiter waiter) {
+        restoreState(region);
+        installDefaultRateLimits(region, endpointMethod);
         while (true) {
+            if (waiter.isExpired(this.clock)) throw new DeadlineExceededException(region.toString(), endpointMethod);
+            Queue<Waiter> waitingThreads;
+            String reason;
             if(this.exceededAppRateLimits.containsKey(region)) {
-                parkCurrentThread(threadsWaitingForAppExceeded, region);
+                waitingThreads = this.threadsWaitingForAppExceeded.computeIfAbsent(region, r -> new PriorityBlockingQueue<>());
+                reason = RateLimiterParkEvent.APP_RATE_LIMIT_EXCEEDED;
             } else if(this.exceededMethodRateLimits.containsKey(region, endpointMethod)) {
-                parkCurrentThread(threadsWaitingForMethodExceeded, region, endpointMethod);
+                waitingThreads = this.threadsWaitingForMethodExceeded.computeIfAbsent(region, endpointMethod, (r, m) -> new PriorityBlockingQueue<>());
+                reason = RateLimiterParkEvent.METHOD_RATE_LIMIT_EXCEEDED;
             } else {
-                if (!this.appRateLimits.containsKey(region)) return new DummyPermit();
-                synchronized (this.appRateLimits.get(region)) {
-                    if (!this.methodRateLimits.containsKey(region, endpointMethod)) return new DummyPermit();
-                    synchronized (this.methodRateLimits.get(region, endpointMethod)) {
-                        List<RateLimit> appLimits = this.appRateLimits.get(region);
-                        List<RateLimit> methodLimits = this.methodRateLimits.get(region, endpointMethod);
+                List<RateLimit> appLimits = this.appRateLimits.get(region);
+                List<RateLimit> methodLimits = this.methodRateLimits.get(region, endpointMethod);
+                if (appLimits == null || methodLimits == null) {
+                    IPermit probe = acquireProbe(region, endpointMethod, waiter);
+                    if (probe != null) return probe;
+                    continue;
+                }
+                Queue<Waiter> methodWaiters = this.threadsWaitingForMethodPermit.computeIfAbsent(region, endpointMethod, (r, m) -> new PriorityBlockingQueue<>());
+                synchronized (appLimits) {
+                    synchronized (methodLimits) {
+                        Waiter preceding = methodWaiters.peek();
                         if (appLimits.stream().anyMatch(rateLimit -> !rateLimit.isPermitAvailable())) {
-                            parkCurrentThread(threadsWaitingForAppPermit, region);
+                            waitingThreads = this.threadsWaitingForAppPermit.computeIfAbsent(region, r -> new PriorityBlockingQueue<>());
+                            reason = RateLimiterParkEvent.APP_RATE_LIMIT_FULL;
                         } else if (methodLimits.stream().anyMatch(rateLimit -> !rateLimit.isPermitAvailable())) {
-                            parkCurrentThread(threadsWaitingForMethodPermit, region, endpointMethod);
+                            waitingThreads = methodWaiters;
+                            reason = RateLimiterParkEvent.METHOD_RATE_LIMIT_FULL;
+                        } else if (preceding != null && preceding.compareTo(waiter) < 0 && !preceding.isExpired(this.clock)) {
+                            LockSupport.unpark(preceding.thread);
+                            waitingThreads = methodWaiters;
+                            reason = RateLimiterParkEvent.EARLIER_DEADLINE;
                         } else {
                             AggregatePermit permit = new AggregatePermit(Stream.concat(appLimits.stream(), methodLimits.stream()).map(RateLimit::acquire).toList(), this);
                             permits.add(permit);
@@ -185,45 +272,120 @@ public class BlockingRateLimiter extends RateLimiter {
                     }
                 }
             }
+            parkCurrentThread(waitingThreads, waiter, region, endpointMethod, reason);
         }
     }
 
     /**
-     * Utility Method to "park" the current Thread and make it wait until new Permits are available
-     * @see Thread#wait()
-     * @param map The map to "park" the current Thread
-     * @param region The Region to which the Thread needs a Permit
+     * Utility Method to give out the single probe Permit for a region and method whose Rate Limits are not known yet.
+     * If a probe request is already in flight, the current Thread waits until it finished.
+     * @param region The region to which the request should be made
+     * @param endpointMethod The Method of a given Endpoint to which the request should be made
+     * @param waiter The waiting request, which limits how long the current Thread waits
+     * @return The probe Permit, or {@code null} if the Rate Limits should be checked again
      */
-    private void parkCurrentThread(Map<Region, List<Thread>> map, Region region) {
-        Thread currentThread = Thread.currentThread();
-        if(!map.containsKey(region)) map.put(region, new ArrayList<>());
-        map.get(region).add(currentThread);
-        try {
-            synchronized (currentThread) {
-                currentThread.wait();
+    private IPermit acquireProbe(Region region, String endpointMethod, Waiter waiter) {
+        synchronized (this.probes) {
+            if (this.appRateLimits.containsKey(region) && this.methodRateLimits.containsKey(region, endpointMethod)) return null;
+            ProbePermit probe = new ProbePermit(region, endpointMethod, this);
+            if (this.probes.putIfAbsent(region, endpointMethod, probe) == null) return probe;
+            RateLimiterParkEvent event = new RateLimiterParkEvent();
+            event.begin();
+            waiter.parks++;
+            try {
+                this.probes.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(waiter.getParkTime(this.clock))));
+            } catch (InterruptedException e) {
+                Core.LOGGER.debug(MARKER, "Interrupted while waiting for the probe request to {} in {}", endpointMethod, region);
             }
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            event.finish(region, endpointMethod, RateLimiterParkEvent.PROBE);
+            return null;
         }
     }
 
     /**
-     * Utility Method to "park" the current Thread and make it wait until new Permits are available
-     * @see Thread#wait()
-     * @param map The map to "park" the current Thread
-     * @param region The Region to which the Thread needs a Permit
-     * @param method The endpoint Method
+     * Wakes up all Threads waiting for the Rate Limits of the given region and method to become known
+     * @param region The region whose Rate Limits changed
+     * @param endpointMethod The Method whose Rate Limits changed
      */
-    private void parkCurrentThread(DoubleKeyMap<Region, String, List<Thread>> map, Region region, String method) {
-        Thread currentThread = Thread.currentThread();
-        if(!map.containsKey(region, method)) map.put(region, method, new CopyOnWriteArrayList<>());
-        map.get(region, method).add(currentThread);
-        try {
-            synchronized (currentThread) {
-                currentThread.wait();
-            }
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+    @Override
+    protected void onRateLimitsChanged(Region region, String endpointMethod) {
+        synchronized (this.probes) {
+            this.probes.notifyAll();
+        }
+        wakeUp(this.threadsWaitingForAppPermit.get(region), Integer.MAX_VALUE);
+        wakeUp(this.threadsWaitingForMethodPermit.get(region, endpointMethod), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Utility Method to "park" the current Thread and make it wait until new Permits are available. The Thread is
+     * parked at most {@link #MAX_PARK_TIME_IN_NANOS} and not past its deadline, so callers need to check again whether they can proceed.
+     * @see LockSupport#parkNanos(Object, long)
+     * @param waitingThreads The Queue to "park" the current Thread in
+     * @param waiter The waiting request of the current Thread
+     * @param region The region to which the request should be made. Used for the {@link RateLimiterParkEvent}
+     * @param endpointMethod The Method of a given Endpoint to which the request should be made. Used for the {@link RateLimiterParkEvent}
+     * @param reason Why no Permit could be given out. Used for the {@link RateLimiterParkEvent}
+     */
+    private void parkCurrentThread(Queue<Waiter> waitingThreads, Waiter waiter, Region region, String endpointMethod, String reason) {
+        RateLimiterParkEvent event = new RateLimiterParkEvent();
+        event.begin();
+        waiter.parks++;
+        waitingThreads.add(waiter);
+        LockSupport.parkNanos(this, waiter.getParkTime(this.clock));
+        waitingThreads.remove(waiter);
+        event.finish(region, endpointMethod, reason);
+    }
+
+    /**
+     * Utility Method to wake up parked Threads earliest deadline first
+     * @param waitingThreads The Queue of parked Threads, may be {@code null}
+     * @param count The maximum number of Threads to wake up
+     */
+    private static void wakeUp(Queue<Waiter> waitingThreads, int count) {
+        if (waitingThreads == null) return;
+        Waiter waiter;
+        while (count-- > 0 && (waiter = waitingThreads.poll()) != null) {
+            LockSupport.unpark(waiter.thread);
+        }
+    }
+
+    /**
+     * A request waiting for a Permit. Waiters are ordered by their deadline, Waiters without a deadline come last,
+     * and Waiters with the same deadline are ordered by when they started waiting.
+     */
+    private static class Waiter implements Comparable<Waiter> {
+        private final Thread thread;
+        private final boolean hasDeadline;
+        private final long deadline;
+        private final long sequence;
+        private int parks;
+
+        private Waiter(Thread thread, boolean hasDeadline, long deadline, long sequence) {
+            this.thread = thread;
+            this.hasDeadline = hasDeadline;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+
+        private boolean isExpired(IClock clock) {
+            return this.hasDeadline && clock.nanoTime() - this.deadline >= 0;
+        }
+
+        /**
+         * Gets how long the Thread may be parked at once
+         * @param clock The clock of the Rate Limiter, which the deadline refers to
+         * @return The park time in nanoseconds
+         */
+        private long getParkTime(IClock clock) {
+            if (!this.hasDeadline) return MAX_PARK_TIME_IN_NANOS;
+            return Math.max(1, Math.min(MAX_PARK_TIME_IN_NANOS, this.deadline - clock.nanoTime()));
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            if (this.hasDeadline != other.hasDeadline) return this.hasDeadline ? -1 : 1;
+            if (this.hasDeadline && this.deadline != other.deadline) return this.deadline - other.deadline < 0 ? -1 : 1;
+            return Long.compare(this.sequence, other.sequence);
         }
     }
 
@@ -279,22 +441,45 @@ public class BlockingRateLimiter extends RateLimiter {
                 try {
                     permit.close();
                 } catch (Exception e) {
-                    e.printStackTrace();
+                    Core.LOGGER.warn(MARKER, "Failed to close Permit", e);
                 }
             });
         }
     }
 
     /**
-     * Dummy Implementation of the {@link IPermit} interface
+     * Implementation of the {@link IPermit} interface for the first request to a region and method whose Rate Limits are not known yet.
+     * Once it's closed, the response headers have been processed and the next waiting request may continue
      */
-    private static class DummyPermit implements IPermit {
+    private static class ProbePermit implements IPermit {
+        private final Region region;
+        private final String endpointMethod;
+        private final BlockingRateLimiter rateLimiter;
+
+        private ProbePermit(Region region, String endpointMethod, BlockingRateLimiter rateLimiter) {
+            this.region = region;
+            this.endpointMethod = endpointMethod;
+            this.rateLimiter = rateLimiter;
+        }
 
         @Override
-        public void cancel() {}
+        public void cancel() {
+            close();
+        }
 
+        /**
+         * Removes this Permit from the probes in flight in {@link BlockingRateLimiter#probes} and wakes up the waiting Threads.
+         * If the probe request didn't reveal the Rate Limits, one of them becomes the next probe
+         */
         @Override
-        public void remove() {}
+        public void remove() {
+            synchronized (rateLimiter.probes) {
+                if (rateLimiter.probes.containsKey(region, endpointMethod) && rateLimiter.probes.get(region, endpointMethod) == this) {
+                    rateLimiter.probes.remove(region, endpointMethod);
+                }
+                rateLimiter.probes.notifyAll();
+            }
+        }
 
         @Override
         public boolean isInvalid() {
@@ -302,6 +487,8 @@ public class BlockingRateLimiter extends RateLimiter {
         }
 
         @Override
-        public void close() {}
+        public void close() {
+            remove();
+        }
     }
 }
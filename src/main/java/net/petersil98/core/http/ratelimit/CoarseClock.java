@@ -0,0 +1,58 @@
+package net.petersil98.core.http.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock that caches {@link System#nanoTime()} and refreshes it periodically on a daemon Thread, such that reading the
+ * time on the hot path is a plain volatile read. The cached time lags behind by at most the resolution plus scheduling
+ * delays, which {@link RateLimit Rate Limits} compensate by extending the lifespan of their Permits by {@link #getResolution()}.
+ */
+public class CoarseClock implements IClock {
+
+    private final long resolutionInNanos;
+    private volatile long nanoTime = System.nanoTime();
+    private volatile boolean running = true;
+
+    /**
+     * Constructor. Starts the Thread refreshing the cached time
+     * @param resolution The interval in which the cached time is refreshed
+     */
+    public CoarseClock(Duration resolution) {
+        this.resolutionInNanos = resolution.toNanos();
+        Thread ticker = new Thread(() -> {
+            while (this.running) {
+                LockSupport.parkNanos(this.resolutionInNanos);
+                this.nanoTime = System.nanoTime();
+            }
+        }, "CoarseClock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public long nanoTime() {
+        return this.nanoTime;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * The resolution is doubled to account for the Thread refreshing the cached time being scheduled late
+     * @return The resolution in nanoseconds
+     */
+    @Override
+    public long getResolution() {
+        return 2 * this.resolutionInNanos;
+    }
+
+    /**
+     * Stops the Thread refreshing the cached time. Afterward, the time doesn't advance anymore
+     */
+    public void stop() {
+        this.running = false;
+    }
+}
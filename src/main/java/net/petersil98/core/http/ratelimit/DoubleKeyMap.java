@@ -4,17 +4,25 @@ import org.apache.logging.log4j.util.TriConsumer;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
- * Implementation of a Double Key Map, which means two Keys uniquely identify a value. It used two nested {@link HashMap} internally
+ * Implementation of a concurrent Double Key Map, which means two Keys uniquely identify a value. It uses two nested
+ * {@link ConcurrentHashMap ConcurrentHashMaps} internally, such that all single-value operations are atomic and lock-free for readers.
+ * <br>
+ * Iteration via {@link #forEach(TriConsumer)}, {@link #values()} and {@link #entrySet()} is <i>weakly consistent</i> like the iteration
+ * of a {@link ConcurrentHashMap}: it never throws a {@link ConcurrentModificationException}, traverses each entry at most once and
+ * may or may not reflect modifications made after the iteration started.
  * @param <K1> Type of the First Key
  * @param <K2> Type of the Second Key
  * @param <V> Type of the Value
  */
 public class DoubleKeyMap<K1, K2, V> {
 
-    private final Map<K1, Map<K2, V>> map;
+    private final ConcurrentMap<K1, ConcurrentMap<K2, V>> map;
 
     /**
      * Constructor
@@ -29,22 +37,84 @@ public class DoubleKeyMap<K1, K2, V> {
      * @param key1 First Key
      * @param key2 Second Key
      * @param value The value to be stored
+     * @return The previous value associated with the two keys, {@code null} if there was none
      */
-    public void put(K1 key1, K2 key2, V value) {
-        if(!map.containsKey(key1)) {
-            map.put(key1, new ConcurrentHashMap<>());
-        }
-        map.get(key1).put(key2,value);
+    public V put(K1 key1, K2 key2, V value) {
+        return inner(key1).put(key2, value);
+    }
+
+    /**
+     * Puts a value in the Map under the given keys if there is no value associated with them yet
+     * @see ConcurrentMap#putIfAbsent(Object, Object)
+     * @param key1 First Key
+     * @param key2 Second Key
+     * @param value The value to be stored
+     * @return The current value associated with the two keys, {@code null} if the given value got stored
+     */
+    public V putIfAbsent(K1 key1, K2 key2, V value) {
+        return inner(key1).putIfAbsent(key2, value);
+    }
+
+    /**
+     * Atomically computes the value for the given keys if there is no value associated with them yet.
+     * The mapping function is called at most once per absent value.
+     * @see ConcurrentHashMap#computeIfAbsent(Object, Function)
+     * @param key1 First Key
+     * @param key2 Second Key
+     * @param mappingFunction The function that computes the value from the keys
+     * @return The current (existing or computed) value associated with the two keys
+     */
+    public V computeIfAbsent(K1 key1, K2 key2, BiFunction<? super K1, ? super K2, ? extends V> mappingFunction) {
+        return inner(key1).computeIfAbsent(key2, k2 -> mappingFunction.apply(key1, k2));
+    }
+
+    /**
+     * Atomically replaces the value for the given keys, but only if it is currently mapped to the expected value
+     * @see ConcurrentMap#replace(Object, Object, Object)
+     * @param key1 First Key
+     * @param key2 Second Key
+     * @param oldValue The value expected to be associated with the two keys
+     * @param newValue The value to be stored
+     * @return Whether the value got replaced
+     */
+    public boolean replace(K1 key1, K2 key2, V oldValue, V newValue) {
+        ConcurrentMap<K2, V> inner = this.map.get(key1);
+        return inner != null && inner.replace(key2, oldValue, newValue);
     }
 
     /**
      * Retrieves the value identified by the given keys
      * @param key1 First Key
      * @param key2 Second Key
-     * @return The value associated with the two keys
+     * @return The value associated with the two keys, {@code null} if there is none
      */
     public V get(K1 key1, K2 key2) {
-        return map.get(key1).get(key2);
+        ConcurrentMap<K2, V> inner = this.map.get(key1);
+        return inner == null ? null : inner.get(key2);
+    }
+
+    /**
+     * Removes the value identified by the given keys
+     * @param key1 First Key
+     * @param key2 Second Key
+     * @return The value that was associated with the two keys, {@code null} if there was none
+     */
+    public V remove(K1 key1, K2 key2) {
+        ConcurrentMap<K2, V> inner = this.map.get(key1);
+        return inner == null ? null : inner.remove(key2);
+    }
+
+    /**
+     * Removes the value identified by the given keys, but only if it is currently mapped to the given value
+     * @see ConcurrentMap#remove(Object, Object)
+     * @param key1 First Key
+     * @param key2 Second Key
+     * @param value The value expected to be associated with the two keys
+     * @return Whether the value got removed
+     */
+    public boolean remove(K1 key1, K2 key2, V value) {
+        ConcurrentMap<K2, V> inner = this.map.get(key1);
+        return inner != null && inner.remove(key2, value);
     }
 
     /**
@@ -54,44 +124,173 @@ public class DoubleKeyMap<K1, K2, V> {
      * @return whether there is a value associated with the given keys
      */
     public boolean containsKey(K1 key1, K2 key2) {
-        if(map.get(key1) == null) return false;
-        if(map.get(key1).get(key2) == null) return false;
+        ConcurrentMap<K2, V> inner = this.map.get(key1);
+        return inner != null && inner.containsKey(key2);
+    }
+
+    /**
+     * Checks whether there is no value in the Map
+     * @return Whether the Map is empty
+     */
+    public boolean isEmpty() {
+        for (ConcurrentMap<K2, V> inner : this.map.values()) {
+            if (!inner.isEmpty()) return false;
+        }
         return true;
     }
 
     /**
-     * Creates and return a Set of Entries as given in the Double Key Map
+     * Returns a weakly consistent view of the Entries of the Double Key Map. Removing an Entry from the view or
+     * via its Iterator removes it from the Map. The Entries are created while iterating, prefer {@link #forEach(TriConsumer)}
+     * or {@link #values()} when the keys or the Entry objects aren't needed.
      * @return Set of Entries
      */
     public Set<Entry<K1, K2, V>> entrySet() {
-        Set<Entry<K1, K2, V>> set = new HashSet<>();
-        for(Map.Entry<K1, Map<K2, V>> entries: map.entrySet()) {
-            for (Map.Entry<K2, V> entry: entries.getValue().entrySet()) {
-                set.add(new Entry<>(entries.getKey(), entry.getKey(), entry.getValue()));
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K1, K2, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return DoubleKeyMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Returns a weakly consistent view of the values of the Double Key Map. Removing a value via the Iterator removes it from the Map.
+     * @return Collection of values
+     */
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueIterator();
+            }
+
+            @Override
+            public int size() {
+                return DoubleKeyMap.this.size();
             }
+        };
+    }
+
+    /**
+     * Gets the number of values in the Map. The result is only an estimate while the Map is modified concurrently.
+     * @return The number of values
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentMap<K2, V> inner : this.map.values()) {
+            size += inner.size();
         }
-        return set;
+        return size;
     }
 
     /**
-     * Performs a given Action for each Element of the Map as specified in {@link Collection#forEach(Consumer)}
+     * Performs a given Action for each Element of the Map as specified in {@link Collection#forEach(Consumer)}.
+     * No Entry objects are created, and the iteration is weakly consistent.
      * @param action The action that should be performed
      */
     public void forEach(TriConsumer<? super K1, ? super K2, ? super V> action) {
         Objects.requireNonNull(action);
-        for (Entry<K1, K2, V> entry : entrySet()) {
-            K1 k1;
-            K2 k2;
-            V v;
-            try {
-                k1 = entry.getKey1();
-                k2 = entry.getKey2();
-                v = entry.getValue();
-            } catch (IllegalStateException ise) {
-                // this usually means the entry is no longer in the map.
-                throw new ConcurrentModificationException(ise);
+        for (Map.Entry<K1, ConcurrentMap<K2, V>> outer : this.map.entrySet()) {
+            K1 key1 = outer.getKey();
+            for (Map.Entry<K2, V> inner : outer.getValue().entrySet()) {
+                action.accept(key1, inner.getKey(), inner.getValue());
+            }
+        }
+    }
+
+    /**
+     * Removes all Elements of the Map which satisfy the given predicate. Each Element is removed atomically,
+     * but only if it is still mapped to the value the predicate was evaluated for.
+     * @param filter The predicate which returns {@code true} for Elements to be removed
+     * @return Whether any Element was removed
+     */
+    public boolean removeIf(TriPredicate<? super K1, ? super K2, ? super V> filter) {
+        Objects.requireNonNull(filter);
+        boolean removed = false;
+        for (Map.Entry<K1, ConcurrentMap<K2, V>> outer : this.map.entrySet()) {
+            K1 key1 = outer.getKey();
+            ConcurrentMap<K2, V> innerMap = outer.getValue();
+            for (Map.Entry<K2, V> inner : innerMap.entrySet()) {
+                if (filter.test(key1, inner.getKey(), inner.getValue())) {
+                    removed |= innerMap.remove(inner.getKey(), inner.getValue());
+                }
+            }
+        }
+        return removed;
+    }
+
+    private ConcurrentMap<K2, V> inner(K1 key1) {
+        ConcurrentMap<K2, V> inner = this.map.get(key1);
+        return inner != null ? inner : this.map.computeIfAbsent(key1, k -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Predicate over the two Keys and the value of an Element
+     * @param <K1> Type of the First Key
+     * @param <K2> Type of the Second Key
+     * @param <V> Type of the Value
+     */
+    @FunctionalInterface
+    public interface TriPredicate<K1, K2, V> {
+        boolean test(K1 key1, K2 key2, V value);
+    }
+
+    /**
+     * Base for the weakly consistent Iterators, which walk the nested Maps lazily
+     */
+    private abstract class NestedIterator<T> implements Iterator<T> {
+        private final Iterator<Map.Entry<K1, ConcurrentMap<K2, V>>> outer = map.entrySet().iterator();
+        private K1 currentKey1;
+        private Iterator<Map.Entry<K2, V>> inner = Collections.emptyIterator();
+        private Map.Entry<K2, V> last;
+
+        @Override
+        public boolean hasNext() {
+            while (!this.inner.hasNext()) {
+                if (!this.outer.hasNext()) return false;
+                Map.Entry<K1, ConcurrentMap<K2, V>> next = this.outer.next();
+                this.currentKey1 = next.getKey();
+                this.inner = next.getValue().entrySet().iterator();
             }
-            action.accept(k1, k2, v);
+            return true;
+        }
+
+        Map.Entry<K2, V> nextEntry() {
+            if (!hasNext()) throw new NoSuchElementException();
+            this.last = this.inner.next();
+            return this.last;
+        }
+
+        K1 currentKey1() {
+            return this.currentKey1;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) throw new IllegalStateException();
+            this.inner.remove();
+            this.last = null;
+        }
+    }
+
+    private class EntryIterator extends NestedIterator<Entry<K1, K2, V>> {
+        @Override
+        public Entry<K1, K2, V> next() {
+            Map.Entry<K2, V> entry = nextEntry();
+            return new Entry<>(currentKey1(), entry.getKey(), entry.getValue());
+        }
+    }
+
+    private class ValueIterator extends NestedIterator<V> {
+        @Override
+        public V next() {
+            return nextEntry().getValue();
         }
     }
 
@@ -136,4 +335,4 @@ public class DoubleKeyMap<K1, K2, V> {
             return value;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package net.petersil98.core.http.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interface for the time source of a {@link RateLimiter}. Windows of Rate Limits are measured with the monotonic
+ * {@link #nanoTime()}, such that adjustments of the wall clock (e.g. NTP steps) don't shift them. The wall clock is
+ * only used to convert timestamps of persisted state, which needs to survive restarts.
+ */
+public interface IClock {
+
+    /**
+     * Gets the current value of the monotonic time source. Like {@link System#nanoTime()}, only differences between values are meaningful
+     * @return The current time in nanoseconds
+     */
+    long nanoTime();
+
+    /**
+     * Gets the current wall clock time
+     * @return The current time in milliseconds since the epoch
+     */
+    long currentTimeMillis();
+
+    /**
+     * Gets how far {@link #nanoTime()} may lag behind the actual time. Rate Limits extend the lifespan of their Permits
+     * by this amount, such that a lagging clock can't end a window early.
+     * @return The resolution in nanoseconds, 0 for a precise clock
+     */
+    default long getResolution() {
+        return 0;
+    }
+
+    /**
+     * Utility Method to convert a value of {@link #nanoTime()} to wall clock time
+     * @param nanoTime The value of {@link #nanoTime()}
+     * @return The time in milliseconds since the epoch
+     */
+    default long toEpochMillis(long nanoTime) {
+        return currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(nanoTime() - nanoTime);
+    }
+
+    /**
+     * Utility Method to convert a wall clock time to a value of {@link #nanoTime()}
+     * @param epochMillis The time in milliseconds since the epoch
+     * @return The value of {@link #nanoTime()}
+     */
+    default long toNanoTime(long epochMillis) {
+        return nanoTime() - TimeUnit.MILLISECONDS.toNanos(currentTimeMillis() - epochMillis);
+    }
+
+    /**
+     * Gets the default clock, which reads {@link System#nanoTime()} and {@link System#currentTimeMillis()} directly
+     * @return The system clock
+     */
+    static IClock system() {
+        return SystemClock.INSTANCE;
+    }
+}
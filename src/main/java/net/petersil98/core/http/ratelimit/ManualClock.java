@@ -0,0 +1,48 @@
+package net.petersil98.core.http.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that only advances when told to, such that the windows of Rate Limits can be fast-forwarded deterministically,
+ * e.g. in tests. The wall clock advances together with the monotonic time.
+ */
+public class ManualClock implements IClock {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final long epochMillisAtStart;
+
+    /**
+     * Constructor. The clock starts at the current wall clock time
+     */
+    public ManualClock() {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * Constructor
+     * @param epochMillis The wall clock time the clock starts at, in milliseconds since the epoch
+     */
+    public ManualClock(long epochMillis) {
+        this.epochMillisAtStart = epochMillis;
+    }
+
+    @Override
+    public long nanoTime() {
+        return this.nanoTime.get();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return this.epochMillisAtStart + this.nanoTime.get() / 1_000_000;
+    }
+
+    /**
+     * Advances the clock
+     * @param duration The time to advance by, must not be negative
+     */
+    public void advance(Duration duration) {
+        if (duration.isNegative()) throw new IllegalArgumentException("A clock can't go backwards");
+        this.nanoTime.addAndGet(duration.toNanos());
+    }
+}
@@ -1,25 +1,52 @@
 package net.petersil98.core.http.ratelimit;
 
+import net.petersil98.core.Core;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class represents a Rate Limit for either the API Key or a Method of an Endpoint. Both are counted separately in each Region
  */
 class RateLimit {
+
+    private static final Marker MARKER = MarkerManager.getMarker(RateLimit.class.getSimpleName());
+
     private final int rateLimit;
     private final int rateLimitIntervalInSeconds;
     private final List<IPermit> permits;
+    private final boolean provisional;
+    private final IClock clock;
+    private final long lifespanInNanos;
 
     /**
      * Constructor
      * @param rateLimit The maximum Amount of request allowed in a given interval
      * @param rateLimitInterval The interval
+     * @param clock The clock the lifespan of Permits is measured with
      */
-    public RateLimit(int rateLimit, int rateLimitInterval) {
+    public RateLimit(int rateLimit, int rateLimitInterval, IClock clock) {
+        this(rateLimit, rateLimitInterval, false, clock);
+    }
+
+    /**
+     * Constructor
+     * @param rateLimit The maximum Amount of request allowed in a given interval
+     * @param rateLimitInterval The interval
+     * @param provisional Whether this Rate Limit is a configured default, that should be replaced once the actual
+     *                    Rate Limit is known from the response headers
+     * @param clock The clock the lifespan of Permits is measured with
+     */
+    public RateLimit(int rateLimit, int rateLimitInterval, boolean provisional, IClock clock) {
         this.rateLimit = rateLimit;
         this.rateLimitIntervalInSeconds = rateLimitInterval;
         this.permits = new ArrayList<>(rateLimit);
+        this.provisional = provisional;
+        this.clock = clock;
+        this.lifespanInNanos = TimeUnit.SECONDS.toNanos(rateLimitInterval) + clock.getResolution();
     }
 
     /**
@@ -31,14 +58,90 @@ class RateLimit {
             try {
                 Thread.sleep(500);
             } catch (InterruptedException e) {
-                e.printStackTrace();
+                Core.LOGGER.debug(MARKER, "Interrupted while waiting for a Permit");
             }
         }
         Permit p = new Permit(this);
-        permits.add(p);
+        synchronized (this.permits) {
+            permits.add(p);
+        }
         return p;
     }
 
+    /**
+     * Adds an already used Permit, which was closed at the given time. This is used to restore the state of this
+     * Rate Limit or to seed it with requests already counted by the API, such that they count against the limit
+     * until their lifespan is over.
+     * @param closedTimestamp The {@link IClock#nanoTime()} at which the Permit has been closed
+     */
+    void restorePermit(long closedTimestamp) {
+        Permit p = new Permit(this);
+        p.closedTimestamp = closedTimestamp;
+        p.closed = true;
+        synchronized (this.permits) {
+            permits.add(p);
+        }
+    }
+
+    /**
+     * Collects the timestamps of all Permits that still count against this Rate Limit.
+     * Permits that are given out but not yet closed are treated as if they were closed right now.
+     * @return The {@link IClock#nanoTime()} timestamps of all Permits still counting against this Rate Limit
+     */
+    long[] getActivePermitTimestamps() {
+        List<IPermit> copy;
+        synchronized (this.permits) {
+            copy = List.copyOf(this.permits);
+        }
+        long now = this.clock.nanoTime();
+        return copy.stream()
+                .map(Permit.class::cast)
+                .filter(permit -> !permit.canceled)
+                .mapToLong(permit -> permit.closed ? permit.closedTimestamp : now)
+                .filter(timestamp -> timestamp + this.lifespanInNanos - now > 0)
+                .toArray();
+    }
+
+    /**
+     * Removes all Permits whose lifespan is over, such that new Permits can be given out. This Method is Thread-safe
+     * @return The number of removed Permits
+     */
+    int releaseInvalidPermits() {
+        long now = this.clock.nanoTime();
+        synchronized (this.permits) {
+            int before = this.permits.size();
+            this.permits.removeIf(permit -> ((Permit) permit).isInvalid(now));
+            return before - this.permits.size();
+        }
+    }
+
+    /**
+     * Gets the time until the next used Permit reaches the end of its lifespan. This Method is Thread-safe
+     * @return The time in milliseconds, {@link Long#MAX_VALUE} if no used Permit is tracked
+     */
+    long getTimeUntilNextRelease() {
+        long now = this.clock.nanoTime();
+        synchronized (this.permits) {
+            long min = Long.MAX_VALUE;
+            for (IPermit permit : this.permits) {
+                min = Math.min(min, ((Permit) permit).getRemainingLifespan(now));
+            }
+            return min == Long.MAX_VALUE ? min : TimeUnit.NANOSECONDS.toMillis(min);
+        }
+    }
+
+    public boolean isProvisional() {
+        return provisional;
+    }
+
+    public int getRateLimit() {
+        return rateLimit;
+    }
+
+    public int getRateLimitIntervalInSeconds() {
+        return rateLimitIntervalInSeconds;
+    }
+
     /**
      * Checks, whether a Permit is available. This Method is Thread-safe
      * @return Whether a Permit is available
@@ -49,6 +152,18 @@ class RateLimit {
         }
     }
 
+    /**
+     * Checks, whether a Permit is available while keeping a share of this Rate Limit free. This Method is Thread-safe
+     * @param reserve The share of this Rate Limit that has to stay free, between 0 and 1
+     * @return Whether a Permit is available without using the reserve
+     */
+    public boolean isPermitAvailable(double reserve) {
+        int usable = this.rateLimit - (int) Math.ceil(this.rateLimit * reserve);
+        synchronized (this.permits) {
+            return this.permits.size() < usable;
+        }
+    }
+
     public List<IPermit> getPermits() {
         return permits;
     }
@@ -59,9 +174,12 @@ class RateLimit {
     public static class Permit implements IPermit {
 
         private final RateLimit rateLimit;
-        private boolean canceled = false;
-        private boolean closed = false;
-        private long closedTimestamp = -1;
+        private volatile boolean canceled = false;
+        private volatile boolean closed = false;
+        /**
+         * Written before {@link #closed}, such that Threads seeing a closed Permit also see when it was closed
+         */
+        private volatile long closedTimestamp = -1;
 
         /**
          * Constructor
@@ -76,7 +194,9 @@ class RateLimit {
          */
         @Override
         public void remove() {
-            this.rateLimit.permits.remove(this);
+            synchronized (this.rateLimit.permits) {
+                this.rateLimit.permits.remove(this);
+            }
         }
 
         /**
@@ -84,8 +204,8 @@ class RateLimit {
          */
         @Override
         public void close() {
+            this.closedTimestamp = this.rateLimit.clock.nanoTime();
             this.closed = true;
-            this.closedTimestamp = System.currentTimeMillis();
         }
 
         /**
@@ -94,11 +214,24 @@ class RateLimit {
          */
         @Override
         public boolean isInvalid() {
-            return this.canceled || (this.closed && getRemainingLifespan() < 0);
+            return isInvalid(this.rateLimit.clock.nanoTime());
+        }
+
+        private boolean isInvalid(long now) {
+            return this.canceled || (this.closed && getRemainingLifespan(now) < 0);
         }
 
+        /**
+         * Gets the time until the lifespan of this Permit is over
+         * @return The time in milliseconds, {@link Long#MAX_VALUE} if this Permit hasn't been closed yet
+         */
         public long getRemainingLifespan() {
-            return closed ? closedTimestamp + rateLimit.rateLimitIntervalInSeconds * 1000L - System.currentTimeMillis() : Long.MAX_VALUE;
+            long remaining = getRemainingLifespan(this.rateLimit.clock.nanoTime());
+            return remaining == Long.MAX_VALUE ? remaining : TimeUnit.NANOSECONDS.toMillis(remaining);
+        }
+
+        private long getRemainingLifespan(long now) {
+            return this.closed ? this.closedTimestamp + this.rateLimit.lifespanInNanos - now : Long.MAX_VALUE;
         }
 
         /**
@@ -1,18 +1,36 @@
 package net.petersil98.core.http.ratelimit;
 
+import net.petersil98.core.Core;
 import net.petersil98.core.constant.Region;
+import net.petersil98.core.http.exceptions.DeadlineExceededException;
+import net.petersil98.core.util.settings.Settings;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.http.HttpHeaders;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Abstract class that represents a Rate Limiter
  */
 public abstract class RateLimiter {
 
+    private static final Marker MARKER = MarkerManager.getMarker(RateLimiter.class.getSimpleName());
+
     protected final Map<Region, List<RateLimit>> appRateLimits = new ConcurrentHashMap<>();
     protected final DoubleKeyMap<Region, String, List<RateLimit>> methodRateLimits = new DoubleKeyMap<>();
 
@@ -20,6 +38,32 @@ public abstract class RateLimiter {
     protected final Map<Region, ExceededRateLimit> exceededAppRateLimits = new ConcurrentHashMap<>();
     protected final DoubleKeyMap<Region, String, ExceededRateLimit> exceededMethodRateLimits = new DoubleKeyMap<>();
 
+    protected final IClock clock;
+
+    private volatile RateLimiterState restoredState;
+    private ScheduledExecutorService stateSaver;
+    private Thread stateSaveHook;
+    private volatile Path stateFile;
+
+    /**
+     * Constructor using the {@link IClock#system() system clock}
+     */
+    protected RateLimiter() {
+        this(IClock.system());
+    }
+
+    /**
+     * Constructor
+     * @param clock The clock the windows of the Rate Limits are measured with
+     */
+    protected RateLimiter(IClock clock) {
+        this.clock = clock;
+    }
+
+    public IClock getClock() {
+        return this.clock;
+    }
+
     /**
      * Method to acquire a Permit, which is needed in order to make a request. This Method is intended to be used in a <b>blocking</b> context
      * @param region The region to which the request should be made
@@ -28,34 +72,101 @@ public abstract class RateLimiter {
      */
     public abstract IPermit acquire(Region region, String endpointMethod);
 
+    /**
+     * Method to acquire a Permit, which is needed in order to make a request, giving up once the deadline passed.
+     * Implementations should prefer waiting requests with earlier deadlines and must not hand out a Permit after the deadline.
+     * The default implementation only checks the deadline before and after {@link #acquire(Region, String)} and cancels
+     * the Permit if it got it too late.
+     * @param region The region to which the request should be made
+     * @param endpointMethod The Method of a given Endpoint to which the request should be made
+     * @param deadline The {@link IClock#nanoTime()} of this Rate Limiter's clock after which the request is not needed anymore
+     * @return A Permit once the Request can be made safely
+     * @throws DeadlineExceededException If the deadline passed before a Permit could be given out
+     */
+    public IPermit acquire(Region region, String endpointMethod, long deadline) {
+        if (this.clock.nanoTime() - deadline >= 0) throw new DeadlineExceededException(region.toString(), endpointMethod);
+        IPermit permit = acquire(region, endpointMethod);
+        if (this.clock.nanoTime() - deadline >= 0) {
+            permit.cancel();
+            throw new DeadlineExceededException(region.toString(), endpointMethod);
+        }
+        return permit;
+    }
+
+    /**
+     * Method to acquire a Permit for a low priority request, e.g. a prefetch, without waiting. A Permit is only given out
+     * if no other request is waiting and every Rate Limit of the Region and Method keeps at least the given share free,
+     * such that low priority requests only use spare capacity. The default implementation never gives out a Permit.
+     * @param region The region to which the request should be made
+     * @param endpointMethod The Method of a given Endpoint to which the request should be made
+     * @param reserve The share of each Rate Limit that is kept free for other requests, between 0 and 1
+     * @return A Permit if the Request can be made right away, {@code null} otherwise
+     */
+    public IPermit tryAcquire(Region region, String endpointMethod, double reserve) {
+        return null;
+    }
+
     /**
      * Method to update the internal Rate Limits used to give out Permits. The Rate Limits are updated based on the
-     * headers <i>x-app-rate-limit</i> and <i>x-method-rate-limit</i>.
+     * headers <i>x-app-rate-limit</i> and <i>x-method-rate-limit</i>. Rate Limits that are not yet known or only
+     * provisional (see {@link Settings#setDefaultRateLimits(String, String)}) get replaced, and the requests already counted
+     * by the API according to the <i>x-app-rate-limit-count</i> and <i>x-method-rate-limit-count</i> headers are counted
+     * against the new Rate Limits.
      * @param region The region to which the request has been made
      * @param endpointMethod The Method of a given Endpoint to which the request has been made
      * @param headers The Headers containing the fields <i>x-app-rate-limit</i> and <i>x-method-rate-limit</i>.
      */
     public void updateRateLimitsFromHeaders(Region region, String endpointMethod, HttpHeaders headers) {
-        if (!this.appRateLimits.containsKey(region)) {
-            this.appRateLimits.put(region, parseRateLimits("x-app-rate-limit", headers));
-            this.appRateLimits.get(region).forEach(rateLimit -> {
-                try {
-                    rateLimit.acquire().close();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            });
+        restoreState(region);
+        boolean changed = false;
+        List<RateLimit> currentAppLimits = this.appRateLimits.get(region);
+        if (isUnknownOrProvisional(currentAppLimits)) {
+            List<RateLimit> parsed = parseRateLimits("x-app-rate-limit", headers);
+            if (parsed != null) {
+                changed = currentAppLimits == null
+                        ? this.appRateLimits.putIfAbsent(region, parsed) == null
+                        : this.appRateLimits.replace(region, currentAppLimits, parsed);
+            }
         }
-        if (!this.methodRateLimits.containsKey(region, endpointMethod)) {
-            this.methodRateLimits.put(region, endpointMethod, parseRateLimits("x-method-rate-limit", headers));
-            this.methodRateLimits.get(region, endpointMethod).forEach(rateLimit -> {
-                try {
-                    rateLimit.acquire().close();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            });
+        List<RateLimit> currentMethodLimits = this.methodRateLimits.get(region, endpointMethod);
+        if (isUnknownOrProvisional(currentMethodLimits)) {
+            List<RateLimit> parsed = parseRateLimits("x-method-rate-limit", headers);
+            if (parsed != null) {
+                changed |= currentMethodLimits == null
+                        ? this.methodRateLimits.putIfAbsent(region, endpointMethod, parsed) == null
+                        : this.methodRateLimits.replace(region, endpointMethod, currentMethodLimits, parsed);
+            }
         }
+        if (changed) onRateLimitsChanged(region, endpointMethod);
+    }
+
+    /**
+     * Installs the default Rate Limits configured in {@link Settings#setDefaultRateLimits(String, String)} as provisional
+     * Rate Limits for the given Region and Method, if their actual Rate Limits are not known yet.
+     * @param region The region to which the request should be made
+     * @param endpointMethod The Method of a given Endpoint to which the request should be made
+     */
+    protected void installDefaultRateLimits(Region region, String endpointMethod) {
+        String defaultAppRateLimits = Settings.getDefaultAppRateLimits();
+        if (defaultAppRateLimits != null && !this.appRateLimits.containsKey(region)) {
+            this.appRateLimits.putIfAbsent(region, parseProvisionalRateLimits(defaultAppRateLimits));
+        }
+        String defaultMethodRateLimits = Settings.getDefaultMethodRateLimits();
+        if (defaultMethodRateLimits != null && !this.methodRateLimits.containsKey(region, endpointMethod)) {
+            this.methodRateLimits.putIfAbsent(region, endpointMethod, parseProvisionalRateLimits(defaultMethodRateLimits));
+        }
+    }
+
+    /**
+     * Gets called after the Rate Limits of the given Region or Method have been set or replaced, such that
+     * implementations can wake up requests waiting for them.
+     * @param region The region whose Rate Limits changed
+     * @param endpointMethod The Method whose Rate Limits changed
+     */
+    protected void onRateLimitsChanged(Region region, String endpointMethod) {}
+
+    private static boolean isUnknownOrProvisional(List<RateLimit> rateLimits) {
+        return rateLimits == null || rateLimits.stream().anyMatch(RateLimit::isProvisional);
     }
 
     /**
@@ -67,35 +178,165 @@ public abstract class RateLimiter {
     public void handleRateLimitExceeded(Region region, String endpointMethod, HttpHeaders headers) {
         headers.firstValue("x-rate-limit-type").ifPresent(rateLimitType -> {
             if(rateLimitType.equals("application")) {
-                exceededAppRateLimits.put(region, new ExceededRateLimit(System.currentTimeMillis(), headers.firstValueAsLong("retry-after").orElse(-1)));
+                exceededAppRateLimits.put(region, new ExceededRateLimit(this.clock, this.clock.nanoTime(), headers.firstValueAsLong("retry-after").orElse(-1)));
             } else if(rateLimitType.equals("method")) {
-                exceededMethodRateLimits.put(region, endpointMethod, new ExceededRateLimit(System.currentTimeMillis(), headers.firstValueAsLong("retry-after").orElse(-1)));
+                exceededMethodRateLimits.put(region, endpointMethod, new ExceededRateLimit(this.clock, this.clock.nanoTime(), headers.firstValueAsLong("retry-after").orElse(-1)));
             }
         });
     }
 
     /**
-     * Utility method to parse the Rate Limits as provided in the {@link HttpHeaders} into a List of Rate Limits
+     * Writes the current window state, meaning the Rate Limits, the timestamps of the Permits still counting against them
+     * and the exceeded Rate Limits per Region and Method, to the given file. The file is replaced atomically.
+     * @param file The file the state should be written to
+     * @throws IOException If the file can't be written
+     */
+    public void saveState(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            RateLimiterState.capture(this).write(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a state previously written by {@link #saveState(Path)}. The state of a Region gets applied when the Region is
+     * used for the first time, Permits whose lifespan has already ended in the meantime are dropped.
+     * Rate Limits this Rate Limiter already learned from response headers take precedence over the loaded ones.
+     * @param file The file the state should be read from
+     * @throws IOException If the file can't be read or is not a valid state file
+     */
+    public void loadState(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            this.restoredState = RateLimiterState.read(in);
+        }
+    }
+
+    /**
+     * Persists the window state of this Rate Limiter across restarts. If the file exists, the state is loaded from it.
+     * Afterward, the state gets saved to the file periodically and once more when the JVM shuts down.
+     * Calling this method again replaces the previous file and interval.
+     * @see #loadState(Path)
+     * @see #saveState(Path)
+     * @param file The file the state should be stored in
+     * @param interval The interval in which the state should be saved
+     */
+    public synchronized void persistState(Path file, Duration interval) {
+        if (Files.exists(file)) {
+            try {
+                loadState(file);
+            } catch (IOException e) {
+                Core.LOGGER.warn(MARKER, "Failed to load rate limiter state from {}", file, e);
+            }
+        }
+        this.stateFile = file;
+        if (this.stateSaveHook == null) {
+            this.stateSaveHook = new Thread(() -> saveStateSafely(this.stateFile));
+            Runtime.getRuntime().addShutdownHook(this.stateSaveHook);
+        }
+        if (this.stateSaver != null) this.stateSaver.shutdownNow();
+        this.stateSaver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RateLimiterStateSaver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.stateSaver.scheduleAtFixedRate(() -> saveStateSafely(file), interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the Threads of this Rate Limiter. If the state is {@link #persistState(Path, Duration) persisted}, it's saved
+     * once more and the shutdown hook saving it is removed. The Rate Limiter must not be used afterward.
+     */
+    public synchronized void shutdown() {
+        if (this.stateSaver != null) this.stateSaver.shutdownNow();
+        this.stateSaver = null;
+        if (this.stateSaveHook == null) return;
+        try {
+            Runtime.getRuntime().removeShutdownHook(this.stateSaveHook);
+        } catch (IllegalStateException e) {
+            // The JVM is shutting down already, the hook saves the state
+            return;
+        } finally {
+            this.stateSaveHook = null;
+        }
+        saveStateSafely(this.stateFile);
+    }
+
+    private void saveStateSafely(Path file) {
+        try {
+            saveState(file);
+        } catch (IOException e) {
+            Core.LOGGER.error(MARKER, "Failed to save rate limiter state to {}", file, e);
+        }
+    }
+
+    /**
+     * Applies the loaded state of the given Region, if there is any left. Implementations need to call this before
+     * they look up the Rate Limits of a Region.
+     * @param region The Region which is about to be used
+     */
+    protected void restoreState(Region region) {
+        RateLimiterState state = this.restoredState;
+        if (state == null) return;
+        state.applyTo(this, region);
+        if (state.isEmpty()) this.restoredState = null;
+    }
+
+    /**
+     * Utility method to parse the Rate Limits as provided in the {@link HttpHeaders} into a List of Rate Limits.
+     * The requests counted in the corresponding <i>-count</i> header are counted against the parsed Rate Limits.
+     * If that header is missing, the request the headers belong to is counted.
      * @param headerName The name of the header which contains the Rate Limit information
      * @param headers The HTTP headers
      * @return List of Rate Limits if the parsing was successful, {@code null} otherwise
      */
     private List<RateLimit> parseRateLimits(String headerName, HttpHeaders headers) {
+        Map<Integer, Integer> counts = headers.firstValue(headerName + "-count").map(header ->
+                Arrays.stream(header.split(",")).map(count -> count.split(":"))
+                        .collect(Collectors.toMap(split -> Integer.parseInt(split[1].trim()), split -> Integer.parseInt(split[0].trim()), Math::max)))
+                .orElse(Map.of());
+        long now = this.clock.nanoTime();
         return headers.firstValue(headerName).map(header ->
                 Arrays.stream(header.split(",")).map(limit -> {
                     String[] split = limit.split(":");
-                    return new RateLimit(Integer.parseInt(split[0]), Integer.parseInt(split[1]));
+                    RateLimit rateLimit = new RateLimit(Integer.parseInt(split[0].trim()), Integer.parseInt(split[1].trim()), this.clock);
+                    int count = Math.min(counts.getOrDefault(rateLimit.getRateLimitIntervalInSeconds(), 1), rateLimit.getRateLimit());
+                    for (int i = 0; i < count; i++) {
+                        rateLimit.restorePermit(now);
+                    }
+                    return rateLimit;
                 }).toList()).orElse(null);
     }
 
+    /**
+     * Utility method to parse the configured default Rate Limits into a List of provisional Rate Limits
+     * @param rateLimits The Rate Limits in the format of the <i>x-app-rate-limit</i> header
+     * @return List of provisional Rate Limits
+     */
+    private List<RateLimit> parseProvisionalRateLimits(String rateLimits) {
+        return Arrays.stream(rateLimits.split(",")).map(limit -> {
+            String[] split = limit.split(":");
+            return new RateLimit(Integer.parseInt(split[0]), Integer.parseInt(split[1]), true, this.clock);
+        }).toList();
+    }
+
     /**
      * Class that represents an exceeded Rate Limit
      */
     protected static class ExceededRateLimit {
+        private final IClock clock;
         private final long timestamp;
         private final long retryAfter;
 
-        public ExceededRateLimit(long timestamp, long retryAfter) {
+        /**
+         * Constructor
+         * @param clock The clock the remaining time is measured with
+         * @param timestamp The {@link IClock#nanoTime()} at which the Rate Limit was exceeded
+         * @param retryAfter The time in seconds until requests may be made again
+         */
+        public ExceededRateLimit(IClock clock, long timestamp, long retryAfter) {
+            this.clock = clock;
             this.timestamp = timestamp;
             this.retryAfter = retryAfter;
         }
@@ -108,12 +349,20 @@ public abstract class RateLimiter {
             return retryAfter;
         }
 
+        /**
+         * Gets the time until requests may be made again
+         * @return The time in milliseconds
+         */
         public long getRemainingTime() {
-            return timestamp + retryAfter * 1000 - System.currentTimeMillis();
+            return TimeUnit.NANOSECONDS.toMillis(getRemainingNanos());
         }
 
         public boolean isStillExceeded() {
-            return getRemainingTime() > 0;
+            return getRemainingNanos() > 0;
+        }
+
+        private long getRemainingNanos() {
+            return this.timestamp + TimeUnit.SECONDS.toNanos(this.retryAfter) + this.clock.getResolution() - this.clock.nanoTime();
         }
     }
 }
@@ -0,0 +1,246 @@
+package net.petersil98.core.http.ratelimit;
+
+import net.petersil98.core.constant.Region;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot of the window state of a {@link RateLimiter}, meaning the Rate Limits, the timestamps of the Permits still
+ * counting against them and the exceeded Rate Limits per Region and Method.
+ * <br>
+ * The snapshot is stored in a compact binary format. Since {@link Region Regions} are compared by identity and may be
+ * defined in dependent modules, the state is keyed by the name of the Region and only gets applied to the Rate Limiter
+ * once a Region with that name is used for the first time.
+ */
+class RateLimiterState {
+
+    private static final int MAGIC = 0x524C5354;
+    private static final short VERSION = 2;
+    private static final short VERSION_WITHOUT_PROVISIONAL = 1;
+
+    private final Map<String, RegionState> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Captures the current state of the given Rate Limiter. The timestamps are converted to wall clock time, since
+     * the monotonic time of the {@link IClock} is meaningless after a restart.
+     * @param rateLimiter The Rate Limiter
+     * @return The captured state
+     */
+    static RateLimiterState capture(RateLimiter rateLimiter) {
+        RateLimiterState state = new RateLimiterState();
+        IClock clock = rateLimiter.clock;
+        rateLimiter.appRateLimits.forEach((region, rateLimits) ->
+                state.region(region).appLimits = LimitState.capture(rateLimits, clock));
+        rateLimiter.exceededAppRateLimits.forEach((region, exceeded) -> {
+            if (exceeded.isStillExceeded()) state.region(region).appExceeded = ExceededState.capture(exceeded, clock);
+        });
+        rateLimiter.methodRateLimits.forEach((region, method, rateLimits) ->
+                state.region(region).method(method).limits = LimitState.capture(rateLimits, clock));
+        rateLimiter.exceededMethodRateLimits.forEach((region, method, exceeded) -> {
+            if (exceeded.isStillExceeded()) state.region(region).method(method).exceeded = ExceededState.capture(exceeded, clock);
+        });
+        return state;
+    }
+
+    /**
+     * Reads a state previously written by {@link #write(OutputStream)}
+     * @param in The stream to read from
+     * @return The state
+     * @throws IOException If the stream can't be read or is not in the expected format
+     */
+    static RateLimiterState read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) throw new IOException("Not a rate limiter state file");
+        short version = data.readShort();
+        if (version != VERSION && version != VERSION_WITHOUT_PROVISIONAL) throw new IOException("Unsupported rate limiter state version " + version);
+        RateLimiterState state = new RateLimiterState();
+        int regionCount = data.readInt();
+        for (int i = 0; i < regionCount; i++) {
+            RegionState region = new RegionState();
+            state.regions.put(data.readUTF(), region);
+            region.appLimits = LimitState.read(data, version);
+            region.appExceeded = readExceeded(data);
+            int methodCount = data.readInt();
+            for (int j = 0; j < methodCount; j++) {
+                MethodState method = new MethodState();
+                region.methods.put(data.readUTF(), method);
+                method.limits = LimitState.read(data, version);
+                method.exceeded = readExceeded(data);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Writes this state in its binary format
+     * @param out The stream to write to
+     * @throws IOException If the stream can't be written
+     */
+    void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(this.regions.size());
+        for (Map.Entry<String, RegionState> region : this.regions.entrySet()) {
+            data.writeUTF(region.getKey());
+            LimitState.write(data, region.getValue().appLimits);
+            writeExceeded(data, region.getValue().appExceeded);
+            data.writeInt(region.getValue().methods.size());
+            for (Map.Entry<String, MethodState> method : region.getValue().methods.entrySet()) {
+                data.writeUTF(method.getKey());
+                LimitState.write(data, method.getValue().limits);
+                writeExceeded(data, method.getValue().exceeded);
+            }
+        }
+        data.flush();
+    }
+
+    boolean isEmpty() {
+        return this.regions.isEmpty();
+    }
+
+    /**
+     * Applies the stored state of the given Region to the Rate Limiter, if there is any. Rate Limits the Rate Limiter
+     * already knows take precedence over the stored ones. The state of a Region is applied at most once.
+     * @param rateLimiter The Rate Limiter to restore
+     * @param region The Region which is about to be used
+     */
+    void applyTo(RateLimiter rateLimiter, Region region) {
+        RegionState state = this.regions.remove(region.toString());
+        if (state == null) return;
+        IClock clock = rateLimiter.clock;
+        if (state.appLimits != null) rateLimiter.appRateLimits.putIfAbsent(region, LimitState.restore(state.appLimits, clock));
+        RateLimiter.ExceededRateLimit appExceeded = ExceededState.restore(state.appExceeded, clock);
+        if (appExceeded != null && appExceeded.isStillExceeded()) {
+            rateLimiter.exceededAppRateLimits.putIfAbsent(region, appExceeded);
+        }
+        state.methods.forEach((method, methodState) -> {
+            if (methodState.limits != null) {
+                rateLimiter.methodRateLimits.putIfAbsent(region, method, LimitState.restore(methodState.limits, clock));
+            }
+            RateLimiter.ExceededRateLimit methodExceeded = ExceededState.restore(methodState.exceeded, clock);
+            if (methodExceeded != null && methodExceeded.isStillExceeded()) {
+                rateLimiter.exceededMethodRateLimits.putIfAbsent(region, method, methodExceeded);
+            }
+        });
+    }
+
+    private RegionState region(Region region) {
+        return this.regions.computeIfAbsent(region.toString(), name -> new RegionState());
+    }
+
+    private static ExceededState readExceeded(DataInputStream data) throws IOException {
+        if (!data.readBoolean()) return null;
+        return new ExceededState(data.readLong(), data.readLong());
+    }
+
+    private static void writeExceeded(DataOutputStream data, ExceededState exceeded) throws IOException {
+        data.writeBoolean(exceeded != null);
+        if (exceeded != null) {
+            data.writeLong(exceeded.timestamp);
+            data.writeLong(exceeded.retryAfter);
+        }
+    }
+
+    private static class RegionState {
+        private List<LimitState> appLimits;
+        private ExceededState appExceeded;
+        private final Map<String, MethodState> methods = new HashMap<>();
+
+        private MethodState method(String method) {
+            return this.methods.computeIfAbsent(method, m -> new MethodState());
+        }
+    }
+
+    private static class MethodState {
+        private List<LimitState> limits;
+        private ExceededState exceeded;
+    }
+
+    /**
+     * State of a {@link RateLimiter.ExceededRateLimit}
+     * @param timestamp The time in milliseconds since the epoch at which the Rate Limit was exceeded
+     * @param retryAfter The time in seconds until requests may be made again
+     */
+    private record ExceededState(long timestamp, long retryAfter) {
+
+        private static ExceededState capture(RateLimiter.ExceededRateLimit exceeded, IClock clock) {
+            return new ExceededState(clock.toEpochMillis(exceeded.getTimestamp()), exceeded.getRetryAfter());
+        }
+
+        private static RateLimiter.ExceededRateLimit restore(ExceededState state, IClock clock) {
+            if (state == null) return null;
+            return new RateLimiter.ExceededRateLimit(clock, clock.toNanoTime(state.timestamp), state.retryAfter);
+        }
+    }
+
+    /**
+     * State of a single {@link RateLimit}
+     * @param provisional Whether the Rate Limit is a configured default, which the limits returned by the API still have to replace
+     * @param permitTimestamps The times in milliseconds since the epoch at which the Permits were closed
+     */
+    private record LimitState(int rateLimit, int intervalInSeconds, boolean provisional, long[] permitTimestamps) {
+
+        private static List<LimitState> capture(List<RateLimit> rateLimits, IClock clock) {
+            return rateLimits.stream()
+                    .map(rateLimit -> new LimitState(rateLimit.getRateLimit(), rateLimit.getRateLimitIntervalInSeconds(), rateLimit.isProvisional(),
+                            Arrays.stream(rateLimit.getActivePermitTimestamps()).map(clock::toEpochMillis).toArray()))
+                    .toList();
+        }
+
+        private static List<RateLimit> restore(List<LimitState> states, IClock clock) {
+            long now = clock.currentTimeMillis();
+            return states.stream().map(state -> {
+                RateLimit rateLimit = new RateLimit(state.rateLimit, state.intervalInSeconds, state.provisional, clock);
+                for (long timestamp : state.permitTimestamps) {
+                    if (timestamp + state.intervalInSeconds * 1000L > now) rateLimit.restorePermit(clock.toNanoTime(timestamp));
+                }
+                return rateLimit;
+            }).toList();
+        }
+
+        /**
+         * Reads the states of a list of Rate Limits. Files of the first version don't record whether a Rate Limit is
+         * provisional, so their Rate Limits are treated as provisional and get replaced by the limits returned by the API
+         * @param data The stream to read from
+         * @param version The version of the file
+         * @return The states, {@code null} if none were written
+         * @throws IOException If the stream can't be read
+         */
+        private static List<LimitState> read(DataInputStream data, short version) throws IOException {
+            int count = data.readInt();
+            if (count < 0) return null;
+            List<LimitState> limits = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int rateLimit = data.readInt();
+                int interval = data.readInt();
+                boolean provisional = version == VERSION_WITHOUT_PROVISIONAL || data.readBoolean();
+                long[] timestamps = new long[data.readInt()];
+                for (int j = 0; j < timestamps.length; j++) {
+                    timestamps[j] = data.readLong();
+                }
+                limits.add(new LimitState(rateLimit, interval, provisional, timestamps));
+            }
+            return limits;
+        }
+
+        private static void write(DataOutputStream data, List<LimitState> limits) throws IOException {
+            if (limits == null) {
+                data.writeInt(-1);
+                return;
+            }
+            data.writeInt(limits.size());
+            for (LimitState limit : limits) {
+                data.writeInt(limit.rateLimit);
+                data.writeInt(limit.intervalInSeconds);
+                data.writeBoolean(limit.provisional);
+                data.writeInt(limit.permitTimestamps.length);
+                for (long timestamp : limit.permitTimestamps) {
+                    data.writeLong(timestamp);
+                }
+            }
+        }
+    }
+}
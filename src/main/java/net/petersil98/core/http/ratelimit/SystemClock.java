@@ -0,0 +1,21 @@
+package net.petersil98.core.http.ratelimit;
+
+/**
+ * Clock that reads {@link System#nanoTime()} and {@link System#currentTimeMillis()} directly
+ */
+final class SystemClock implements IClock {
+
+    static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {}
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
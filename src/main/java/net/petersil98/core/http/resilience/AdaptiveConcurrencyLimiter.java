@@ -0,0 +1,94 @@
+package net.petersil98.core.http.resilience;
+
+/**
+ * Limits the number of requests to one Region or Platform in flight at once, adapting the limit to the round trip latency (AIMD).
+ * <br>
+ * The lowest round trip time seen recently serves as the latency of an idle Region. While requests are not slower than
+ * {@link #LATENCY_TOLERANCE} times that latency, the limit grows by one per round trip (additive increase). Once requests
+ * get slower or fail, the Region is considered overloaded and the limit shrinks by {@link #BACKOFF_RATIO} (multiplicative
+ * decrease), at most once per round trip. This keeps the concurrency close to what the Region can serve without queueing,
+ * before the latency balloons or requests get rejected.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public static final double LATENCY_TOLERANCE = 2.0;
+    public static final double BACKOFF_RATIO = 0.9;
+    public static final int MIN_LIMIT = 1;
+
+    /**
+     * Number of samples after which the lowest round trip time is measured anew, such that the limiter adapts when the
+     * latency of the Region changes permanently
+     */
+    private static final int MIN_RTT_WINDOW = 500;
+
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    private long minRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+    private long lastDecrease;
+
+    /**
+     * Constructor
+     * @param initialLimit The limit to start with
+     * @param maxLimit The maximum limit
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int maxLimit) {
+        this.maxLimit = Math.max(MIN_LIMIT, maxLimit);
+        this.limit = Math.max(MIN_LIMIT, Math.min(this.maxLimit, initialLimit));
+        this.lastDecrease = System.nanoTime();
+    }
+
+    /**
+     * Waits until fewer requests than the current limit are in flight. Each call needs to be followed by {@link #release(long, boolean)}.
+     * Interrupts don't abort the waiting, but the interrupt flag of the Thread is restored afterward.
+     */
+    public synchronized void acquire() {
+        boolean interrupted = false;
+        while (this.inFlight >= (int) this.limit) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        this.inFlight++;
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Marks a request as finished and adapts the limit to its outcome
+     * @param rttInNanos The round trip time of the request
+     * @param failed Whether the request failed in a way that indicates overload, e.g. no response or a server error
+     */
+    public synchronized void release(long rttInNanos, boolean failed) {
+        this.inFlight--;
+        this.windowMinRtt = Math.min(this.windowMinRtt, rttInNanos);
+        if (++this.windowSamples >= MIN_RTT_WINDOW) {
+            this.minRtt = this.windowMinRtt;
+            this.windowMinRtt = Long.MAX_VALUE;
+            this.windowSamples = 0;
+        }
+        this.minRtt = Math.min(this.minRtt, rttInNanos);
+
+        long now = System.nanoTime();
+        if (failed || rttInNanos > this.minRtt * LATENCY_TOLERANCE) {
+            if (now - this.lastDecrease >= rttInNanos) {
+                this.limit = Math.max(MIN_LIMIT, this.limit * BACKOFF_RATIO);
+                this.lastDecrease = now;
+            }
+        } else if (this.inFlight + 1 >= this.limit / 2) {
+            this.limit = Math.min(this.maxLimit, this.limit + 1 / this.limit);
+        }
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) this.limit;
+    }
+
+    public synchronized int getInFlight() {
+        return this.inFlight;
+    }
+}
@@ -0,0 +1,66 @@
+package net.petersil98.core.http.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of concurrent requests to one Region or Platform, such that Threads piling up on a slow Region can't starve
+ * requests to the other Regions. Requests beyond the concurrency limit wait in a bounded queue for a limited time,
+ * requests that don't fit into the queue are rejected right away.
+ */
+public class Bulkhead {
+
+    private final Semaphore slots;
+    private final int maxQueued;
+    private final long maxWaitInNanos;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Constructor
+     * @param maxConcurrent The maximum number of concurrent requests
+     * @param maxQueued The maximum number of requests waiting for a slot
+     * @param maxWait How long a request waits for a slot at most
+     */
+    public Bulkhead(int maxConcurrent, int maxQueued, Duration maxWait) {
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.maxQueued = maxQueued;
+        this.maxWaitInNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Tries to get a slot, waiting for one if the queue isn't full. Each successful call needs to be followed by {@link #exit()}
+     * @return Whether the request got a slot
+     */
+    public boolean tryEnter() {
+        if (this.slots.tryAcquire()) return true;
+        if (this.queued.incrementAndGet() > this.maxQueued) {
+            this.queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return this.slots.tryAcquire(this.maxWaitInNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            this.queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Frees the slot of a request
+     */
+    public void exit() {
+        this.slots.release();
+    }
+
+    public int getAvailableSlots() {
+        return this.slots.availablePermits();
+    }
+
+    public int getQueued() {
+        return this.queued.get();
+    }
+}
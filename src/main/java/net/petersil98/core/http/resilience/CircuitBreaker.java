@@ -0,0 +1,149 @@
+package net.petersil98.core.http.resilience;
+
+import net.petersil98.core.Core;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Circuit Breaker for the requests to one Region or Platform, driven by the rate of failed and slow requests.
+ * <br>
+ * The outcomes of the last {@link #WINDOW_SIZE} requests are tracked. Once at least {@link #MINIMUM_CALLS} of them are known
+ * and the share of failed or slow requests reaches the threshold, the circuit <i>opens</i> and requests are rejected right away.
+ * After the open duration, the circuit becomes <i>half open</i> and lets {@link #HALF_OPEN_CALLS} trial requests through:
+ * if all of them succeed, the circuit <i>closes</i> again, otherwise it opens again.
+ */
+public class CircuitBreaker {
+
+    private static final Marker MARKER = MarkerManager.getMarker(CircuitBreaker.class.getSimpleName());
+
+    public static final int WINDOW_SIZE = 50;
+    public static final int MINIMUM_CALLS = 20;
+    public static final int HALF_OPEN_CALLS = 3;
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final long slowCallThresholdInNanos;
+    private final long openDurationInNanos;
+
+    private final boolean[] failures = new boolean[WINDOW_SIZE];
+    private int index;
+    private int calls;
+    private int failureCount;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * Constructor
+     * @param name The route of the Region or Platform, used for logging
+     * @param failureRateThreshold The share of failed or slow requests, between 0 and 1, at which the circuit opens
+     * @param slowCallThreshold The duration after which a request counts as slow
+     * @param openDuration How long the circuit stays open before trial requests are let through
+     */
+    public CircuitBreaker(String name, double failureRateThreshold, Duration slowCallThreshold, Duration openDuration) {
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdInNanos = slowCallThreshold.toNanos();
+        this.openDurationInNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Checks whether a request would currently be let through, without reserving a trial request in the <i>half open</i> state
+     * @return Whether requests are let through
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> this.halfOpenPermits > 0;
+        };
+    }
+
+    /**
+     * Tries to let a request through. Each successful call needs to be followed by {@link #onResult(boolean, long)} or {@link #release()}
+     * @return Whether the request may be sent
+     */
+    public synchronized boolean tryAcquire() {
+        return switch (state()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (this.halfOpenPermits <= 0) yield false;
+                this.halfOpenPermits--;
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * Gives back a request let through by {@link #tryAcquire()}, which wasn't sent after all
+     */
+    public synchronized void release() {
+        if (this.state == State.HALF_OPEN) this.halfOpenPermits++;
+    }
+
+    /**
+     * Records the outcome of a request let through by {@link #tryAcquire()}
+     * @param success Whether the request succeeded, meaning it got a response which doesn't indicate a server error
+     * @param durationInNanos How long the request took
+     */
+    public synchronized void onResult(boolean success, long durationInNanos) {
+        boolean failed = !success || durationInNanos >= this.slowCallThresholdInNanos;
+        switch (this.state) {
+            case CLOSED -> {
+                if (this.calls == WINDOW_SIZE && this.failures[this.index]) this.failureCount--;
+                this.failures[this.index] = failed;
+                if (failed) this.failureCount++;
+                this.index = (this.index + 1) % WINDOW_SIZE;
+                this.calls = Math.min(WINDOW_SIZE, this.calls + 1);
+                if (this.calls >= MINIMUM_CALLS && this.failureCount >= this.failureRateThreshold * this.calls) open();
+            }
+            case HALF_OPEN -> {
+                if (failed) open();
+                else if (++this.halfOpenSuccesses >= HALF_OPEN_CALLS) close();
+            }
+            case OPEN -> {}
+        }
+    }
+
+    public synchronized State getState() {
+        return state();
+    }
+
+    private State state() {
+        if (this.state == State.OPEN && System.nanoTime() - this.openedAt >= this.openDurationInNanos) {
+            this.state = State.HALF_OPEN;
+            this.halfOpenPermits = HALF_OPEN_CALLS;
+            this.halfOpenSuccesses = 0;
+        }
+        return this.state;
+    }
+
+    private void open() {
+        if (this.state != State.OPEN) Core.LOGGER.warn(MARKER, "Opening circuit breaker for {}", this.name);
+        this.state = State.OPEN;
+        this.openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        Core.LOGGER.info(MARKER, "Closing circuit breaker for {}", this.name);
+        this.state = State.CLOSED;
+        this.calls = 0;
+        this.index = 0;
+        this.failureCount = 0;
+        Arrays.fill(this.failures, false);
+    }
+
+    /**
+     * The states of a Circuit Breaker
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
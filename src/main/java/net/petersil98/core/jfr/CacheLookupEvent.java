@@ -0,0 +1,34 @@
+package net.petersil98.core.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR Event for a lookup in one of the response caches of {@link net.petersil98.core.http.RiotAPI}
+ */
+@Name("net.petersil98.core.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Riot API Core", "Request"})
+@Description("Lookup of a response in a cache")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Hit")
+    boolean hit;
+
+    /**
+     * Ends the Event and commits it, if it's enabled and exceeds the threshold
+     * @param cache The name of the cache
+     * @param hit Whether the response was found
+     */
+    public void finish(String cache, boolean hit) {
+        end();
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.hit = hit;
+            commit();
+        }
+    }
+}
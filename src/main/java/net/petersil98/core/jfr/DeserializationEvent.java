@@ -0,0 +1,40 @@
+package net.petersil98.core.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR Event for mapping the JSON body of a response to the required Type
+ */
+@Name("net.petersil98.core.Deserialization")
+@Label("Deserialization")
+@Category({"Riot API Core", "Request"})
+@Description("Mapping of a JSON response to an object")
+@StackTrace(false)
+public class DeserializationEvent extends Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Body Length")
+    @DataAmount(DataAmount.BYTES)
+    long bodyLength;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * Ends the Event and commits it, if it's enabled and exceeds the threshold
+     * @param type The Type the body is mapped to, converted to a String only if the Event is committed
+     * @param body The body
+     * @param success Whether the body could be mapped
+     */
+    public void finish(Object type, String body, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.type = String.valueOf(type);
+            this.bodyLength = body != null ? body.length() : 0;
+            this.success = success;
+            commit();
+        }
+    }
+}
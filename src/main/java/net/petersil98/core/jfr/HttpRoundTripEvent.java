@@ -0,0 +1,36 @@
+package net.petersil98.core.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR Event for the HTTP round trip of a request, after it passed the {@link net.petersil98.core.http.resilience.Bulkhead}
+ * and {@link net.petersil98.core.http.resilience.AdaptiveConcurrencyLimiter} of its Region
+ */
+@Name("net.petersil98.core.HttpRoundTrip")
+@Label("HTTP Round Trip")
+@Category({"Riot API Core", "Request"})
+@Description("HTTP request to the Riot Games API and its response")
+@StackTrace(false)
+public class HttpRoundTripEvent extends Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Status Code")
+    @Description("Status code of the response, 0 if there is none")
+    int statusCode;
+
+    /**
+     * Ends the Event and commits it, if it's enabled and exceeds the threshold
+     * @param url The Url of the request
+     * @param statusCode The status code of the response, 0 if there is none
+     */
+    public void finish(String url, int statusCode) {
+        end();
+        if (shouldCommit()) {
+            this.url = url;
+            this.statusCode = statusCode;
+            commit();
+        }
+    }
+}
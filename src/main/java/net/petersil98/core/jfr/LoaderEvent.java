@@ -0,0 +1,39 @@
+package net.petersil98.core.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR Event for loading static data with a {@link net.petersil98.core.util.Loader}
+ */
+@Name("net.petersil98.core.Loader")
+@Label("Loader")
+@Category({"Riot API Core", "Static Data"})
+@Description("Loading of static data")
+public class LoaderEvent extends Event {
+
+    @Label("Loader")
+    Class<?> loader;
+
+    @Label("Lazy")
+    @Description("Whether the data was loaded on first access")
+    boolean lazy;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * Ends the Event and commits it, if it's enabled and exceeds the threshold
+     * @param loader The class of the Loader
+     * @param lazy Whether the data was loaded on first access
+     * @param success Whether the data was loaded successfully
+     */
+    public void finish(Class<?> loader, boolean lazy, boolean success) {
+        end();
+        if (shouldCommit()) {
+            this.loader = loader;
+            this.lazy = lazy;
+            this.success = success;
+            commit();
+        }
+    }
+}
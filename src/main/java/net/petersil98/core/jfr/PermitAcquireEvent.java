@@ -0,0 +1,52 @@
+package net.petersil98.core.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR Event for waiting for a Permit of the {@link net.petersil98.core.http.ratelimit.BlockingRateLimiter}
+ */
+@Name("net.petersil98.core.PermitAcquire")
+@Label("Permit Acquire")
+@Category({"Riot API Core", "Rate Limiter"})
+@Description("Waiting for a Permit of the Rate Limiter")
+@StackTrace(false)
+public class PermitAcquireEvent extends Event {
+
+    @Label("Region")
+    String region;
+
+    @Label("Endpoint Method")
+    String endpointMethod;
+
+    @Label("Parks")
+    @Description("How often the Thread was parked while waiting")
+    int parks;
+
+    @Label("Deadline")
+    @Description("Whether the request has a deadline")
+    boolean deadline;
+
+    @Label("Acquired")
+    @Description("Whether a Permit was given out, false if the deadline passed first")
+    boolean acquired;
+
+    /**
+     * Ends the Event and commits it, if it's enabled and exceeds the threshold
+     * @param region The Region of the request
+     * @param endpointMethod The Endpoint Method of the request
+     * @param parks How often the Thread was parked
+     * @param deadline Whether the request has a deadline
+     * @param acquired Whether a Permit was given out
+     */
+    public void finish(Object region, String endpointMethod, int parks, boolean deadline, boolean acquired) {
+        end();
+        if (shouldCommit()) {
+            this.region = String.valueOf(region);
+            this.endpointMethod = endpointMethod;
+            this.parks = parks;
+            this.deadline = deadline;
+            this.acquired = acquired;
+            commit();
+        }
+    }
+}
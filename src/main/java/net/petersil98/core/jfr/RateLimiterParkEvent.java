@@ -0,0 +1,47 @@
+package net.petersil98.core.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR Event for a Thread parked by the {@link net.petersil98.core.http.ratelimit.BlockingRateLimiter}, with the reason why
+ * no Permit could be given out
+ */
+@Name("net.petersil98.core.RateLimiterPark")
+@Label("Rate Limiter Park")
+@Category({"Riot API Core", "Rate Limiter"})
+@Description("Thread parked while waiting for a Permit of the Rate Limiter")
+@StackTrace(false)
+public class RateLimiterParkEvent extends Event {
+
+    public static final String APP_RATE_LIMIT_EXCEEDED = "App Rate Limit exceeded";
+    public static final String METHOD_RATE_LIMIT_EXCEEDED = "Method Rate Limit exceeded";
+    public static final String APP_RATE_LIMIT_FULL = "No App Permit available";
+    public static final String METHOD_RATE_LIMIT_FULL = "No Method Permit available";
+    public static final String EARLIER_DEADLINE = "Yielded to an earlier deadline";
+    public static final String PROBE = "Waiting for the probe request";
+
+    @Label("Region")
+    String region;
+
+    @Label("Endpoint Method")
+    String endpointMethod;
+
+    @Label("Reason")
+    String reason;
+
+    /**
+     * Ends the Event and commits it, if it's enabled and exceeds the threshold
+     * @param region The Region of the request
+     * @param endpointMethod The Endpoint Method of the request
+     * @param reason Why the Thread was parked, one of the constants of this class
+     */
+    public void finish(Object region, String endpointMethod, String reason) {
+        end();
+        if (shouldCommit()) {
+            this.region = String.valueOf(region);
+            this.endpointMethod = endpointMethod;
+            this.reason = reason;
+            commit();
+        }
+    }
+}
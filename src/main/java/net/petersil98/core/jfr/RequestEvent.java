@@ -0,0 +1,41 @@
+package net.petersil98.core.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR Event spanning a whole request made through {@link net.petersil98.core.http.RiotAPI}, from the cache lookup to the
+ * deserialization of the response. The phases are recorded as nested Events.
+ */
+@Name("net.petersil98.core.Request")
+@Label("Request")
+@Category({"Riot API Core", "Request"})
+@Description("Request to the Riot Games API, including cache lookups, waiting for a Permit, the HTTP round trip and deserialization")
+@StackTrace(false)
+public class RequestEvent extends Event {
+
+    @Label("Endpoint Method")
+    String endpointMethod;
+
+    @Label("Region")
+    String region;
+
+    @Label("Outcome")
+    @Description("SUCCESS or the type of error")
+    String outcome;
+
+    /**
+     * Ends the Event and commits it, if it's enabled and exceeds the threshold
+     * @param endpointMethod The Endpoint used in the url
+     * @param region The Region of the request
+     * @param outcome The outcome
+     */
+    public void finish(String endpointMethod, Object region, Object outcome) {
+        end();
+        if (shouldCommit()) {
+            this.endpointMethod = endpointMethod;
+            this.region = String.valueOf(region);
+            this.outcome = String.valueOf(outcome);
+            commit();
+        }
+    }
+}
@@ -1,60 +1,240 @@
 package net.petersil98.core.model;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import net.petersil98.core.constant.Region;
+import net.petersil98.core.http.BulkRequestPublisher;
+import net.petersil98.core.http.Result;
 import net.petersil98.core.http.RiotAPI;
+import net.petersil98.core.util.settings.Settings;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
 
 /**
  * Data Class that represents a Player's Account
+ * <br>
+ * If {@link Settings#setCompactAccounts(boolean) compact Accounts} are enabled, the Accounts returned by the lookups are
+ * stored compactly (see {@link #compact()}) and deduplicated, such that the same instance is returned for the same
+ * player as long as it's referenced anywhere. If a lookup returns a changed Riot ID, the shared instance is updated.
+ * Use an {@link AccountRegistry} to hold a working set of Accounts.
  */
 public class Account {
 
+    private static final Interner<Account> ACCOUNTS = Interners.newWeakInterner();
+    private static final int NULL_LENGTH = 0xFF;
+
     private String gameName;
     private String tagLine;
     private String puuid;
+    /**
+     * The packed PUUID followed by the length-prefixed UTF-8 Game Name and Tag Line of compact Accounts, {@code null} otherwise
+     */
+    private volatile byte[] compact;
+
+    public Account() {}
+
+    /**
+     * Constructor
+     * @param puuid The PUUID of the Account
+     * @param gameName The Game Name of the Account
+     * @param tagLine The Tag Line of the Account
+     */
+    Account(String puuid, String gameName, String tagLine) {
+        this.puuid = puuid;
+        this.gameName = gameName;
+        this.tagLine = tagLine;
+    }
+
+    private Account(byte[] compact) {
+        this.compact = compact;
+    }
 
     /**
      * Get an Account by its <b>PUUID</b> in a specific {@link Region}. PUUIDs are unique globally.
      * All IDs are encrypted with the used API Key, so you need to you the same API Key when working with this IDs
+     * @see Settings#setAccountIndex(AccountIndex, java.time.Duration)
      * @param puuid The PUUID of the Summoner
      * @param region The Region to make the request to
      * @return An Account if the Request was successful, <code>null</code> otherwise
      */
     public static Account getAccountByPuuid(String puuid, Region region) {
-        return RiotAPI.requestRiotAccountEndpoint("accounts/by-puuid/", puuid, region, Account.class);
+        AccountIndex index = Settings.getAccountIndex();
+        Account account = index == null ? null : index.getByPuuid(puuid, Settings.getAccountIndexMaxAge());
+        if (account != null) return canonical(account);
+        return index(RiotAPI.requestRiotAccountEndpoint("accounts/by-puuid/", puuid, region, Account.class));
     }
 
     /**
      * Get an Account by its <b>Riot ID</b> consisting of its <b>Game Name</b> and <b>Tag Line</b> in a {@link Region}.
+     * @see Settings#setAccountIndex(AccountIndex, java.time.Duration)
      * @param name The Game Name of the Account
      * @param tag The Tag Line of the Account
      * @param region The Region to make the request to
      * @return An Account if the Request was successful, <code>null</code> otherwise
      */
     public static Account getAccountByRiotId(String name, String tag, Region region) {
-        name = URLEncoder.encode(name, StandardCharsets.UTF_8);
-        tag = URLEncoder.encode(tag, StandardCharsets.UTF_8);
-        return RiotAPI.requestRiotAccountEndpoint("accounts/by-riot-id/", name + "/" + tag, region, Account.class);
+        AccountIndex index = Settings.getAccountIndex();
+        Account account = index == null ? null : index.getByRiotId(name, tag, Settings.getAccountIndexMaxAge());
+        if (account != null) return canonical(account);
+        return index(RiotAPI.requestRiotAccountEndpoint("accounts/by-riot-id/", encodeRiotId(name, tag), region, Account.class));
+    }
+
+    /**
+     * Get an Account by its <b>PUUID</b> in a specific {@link Region}, without throwing or logging if the request fails.
+     * @see #getAccountByPuuid(String, Region)
+     * @param puuid The PUUID of the Summoner
+     * @param region The Region to make the request to
+     * @return A {@link Result} holding the Account if the Request was successful, or the error otherwise
+     */
+    public static Result<Account> findAccountByPuuid(String puuid, Region region) {
+        AccountIndex index = Settings.getAccountIndex();
+        Account account = index == null ? null : index.getByPuuid(puuid, Settings.getAccountIndexMaxAge());
+        if (account != null) return Result.success(canonical(account));
+        return RiotAPI.tryRequestRiotAccountEndpoint("accounts/by-puuid/", puuid, region, Account.class).map(Account::index);
+    }
+
+    /**
+     * Get an Account by its <b>Riot ID</b> in a {@link Region}, without throwing or logging if the request fails.
+     * @see #getAccountByRiotId(String, String, Region)
+     * @param name The Game Name of the Account
+     * @param tag The Tag Line of the Account
+     * @param region The Region to make the request to
+     * @return A {@link Result} holding the Account if the Request was successful, or the error otherwise
+     */
+    public static Result<Account> findAccountByRiotId(String name, String tag, Region region) {
+        AccountIndex index = Settings.getAccountIndex();
+        Account account = index == null ? null : index.getByRiotId(name, tag, Settings.getAccountIndexMaxAge());
+        if (account != null) return Result.success(canonical(account));
+        return RiotAPI.tryRequestRiotAccountEndpoint("accounts/by-riot-id/", encodeRiotId(name, tag), region, Account.class).map(Account::index);
+    }
+
+    /**
+     * Get the Accounts of many <b>PUUIDs</b> in a specific {@link Region}. The Accounts are emitted as their requests complete,
+     * and requests are only made as fast as the Subscriber requests Accounts.
+     * @see BulkRequestPublisher
+     * @param puuids The PUUIDs of the Accounts
+     * @param region The Region to make the requests to
+     * @param maxInFlight The maximum number of concurrent requests
+     * @return A Publisher of the Accounts. PUUIDs without an Account are skipped
+     */
+    public static Flow.Publisher<Account> getAccountsByPuuid(Stream<String> puuids, Region region, int maxInFlight) {
+        return new BulkRequestPublisher<>(puuids, puuid -> getAccountByPuuid(puuid, region), maxInFlight);
+    }
+
+    /**
+     * Get the Accounts of many <b>Riot IDs</b> in a {@link Region}. The Accounts are emitted as their requests complete,
+     * and requests are only made as fast as the Subscriber requests Accounts.
+     * @see BulkRequestPublisher
+     * @param riotIds The Riot IDs of the Accounts in the format <i>Game Name#Tag Line</i>
+     * @param region The Region to make the requests to
+     * @param maxInFlight The maximum number of concurrent requests
+     * @return A Publisher of the Accounts. Riot IDs without an Account or the <b>#</b> are skipped
+     */
+    public static Flow.Publisher<Account> getAccountsByRiotId(Stream<String> riotIds, Region region, int maxInFlight) {
+        return new BulkRequestPublisher<>(riotIds, riotId -> {
+            int separator = riotId.lastIndexOf('#');
+            return separator < 0 ? null : getAccountByRiotId(riotId.substring(0, separator), riotId.substring(separator + 1), region);
+        }, maxInFlight);
+    }
+
+    private static String encodeRiotId(String name, String tag) {
+        return URLEncoder.encode(name, StandardCharsets.UTF_8) + "/" + URLEncoder.encode(tag, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Utility Method to write an Account returned by the API through to the {@link AccountIndex}, if one is set
+     * @param account The Account, may be {@code null}
+     * @return The Account, see {@link #canonical(Account)}
+     */
+    private static Account index(Account account) {
+        AccountIndex index = Settings.getAccountIndex();
+        if (index != null && account != null) index.put(account);
+        return canonical(account);
+    }
+
+    /**
+     * Utility Method to get the canonical instance of an Account if compact Accounts are enabled. The canonical instance
+     * takes the Game Name and Tag Line of the given Account, which is the latest one returned for the player.
+     * @param account The Account, may be {@code null}
+     * @return The canonical instance if compact Accounts are enabled, the given Account otherwise
+     */
+    private static Account canonical(Account account) {
+        if (account == null || !Settings.useCompactAccounts()) return account;
+        Account compact = account.compact();
+        if (compact.compact == null) return account;
+        Account canonical = ACCOUNTS.intern(compact);
+        canonical.refresh(compact);
+        return canonical;
+    }
+
+    /**
+     * Creates the compact form of this Account, which stores the PUUID packed into 6 bits per character followed by the
+     * Game Name and Tag Line in a single byte array instead of three Strings. The getters create a new String on each call
+     * for compact Accounts. Compact Accounts are only changed by {@link #refresh(Account)}, which replaces the array
+     * in one volatile write, so they can be shared between Threads.
+     * @return The compact Account, or this Account if it's compact already or its PUUID can't be packed
+     */
+    Account compact() {
+        if (this.compact != null || this.puuid == null) return this;
+        byte[] gameName = this.gameName == null ? null : this.gameName.getBytes(StandardCharsets.UTF_8);
+        byte[] tagLine = this.tagLine == null ? null : this.tagLine.getBytes(StandardCharsets.UTF_8);
+        if (encodedLength(gameName) > NULL_LENGTH || encodedLength(tagLine) > NULL_LENGTH) return this;
+        byte[] compact = PackedPuuid.pack(this.puuid, encodedLength(gameName) + encodedLength(tagLine));
+        if (compact == null) return this;
+        int position = PackedPuuid.length(compact);
+        position = writeName(compact, position, gameName);
+        writeName(compact, position, tagLine);
+        return new Account(compact);
+    }
+
+    /**
+     * Updates the Game Name and Tag Line of this compact Account to the ones of another compact Account of the same player,
+     * e.g. after the player changed their Riot ID
+     * @param newer The compact Account holding the current Riot ID
+     * @return Whether this Account holds the Riot ID of <b>{@code newer}</b> now. Accounts that aren't compact aren't updated
+     */
+    boolean refresh(Account newer) {
+        byte[] compact = this.compact, newerCompact = newer.compact;
+        if (compact == null || newerCompact == null) return false;
+        if (!Arrays.equals(compact, newerCompact)) this.compact = newerCompact;
+        return true;
+    }
+
+    /**
+     * Gets the 64-bit key of the Account's PUUID, as used by {@link AccountRegistry}
+     * @return The key
+     */
+    long getKey() {
+        byte[] compact = this.compact;
+        return compact != null ? PackedPuuid.key(compact) : PackedPuuid.key(this.puuid);
     }
 
     public String getGameName() {
-        return this.gameName;
+        byte[] compact = this.compact;
+        return compact != null ? readName(compact, PackedPuuid.length(compact)) : this.gameName;
     }
 
     public String getTagLine() {
-        return this.tagLine;
+        byte[] compact = this.compact;
+        if (compact == null) return this.tagLine;
+        int position = PackedPuuid.length(compact);
+        int gameNameLength = compact[position] & 0xFF;
+        return readName(compact, position + 1 + (gameNameLength == NULL_LENGTH ? 0 : gameNameLength));
     }
 
     public String getPuuid() {
-        return this.puuid;
+        byte[] compact = this.compact;
+        return compact != null ? PackedPuuid.unpack(compact) : this.puuid;
     }
 
     @Override
     public String toString() {
-        return this.gameName + "#" + this.tagLine;
+        return getGameName() + "#" + getTagLine();
     }
 
     @Override
@@ -62,11 +242,33 @@ public class Account {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Account account = (Account) o;
-        return Objects.equals(puuid, account.puuid);
+        byte[] compact = this.compact, other = account.compact;
+        if (compact != null && other != null) return PackedPuuid.equals(compact, other);
+        return Objects.equals(getPuuid(), account.getPuuid());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(puuid);
+        byte[] compact = this.compact;
+        return compact != null ? 31 + PackedPuuid.hashCode(compact) : Objects.hash(this.puuid);
+    }
+
+    private static int encodedLength(byte[] name) {
+        return name == null ? 1 : 1 + name.length;
+    }
+
+    private static int writeName(byte[] compact, int position, byte[] name) {
+        if (name == null) {
+            compact[position] = (byte) NULL_LENGTH;
+            return position + 1;
+        }
+        compact[position] = (byte) name.length;
+        System.arraycopy(name, 0, compact, position + 1, name.length);
+        return position + 1 + name.length;
+    }
+
+    private static String readName(byte[] compact, int position) {
+        int length = compact[position] & 0xFF;
+        return length == NULL_LENGTH ? null : new String(compact, position + 1, length, StandardCharsets.UTF_8);
     }
 }
@@ -0,0 +1,450 @@
+package net.petersil98.core.model;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import net.petersil98.core.Core;
+import net.petersil98.core.util.LogThrottle;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistent index of {@link Account Accounts}, stored in a memory-mapped file outside the Java heap, such that millions of
+ * Accounts can be looked up without going to the network and without adding to the work of the garbage collector.
+ * <br>
+ * The file consists of a header, two open addressing hash tables and an append-only data section. The first table maps
+ * the PUUID to the latest record of an Account, the second one maps the normalized Riot ID (see {@link #normalize(String, String)})
+ * to a record. Each slot holds the 64-bit hash of its key and the offset of the record, which consists of the time it was
+ * written and the PUUID, Game Name and Tag Line of the Account. Updating an Account appends a new record; records which
+ * are not referenced anymore are dropped once the tables grow and the file is rewritten.
+ * <br>
+ * Lookups of a Riot ID only return the record if it's still the latest record of its PUUID, such that a Riot ID which
+ * changed hands doesn't resolve to the old Account. The file size is limited to 2 GB, which fits roughly 10 million Accounts.
+ * Once the tables can't grow anymore, because the file would exceed that size, new Accounts are not added anymore.
+ */
+public class AccountIndex implements Closeable {
+
+    private static final Marker MARKER = MarkerManager.getMarker(AccountIndex.class.getSimpleName());
+    private static final LogThrottle LOG_THROTTLE = new LogThrottle(MARKER, 10, Duration.ofMinutes(1));
+
+    private static final int MAGIC = 0x41434958;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 16;
+    private static final int AVERAGE_RECORD_SIZE = 128;
+    private static final int MIN_CAPACITY = 1024;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE;
+    /**
+     * The largest table capacity whose tables, filled up to the maximum load factor with records of average size, fit into the file
+     */
+    private static final int MAX_CAPACITY = (int) Long.highestOneBit(MAX_FILE_SIZE / (2 * SLOT_SIZE + (long) (AVERAGE_RECORD_SIZE * MAX_LOAD_FACTOR)));
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final Path file;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+    private int riotIdSize;
+    private long dataEnd;
+    private boolean growable = true;
+
+    private AccountIndex(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the index stored in the given file, or creates an empty one if the file doesn't exist
+     * @param file The file
+     * @return The index
+     * @throws IOException If the file can't be read or created, or isn't a valid index
+     */
+    public static AccountIndex open(Path file) throws IOException {
+        return open(file, MIN_CAPACITY);
+    }
+
+    /**
+     * Opens the index stored in the given file, or creates an empty one sized for the expected number of Accounts
+     * if the file doesn't exist. The index grows beyond the expected number of Accounts if needed.
+     * @param file The file
+     * @param expectedAccounts The number of Accounts the index is expected to hold
+     * @return The index
+     * @throws IOException If the file can't be read or created, or isn't a valid index
+     */
+    public static AccountIndex open(Path file, int expectedAccounts) throws IOException {
+        AccountIndex index = new AccountIndex(file);
+        if (Files.exists(file) && Files.size(file) > 0) {
+            index.map();
+        } else {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            int capacity = tableCapacity(expectedAccounts);
+            index.create(file, capacity, dataStart(capacity) + (long) expectedAccounts * AVERAGE_RECORD_SIZE);
+        }
+        return index;
+    }
+
+    /**
+     * Looks up an Account by its PUUID
+     * @param puuid The PUUID
+     * @param maxAge The maximum age of the record, older records are treated as missing
+     * @return The Account, {@code null} if it's not in the index or its record is too old
+     */
+    public Account getByPuuid(String puuid, Duration maxAge) {
+        this.lock.readLock().lock();
+        try {
+            long offset = this.buffer.getLong(findPuuidSlot(puuid, hash(puuid)) + 8);
+            return offset == 0 ? null : readIfFresh(offset, maxAge);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up an Account by its Riot ID. The lookup is case-insensitive
+     * @param gameName The Game Name of the Account
+     * @param tagLine The Tag Line of the Account
+     * @param maxAge The maximum age of the record, older records are treated as missing
+     * @return The Account, {@code null} if it's not in the index or its record is too old
+     */
+    public Account getByRiotId(String gameName, String tagLine, Duration maxAge) {
+        String riotId = normalize(gameName, tagLine);
+        this.lock.readLock().lock();
+        try {
+            long offset = this.buffer.getLong(findRiotIdSlot(riotId, hash(riotId)) + 8);
+            if (offset == 0) return null;
+            Account account = readIfFresh(offset, maxAge);
+            if (account == null) return null;
+            long latest = this.buffer.getLong(findPuuidSlot(account.getPuuid(), hash(account.getPuuid())) + 8);
+            return latest == offset ? account : null;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or updates an Account. Failures are logged, since the index only serves as cache
+     * @param account The Account
+     */
+    public void put(Account account) {
+        if (account == null || account.getPuuid() == null) return;
+        byte[] puuid = account.getPuuid().getBytes(StandardCharsets.UTF_8);
+        byte[] gameName = String.valueOf(account.getGameName()).getBytes(StandardCharsets.UTF_8);
+        byte[] tagLine = String.valueOf(account.getTagLine()).getBytes(StandardCharsets.UTF_8);
+        int recordSize = 8 + 6 + puuid.length + gameName.length + tagLine.length;
+        this.lock.writeLock().lock();
+        try {
+            if (Math.max(this.size, this.riotIdSize) + 1 > this.capacity * MAX_LOAD_FACTOR && !grow()) {
+                if (LOG_THROTTLE.shouldLog(Level.WARN)) Core.LOGGER.warn(MARKER, "Account index {} is full, not adding {}", this.file, account.getPuuid());
+                return;
+            }
+            if (!ensureDataSpace(recordSize)) {
+                if (LOG_THROTTLE.shouldLog(Level.WARN)) Core.LOGGER.warn(MARKER, "Account index {} is full, not adding {}", this.file, account.getPuuid());
+                return;
+            }
+            long offset = this.dataEnd;
+            writeRecord(offset, System.currentTimeMillis(), puuid, gameName, tagLine);
+            this.dataEnd += recordSize;
+            insert(account.getPuuid(), normalize(account.getGameName(), account.getTagLine()), offset);
+            writeHeader();
+        } catch (IOException e) {
+            Core.LOGGER.warn(MARKER, "Failed to add {} to the account index {}", account.getPuuid(), this.file, e);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of Accounts in the index
+     * @return The number of Accounts
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes all changes to the file. Changes are also written by the operating system eventually, without calling this
+     */
+    public void flush() {
+        this.lock.readLock().lock();
+        try {
+            this.buffer.force();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            this.buffer.force();
+            this.channel.close();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Utility Method to normalize a Riot ID, which is case-insensitive
+     * @param gameName The Game Name
+     * @param tagLine The Tag Line
+     * @return The normalized Riot ID
+     */
+    static String normalize(String gameName, String tagLine) {
+        return (gameName + "#" + tagLine).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long hash(String key) {
+        return HASH.hashString(key, StandardCharsets.UTF_8).asLong();
+    }
+
+    private static int tableCapacity(int expectedAccounts) {
+        int required = (int) Math.min(MAX_CAPACITY, (long) Math.ceil(Math.max(MIN_CAPACITY, expectedAccounts) / MAX_LOAD_FACTOR));
+        return Integer.highestOneBit(required - 1) << 1;
+    }
+
+    private static long dataStart(int capacity) {
+        return HEADER_SIZE + 2L * capacity * SLOT_SIZE;
+    }
+
+    private int puuidTable() {
+        return HEADER_SIZE;
+    }
+
+    private int riotIdTable() {
+        return HEADER_SIZE + this.capacity * SLOT_SIZE;
+    }
+
+    /**
+     * Utility Method to find the slot of a PUUID, which is either the slot holding it or the empty slot it would be inserted in
+     * @param puuid The PUUID
+     * @param hash The hash of the PUUID
+     * @return The position of the slot in the file
+     */
+    private int findPuuidSlot(String puuid, long hash) {
+        int mask = this.capacity - 1;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            int slot = puuidTable() + i * SLOT_SIZE;
+            long offset = this.buffer.getLong(slot + 8);
+            if (offset == 0) return slot;
+            if (this.buffer.getLong(slot) == hash && puuid.equals(readString(offset + 8))) return slot;
+        }
+    }
+
+    /**
+     * Utility Method to find the slot of a normalized Riot ID, which is either the slot holding it or the empty slot it would be inserted in
+     * @param riotId The normalized Riot ID
+     * @param hash The hash of the normalized Riot ID
+     * @return The position of the slot in the file
+     */
+    private int findRiotIdSlot(String riotId, long hash) {
+        int mask = this.capacity - 1;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            int slot = riotIdTable() + i * SLOT_SIZE;
+            long offset = this.buffer.getLong(slot + 8);
+            if (offset == 0) return slot;
+            if (this.buffer.getLong(slot) == hash) {
+                Account account = readRecord(offset);
+                if (riotId.equals(normalize(account.getGameName(), account.getTagLine()))) return slot;
+            }
+        }
+    }
+
+    private void insert(String puuid, String riotId, long offset) {
+        long puuidHash = hash(puuid);
+        int puuidSlot = findPuuidSlot(puuid, puuidHash);
+        if (this.buffer.getLong(puuidSlot + 8) == 0) this.size++;
+        this.buffer.putLong(puuidSlot, puuidHash);
+        this.buffer.putLong(puuidSlot + 8, offset);
+
+        long riotIdHash = hash(riotId);
+        int riotIdSlot = findRiotIdSlot(riotId, riotIdHash);
+        if (this.buffer.getLong(riotIdSlot + 8) == 0) this.riotIdSize++;
+        this.buffer.putLong(riotIdSlot, riotIdHash);
+        this.buffer.putLong(riotIdSlot + 8, offset);
+    }
+
+    private Account readIfFresh(long offset, Duration maxAge) {
+        if (System.currentTimeMillis() - this.buffer.getLong((int) offset) > maxAge.toMillis()) return null;
+        return readRecord(offset);
+    }
+
+    private Account readRecord(long offset) {
+        int position = (int) offset + 8;
+        String puuid = readString(position);
+        position += 2 + (this.buffer.getShort(position) & 0xFFFF);
+        String gameName = readString(position);
+        position += 2 + (this.buffer.getShort(position) & 0xFFFF);
+        return new Account(puuid, gameName, readString(position));
+    }
+
+    private String readString(long position) {
+        int length = this.buffer.getShort((int) position) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        this.buffer.get((int) position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeRecord(long offset, long timestamp, byte[] puuid, byte[] gameName, byte[] tagLine) {
+        int position = (int) offset;
+        this.buffer.putLong(position, timestamp);
+        position += 8;
+        for (byte[] bytes : new byte[][]{puuid, gameName, tagLine}) {
+            this.buffer.putShort(position, (short) bytes.length);
+            this.buffer.put(position + 2, bytes);
+            position += 2 + bytes.length;
+        }
+    }
+
+    /**
+     * Utility Method to double the capacity of the tables, unless the maximum capacity is reached or the Accounts wouldn't fit
+     * into the file anymore
+     * @return Whether the tables grew
+     * @throws IOException If the file can't be rewritten
+     */
+    private boolean grow() throws IOException {
+        if (!this.growable) return false;
+        if (this.capacity >= MAX_CAPACITY || !rebuild(this.capacity * 2)) {
+            Core.LOGGER.warn(MARKER, "Account index {} can't grow beyond capacity {}, new accounts are not added anymore", this.file, this.capacity);
+            this.growable = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Utility Method to make room for a record in the data section, by growing the file and, if the file can't grow
+     * anymore, by dropping records which aren't referenced anymore
+     * @param recordSize The size of the record
+     * @return Whether there is room for the record
+     * @throws IOException If the file can't be grown or rewritten
+     */
+    private boolean ensureDataSpace(int recordSize) throws IOException {
+        if (this.dataEnd + recordSize <= this.buffer.capacity()) return true;
+        long fileSize = Math.min(MAX_FILE_SIZE, Math.max(this.dataEnd + recordSize, 2L * this.buffer.capacity()));
+        if (this.dataEnd + recordSize <= fileSize) {
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            return true;
+        }
+        return rebuild(this.capacity) && this.dataEnd + recordSize <= this.buffer.capacity();
+    }
+
+    /**
+     * Utility Method to rewrite the index with the given table capacity, dropping all records which aren't referenced anymore.
+     * The new file replaces the old one atomically. Nothing is changed if the referenced records wouldn't fit into a file
+     * with the new capacity.
+     * @param newCapacity The new table capacity, a power of two
+     * @return Whether the index was rewritten
+     * @throws IOException If the file can't be rewritten
+     */
+    private boolean rebuild(int newCapacity) throws IOException {
+        long liveData = liveDataSize();
+        if (dataStart(newCapacity) + liveData > MAX_FILE_SIZE) return false;
+        Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        AccountIndex rebuilt = new AccountIndex(temp);
+        rebuilt.create(temp, newCapacity, Math.min(MAX_FILE_SIZE, dataStart(newCapacity) + Math.max(liveData, (long) newCapacity * AVERAGE_RECORD_SIZE / 2)));
+        for (int i = 0; i < this.capacity; i++) {
+            long offset = this.buffer.getLong(puuidTable() + i * SLOT_SIZE + 8);
+            if (offset == 0) continue;
+            Account account = readRecord(offset);
+            int recordSize = recordSize(offset);
+            if (!rebuilt.ensureDataSpace(recordSize)) {
+                rebuilt.channel.close();
+                Files.deleteIfExists(temp);
+                throw new IOException("Referenced records of the account index " + this.file + " don't fit into the rebuilt file");
+            }
+            byte[] record = new byte[recordSize];
+            this.buffer.get((int) offset, record);
+            rebuilt.buffer.put((int) rebuilt.dataEnd, record);
+            rebuilt.insert(account.getPuuid(), normalize(account.getGameName(), account.getTagLine()), rebuilt.dataEnd);
+            rebuilt.dataEnd += recordSize;
+        }
+        rebuilt.writeHeader();
+        rebuilt.close();
+        this.channel.close();
+        Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map();
+        Core.LOGGER.debug(MARKER, "Rebuilt account index {} with {} accounts and capacity {}", this.file, this.size, this.capacity);
+        return true;
+    }
+
+    /**
+     * Utility Method to sum up the size of all records referenced by the PUUID table, which are kept when the index is rebuilt
+     * @return The size of the referenced records
+     */
+    private long liveDataSize() {
+        long liveData = 0;
+        for (int i = 0; i < this.capacity; i++) {
+            long offset = this.buffer.getLong(puuidTable() + i * SLOT_SIZE + 8);
+            if (offset != 0) liveData += recordSize(offset);
+        }
+        return liveData;
+    }
+
+    private int recordSize(long offset) {
+        int position = (int) offset + 8;
+        for (int i = 0; i < 3; i++) {
+            position += 2 + (this.buffer.getShort(position) & 0xFFFF);
+        }
+        return position - (int) offset;
+    }
+
+    private void create(Path path, int capacity, long fileSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(MAX_FILE_SIZE, fileSize));
+        this.capacity = capacity;
+        this.size = 0;
+        this.riotIdSize = 0;
+        this.dataEnd = dataStart(capacity);
+        writeHeader();
+    }
+
+    private void map() throws IOException {
+        this.channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileSize = this.channel.size();
+        if (fileSize < HEADER_SIZE || fileSize > MAX_FILE_SIZE) throw new IOException("Not an account index: " + this.file);
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        if (this.buffer.getInt(0) != MAGIC) throw new IOException("Not an account index: " + this.file);
+        int version = this.buffer.getInt(4);
+        if (version != FORMAT_VERSION) throw new IOException("Unsupported account index version " + version);
+        this.capacity = this.buffer.getInt(8);
+        this.size = this.buffer.getInt(12);
+        this.riotIdSize = this.buffer.getInt(16);
+        this.dataEnd = this.buffer.getLong(20);
+        if (this.capacity <= 0 || Integer.bitCount(this.capacity) != 1 || this.size < 0 || this.size > this.capacity
+                || this.riotIdSize < 0 || this.riotIdSize > this.capacity || this.dataEnd < dataStart(this.capacity) || this.dataEnd > fileSize) {
+            throw new IOException("Corrupt account index: " + this.file);
+        }
+    }
+
+    private void writeHeader() {
+        this.buffer.putInt(0, MAGIC);
+        this.buffer.putInt(4, FORMAT_VERSION);
+        this.buffer.putInt(8, this.capacity);
+        this.buffer.putInt(12, this.size);
+        this.buffer.putInt(16, this.riotIdSize);
+        this.buffer.putLong(20, this.dataEnd);
+    }
+}
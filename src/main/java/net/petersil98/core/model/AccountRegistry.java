@@ -0,0 +1,167 @@
+package net.petersil98.core.model;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Registry holding a working set of {@link Account Accounts}, keyed by their PUUID. Each Account is stored once, in its
+ * compact form (see {@link Account#compact()}), and every Account added for the same PUUID resolves to that instance,
+ * which takes the Riot ID of the latest Account added.
+ * <br>
+ * Unlike a {@code Map<String, Account>}, no String or entry object is kept per Account: the keys are 64-bit values
+ * derived from the packed PUUID, stored in a primitive array next to the array of Accounts, so millions of Accounts
+ * only cost the Accounts themselves plus 12 bytes per slot. Accounts stay in the registry until they're removed.
+ */
+public class AccountRegistry {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] keys;
+    private Account[] accounts;
+    private int size;
+
+    /**
+     * Constructor
+     */
+    public AccountRegistry() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param expectedAccounts The number of Accounts the registry is expected to hold. The registry grows beyond it if needed
+     */
+    public AccountRegistry(int expectedAccounts) {
+        int capacity = Integer.highestOneBit((int) Math.max(MIN_CAPACITY, expectedAccounts / MAX_LOAD_FACTOR) - 1) << 1;
+        this.keys = new long[capacity];
+        this.accounts = new Account[capacity];
+    }
+
+    /**
+     * Adds an Account to the registry. If an Account with the same PUUID is registered already, its Game Name and Tag Line
+     * are updated to the ones of the given Account instead
+     * @param account The Account
+     * @return The registered Account with the PUUID of the given one
+     */
+    public Account intern(Account account) {
+        Account compact = account.compact();
+        long key = compact.getKey();
+        this.lock.writeLock().lock();
+        try {
+            int slot = findSlot(key, compact);
+            Account registered = this.accounts[slot];
+            if (registered != null) {
+                if (registered.refresh(compact)) return registered;
+                this.accounts[slot] = compact;
+                return compact;
+            }
+            this.keys[slot] = key;
+            this.accounts[slot] = compact;
+            if (++this.size > this.accounts.length * MAX_LOAD_FACTOR) resize(this.accounts.length * 2);
+            return compact;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the registered Account of a PUUID
+     * @param puuid The PUUID
+     * @return The Account, {@code null} if there is none
+     */
+    public Account get(String puuid) {
+        Account probe = new Account(puuid, null, null).compact();
+        this.lock.readLock().lock();
+        try {
+            return this.accounts[findSlot(probe.getKey(), probe)];
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the Account of a PUUID
+     * @param puuid The PUUID
+     * @return The removed Account, {@code null} if there was none
+     */
+    public Account remove(String puuid) {
+        Account probe = new Account(puuid, null, null).compact();
+        this.lock.writeLock().lock();
+        try {
+            int slot = findSlot(probe.getKey(), probe);
+            Account removed = this.accounts[slot];
+            if (removed == null) return null;
+            this.accounts[slot] = null;
+            this.size--;
+            int mask = this.accounts.length - 1;
+            for (int i = (slot + 1) & mask; this.accounts[i] != null; i = (i + 1) & mask) {
+                long key = this.keys[i];
+                Account account = this.accounts[i];
+                this.accounts[i] = null;
+                int target = findSlot(key, account);
+                this.keys[target] = key;
+                this.accounts[target] = account;
+            }
+            return removed;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of registered Accounts
+     * @return The number of Accounts
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all Accounts
+     */
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            Arrays.fill(this.accounts, null);
+            this.size = 0;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Utility Method to find the slot of an Account, which is either the slot holding an Account with the same PUUID or
+     * the empty slot it would be inserted in
+     * @param key The key of the Account
+     * @param account The Account
+     * @return The index of the slot
+     */
+    private int findSlot(long key, Account account) {
+        int mask = this.accounts.length - 1;
+        for (int i = (int) (key ^ (key >>> 32)) & mask; ; i = (i + 1) & mask) {
+            Account registered = this.accounts[i];
+            if (registered == null || (this.keys[i] == key && registered.equals(account))) return i;
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = this.keys;
+        Account[] oldAccounts = this.accounts;
+        this.keys = new long[capacity];
+        this.accounts = new Account[capacity];
+        for (int i = 0; i < oldAccounts.length; i++) {
+            if (oldAccounts[i] == null) continue;
+            int slot = findSlot(oldKeys[i], oldAccounts[i]);
+            this.keys[slot] = oldKeys[i];
+            this.accounts[slot] = oldAccounts[i];
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package net.petersil98.core.model;
+
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Utility Class to store PUUIDs compactly. PUUIDs only consist of the 64 characters of the URL-safe Base64 alphabet, so
+ * each character fits in 6 bits, and a 78 character PUUID packs into 60 bytes instead of the 78 bytes (plus the String
+ * object) it takes as String. The first byte holds the number of characters. Packed PUUIDs may be followed by other data
+ * in the same array, see {@link #pack(String, int)}.
+ */
+final class PackedPuuid {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    private static final byte[] ENCODED = ALPHABET.getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] DECODED = new byte[128];
+
+    static {
+        Arrays.fill(DECODED, (byte) -1);
+        for (int i = 0; i < ENCODED.length; i++) {
+            DECODED[ENCODED[i]] = (byte) i;
+        }
+    }
+
+    private PackedPuuid() {}
+
+    /**
+     * Packs a PUUID into 6 bits per character
+     * @param puuid The PUUID
+     * @return The packed PUUID, {@code null} if it contains characters outside the alphabet or is longer than 255 characters
+     */
+    static byte[] pack(String puuid) {
+        return pack(puuid, 0);
+    }
+
+    /**
+     * Packs a PUUID into 6 bits per character, leaving space for other data after it
+     * @param puuid The PUUID
+     * @param trailing The number of bytes left free after the packed PUUID
+     * @return The packed PUUID, {@code null} if it contains characters outside the alphabet or is longer than 255 characters
+     */
+    static byte[] pack(String puuid, int trailing) {
+        int length = puuid.length();
+        if (length > 255) return null;
+        byte[] packed = new byte[packedLength(length) + trailing];
+        packed[0] = (byte) length;
+        int position = 1, buffer = 0, bits = 0;
+        for (int i = 0; i < length; i++) {
+            char c = puuid.charAt(i);
+            int value = c < DECODED.length ? DECODED[c] : -1;
+            if (value < 0) return null;
+            buffer = (buffer << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                packed[position++] = (byte) (buffer >>> bits);
+            }
+        }
+        if (bits > 0) packed[position] = (byte) (buffer << (8 - bits));
+        return packed;
+    }
+
+    /**
+     * Unpacks a PUUID packed by {@link #pack(String)}
+     * @param packed The packed PUUID
+     * @return The PUUID
+     */
+    static String unpack(byte[] packed) {
+        int length = packed[0] & 0xFF;
+        byte[] chars = new byte[length];
+        int position = 1, buffer = 0, bits = 0;
+        for (int i = 0; i < length; i++) {
+            if (bits < 6) {
+                buffer = (buffer << 8) | (packed[position++] & 0xFF);
+                bits += 8;
+            }
+            bits -= 6;
+            chars[i] = ENCODED[(buffer >>> bits) & 0x3F];
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Gets the number of bytes of a packed PUUID, which is where the data following it starts
+     * @param packed The packed PUUID
+     * @return The number of bytes
+     */
+    static int length(byte[] packed) {
+        return packedLength(packed[0] & 0xFF);
+    }
+
+    /**
+     * Compares two packed PUUIDs, ignoring the data following them
+     * @param packed The first packed PUUID
+     * @param other The second packed PUUID
+     * @return Whether both PUUIDs are equal
+     */
+    static boolean equals(byte[] packed, byte[] other) {
+        int length = length(packed);
+        return length == length(other) && Arrays.equals(packed, 0, length, other, 0, length);
+    }
+
+    /**
+     * Computes the {@link String#hashCode()} of a packed PUUID without unpacking it
+     * @param packed The packed PUUID
+     * @return The hash code of the PUUID
+     */
+    static int hashCode(byte[] packed) {
+        int length = packed[0] & 0xFF;
+        int hash = 0, position = 1, buffer = 0, bits = 0;
+        for (int i = 0; i < length; i++) {
+            if (bits < 6) {
+                buffer = (buffer << 8) | (packed[position++] & 0xFF);
+                bits += 8;
+            }
+            bits -= 6;
+            hash = 31 * hash + ENCODED[(buffer >>> bits) & 0x3F];
+        }
+        return hash;
+    }
+
+    /**
+     * Derives a 64-bit key from a packed PUUID. PUUIDs are encrypted, so their first 8 packed bytes are already evenly distributed
+     * @param packed The packed PUUID
+     * @return The key
+     */
+    static long key(byte[] packed) {
+        long key = 0;
+        for (int i = 1; i < Math.min(length(packed), 9); i++) {
+            key = (key << 8) | (packed[i] & 0xFF);
+        }
+        return key;
+    }
+
+    /**
+     * Derives a 64-bit key from a PUUID which couldn't be packed
+     * @param puuid The PUUID
+     * @return The key
+     */
+    static long key(String puuid) {
+        return Hashing.murmur3_128().hashString(puuid, StandardCharsets.UTF_8).asLong();
+    }
+
+    private static int packedLength(int characters) {
+        return 1 + (characters * 6 + 7) / 8;
+    }
+}
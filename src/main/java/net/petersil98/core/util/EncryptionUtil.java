@@ -38,7 +38,7 @@ public class EncryptionUtil {
             secretKeySpec = new SecretKeySpec(SECRET_KEY_2.getBytes(StandardCharsets.UTF_8), "AES");
             cipher = Cipher.getInstance("AES/CBC/PKCS5PADDING");
         } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
-            e.printStackTrace();
+            Core.LOGGER.error(MARKER, "Failed to initialize the cipher", e);
         }
     }
 
@@ -1,36 +1,46 @@
 package net.petersil98.core.util;
 
+import net.petersil98.core.Core;
+import net.petersil98.core.jfr.LoaderEvent;
 import net.petersil98.core.util.settings.Language;
 import net.petersil98.core.util.settings.Settings;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 
+import java.nio.file.Path;
 import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * The Loader Class is used to updated and load static Data. There will be created a Folder named "data" the Base Directory,
  * which then holds a settings File. The Settings File contains the latest version of the Data Dragon (DDragon) and the language.
  * If one of those values changes, all Files will be updated with the latest data in the specified Language.
+ * <br>
+ * Loaders may declare other Loaders they depend on using {@link #getDependencies()}. All Loaders are run as a dependency graph
+ * on a bounded pool of Threads (see {@link Settings#setLoaderParallelism(int)}), such that independent Loaders load concurrently
+ * and a Loader only starts after all of its dependencies finished. Unless the parallelism is set explicitly, Loaders that
+ * don't declare dependencies still run one after another in the order they were added, since they may rely on that order.
+ * <br>
+ * Loaders added by {@link #addLazyLoader(Class, Supplier)} are not run by {@link #init()}, but only when their data is first
+ * accessed (see {@link #ensureLoaded(Class)} and {@link StaticData#loadedBy(Class)}), which lets short-lived processes skip
+ * data sets they never use. {@link #preWarm()} loads them in the background instead, e.g. once a service reports ready.
  */
 public abstract class Loader {
 
-    private static final List<Loader> LOADERS = new ArrayList<>();
-    private static Language latestLanguage;
-    private static final Thread UPDATE_CHECKER = new Thread(() -> {
-        while (true) {
-            try {
-                Thread.sleep(Duration.of(30, ChronoUnit.MINUTES));
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            if(latestLanguage != Settings.getLanguage()) {
-                latestLanguage = Settings.getLanguage();
-                LOADERS.forEach(Loader::load);
-            } else {
-                LOADERS.stream().filter(Loader::shouldReloadData).forEach(Loader::load);
-            }
-        }
-    });
+    private static final Marker MARKER = MarkerManager.getMarker(Loader.class.getSimpleName());
+    private static final List<Loader> LOADERS = new CopyOnWriteArrayList<>();
+    private static final Map<Class<? extends Loader>, LazyLoader> LAZY_LOADERS = new ConcurrentHashMap<>();
+    private static volatile Language latestLanguage;
+
+    private static ScheduledExecutorService updateScheduler;
+    private static ScheduledFuture<?> scheduledUpdateCheck;
+    private static CompletableFuture<Void> pendingUpdateCheck;
+    private static Duration updateInterval = Duration.ofMinutes(30);
+    private static double updateJitter = 0.1;
+    private static volatile Map<String, CompletableFuture<Object>> coalescedFetches = new ConcurrentHashMap<>();
 
     /**
      * This Method is used to add a Loader, which should get called when {@link #init()} gets called.
@@ -41,26 +51,246 @@ public abstract class Loader {
         LOADERS.add(loader);
     }
 
+    /**
+     * This Method is used to add a Loader, which only gets created and called when its data is first accessed via
+     * {@link #ensureLoaded(Class)}. Concurrent first accesses share a single call of {@link #load()}; the dependencies of
+     * the Loader are loaded before it. Once loaded, the Loader takes part in the update checks like any other Loader.
+     * @param type The class of the Loader, which is used to identify it, e.g. in {@link #getDependencies()}
+     * @param supplier The function creating the Loader
+     * @param <T> Type of the Loader
+     */
+    public static <T extends Loader> void addLazyLoader(Class<T> type, Supplier<T> supplier) {
+        LAZY_LOADERS.put(type, new LazyLoader(Objects.requireNonNull(supplier)));
+    }
+
+    /**
+     * Makes sure the data of the given lazy Loader is loaded, loading it on the calling Thread if this is the first access.
+     * If another Thread is already loading it, this Method waits for it to finish. Returns immediately for Loaders that
+     * were not added by {@link #addLazyLoader(Class, Supplier)}.
+     * @param type The class of the Loader
+     * @throws RuntimeException The exception thrown by the Loader. The next access tries to load it again
+     */
+    public static void ensureLoaded(Class<? extends Loader> type) {
+        LazyLoader lazyLoader = LAZY_LOADERS.get(type);
+        if (lazyLoader == null || lazyLoader.isLoaded()) return;
+        if (lazyLoader.loadingThread == Thread.currentThread()) return;
+        CompletableFuture<Void> future;
+        boolean owner = false;
+        synchronized (lazyLoader) {
+            if (lazyLoader.future == null) {
+                lazyLoader.future = new CompletableFuture<>();
+                owner = true;
+            }
+            future = lazyLoader.future;
+        }
+        if (owner) {
+            lazyLoader.loadingThread = Thread.currentThread();
+            try {
+                Loader loader = lazyLoader.supplier.get();
+                loader.getDependencies().forEach(Loader::ensureLoaded);
+                long start = System.nanoTime();
+                load(loader, true);
+                Core.LOGGER.info(MARKER, "Loaded {} on first access in {} ms", type.getSimpleName(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                LOADERS.add(loader);
+                future.complete(null);
+            } catch (RuntimeException e) {
+                synchronized (lazyLoader) {
+                    lazyLoader.future = null;
+                }
+                future.completeExceptionally(e);
+                throw e;
+            } finally {
+                lazyLoader.loadingThread = null;
+            }
+            return;
+        }
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the data of the given Loader is completely loaded. Unlike {@link #ensureLoaded(Class)}, this is
+     * {@code false} on the Thread loading a lazy Loader while it's still running.
+     * @param type The class of the Loader
+     * @return Whether the Loader finished loading successfully. Always {@code true} for Loaders that are not lazy
+     */
+    static boolean isLoaded(Class<? extends Loader> type) {
+        LazyLoader lazyLoader = LAZY_LOADERS.get(type);
+        return lazyLoader == null || lazyLoader.isLoaded();
+    }
+
+    /**
+     * Loads all lazy Loaders, which weren't accessed yet, one after another on a low priority background Thread.
+     * Accesses during the pre-warm wait for the Loader they need like any other first access, instead of loading it twice.
+     * @return A Future, which completes once all lazy Loaders are loaded, or exceptionally with the first failure
+     */
+    public static CompletableFuture<Void> preWarm() {
+        return CompletableFuture.runAsync(() -> LAZY_LOADERS.keySet().forEach(Loader::ensureLoaded), runnable -> {
+            Thread thread = new Thread(runnable, "LoaderPreWarm");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        });
+    }
+
     /**
      * This Method needs to be called before API calls are being made,
      * but after the settings are set (at least the {@link Settings#setLanguage(Language)})
      * For this library to work properly. It updates and loads static data from the Data Dragon and Community Dragon.
-     * This Method also starts a Thread which periodically checks for a new Version of the Data Dragon.
+     * This Method also schedules periodic checks for a new Version of the Data Dragon, see {@link #setUpdateInterval(Duration, double)}.
      *
      * @see Settings
      */
     public static void init() {
         latestLanguage = Settings.getLanguage();
-        LOADERS.forEach(Loader::load);
-        if(UPDATE_CHECKER.getState().equals(Thread.State.NEW)) UPDATE_CHECKER.start();
+        coalescedFetches = new ConcurrentHashMap<>();
+        LOADERS.forEach(loader -> loader.getDependencies().forEach(Loader::ensureLoaded));
+        runLoaders(LOADERS);
+        synchronized (Loader.class) {
+            if (scheduledUpdateCheck == null) scheduleNextUpdateCheck();
+        }
+    }
+
+    /**
+     * Sets how often the Loaders check for new data. Each delay is varied randomly by up to <b>{@code jitter}</b> times the interval,
+     * such that many processes started at the same time don't query the data sources in lockstep.
+     * The new interval applies immediately if update checks are already scheduled.
+     * @param interval The interval between two update checks, zero or negative disables periodic update checks
+     * @param jitter The maximum relative deviation from the interval, between 0 and 1
+     */
+    public static synchronized void setUpdateInterval(Duration interval, double jitter) {
+        updateInterval = Objects.requireNonNull(interval);
+        updateJitter = Math.max(0, Math.min(1, jitter));
+        if (scheduledUpdateCheck != null) scheduleNextUpdateCheck();
+    }
+
+    /**
+     * Triggers an update check right away instead of waiting for the next scheduled one. Loaders whose data changed get reloaded.
+     * If an update check is already waiting to run, no further one is started and its Future is returned.
+     * @return A Future, which completes once the update check finished
+     */
+    public static synchronized CompletableFuture<Void> checkForUpdates() {
+        if (pendingUpdateCheck != null && !pendingUpdateCheck.isDone()) return pendingUpdateCheck;
+        pendingUpdateCheck = CompletableFuture.runAsync(Loader::updateData, getUpdateScheduler());
+        return pendingUpdateCheck;
+    }
+
+    /**
+     * Stops the periodic update checks and the Thread running them. Update checks that are already running are interrupted.
+     * Calling {@link #init()} again schedules the update checks again.
+     */
+    public static synchronized void shutdown() {
+        if (scheduledUpdateCheck != null) scheduledUpdateCheck.cancel(false);
+        scheduledUpdateCheck = null;
+        if (updateScheduler != null) updateScheduler.shutdownNow();
+        updateScheduler = null;
+    }
+
+    /**
+     * Fetches a value, such as the latest version of a data source, at most once per update check. All Loaders calling this Method
+     * with the same source during one update check (or during {@link #init()}) share a single call of the fetcher, so
+     * {@link #shouldReloadData()} implementations of Loaders using the same data source only make one network call.
+     * @param source Identifier of the data source, e.g. the Url of the versions file
+     * @param fetcher The function fetching the value
+     * @return The fetched value
+     * @param <T> Type of the fetched value
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T> T fetchOncePerUpdateCheck(String source, Supplier<T> fetcher) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = coalescedFetches.putIfAbsent(source, future);
+        if (existing == null) {
+            try {
+                future.complete(fetcher.get());
+            } catch (RuntimeException e) {
+                coalescedFetches.remove(source, future);
+                future.completeExceptionally(e);
+            }
+            existing = future;
+        }
+        try {
+            return (T) existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the Loaders need to update their data and runs those that do, together with the Loaders depending on them.
+     * All Loaders {@link #dependsOnLanguage() depending on the Language} get run if the Language changed since the last time.
+     */
+    private static void updateData() {
+        coalescedFetches = new ConcurrentHashMap<>();
+        if(latestLanguage != Settings.getLanguage()) {
+            latestLanguage = Settings.getLanguage();
+            runLoaders(withDependents(LOADERS.stream().filter(Loader::dependsOnLanguage).toList()));
+        } else {
+            runLoaders(withDependents(LOADERS.stream().filter(Loader::shouldReloadData).toList()));
+        }
+    }
+
+    private static synchronized void scheduleNextUpdateCheck() {
+        if (scheduledUpdateCheck != null) scheduledUpdateCheck.cancel(false);
+        scheduledUpdateCheck = null;
+        long interval = updateInterval.toMillis();
+        if (interval <= 0) return;
+        long jitter = (long) (interval * updateJitter);
+        long delay = Math.max(1, interval + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0));
+        scheduledUpdateCheck = getUpdateScheduler().schedule(() -> {
+            try {
+                updateData();
+            } catch (RuntimeException e) {
+                Core.LOGGER.error(MARKER, "Failed to update static data", e);
+            } finally {
+                synchronized (Loader.class) {
+                    if (updateScheduler != null && !updateScheduler.isShutdown()) scheduleNextUpdateCheck();
+                }
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static synchronized ScheduledExecutorService getUpdateScheduler() {
+        if (updateScheduler == null) {
+            updateScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "LoaderUpdateChecker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return updateScheduler;
     }
 
     /**
      * This Method gets called on Loaders, which got added by {@link #addLoader(Loader)}.
      * It should get the latest data load it into a Collection of Objects.
+     * Since this Method also gets called while the library is in use, the data should be held in {@link StaticData}, which
+     * publishes each new data set atomically and can reuse unchanged entries of the previous one.
      */
     protected abstract void load();
 
+    /**
+     * Utility Method to run {@link #load()} of a Loader, recorded as {@link LoaderEvent}
+     * @param loader The Loader
+     * @param lazy Whether the data is loaded on first access
+     */
+    private static void load(Loader loader, boolean lazy) {
+        LoaderEvent event = new LoaderEvent();
+        event.begin();
+        boolean success = false;
+        try {
+            loader.load();
+            success = true;
+        } finally {
+            event.finish(loader.getClass(), lazy, success);
+        }
+    }
+
     /**
      * This Method gets called on Loaders, which got added by {@link #addLoader(Loader)}.
      * It should get the newest Version for the static Data and compare it with the latest used Version.
@@ -69,4 +299,174 @@ public abstract class Loader {
      * @return A <b>boolean</b> whether the Data Collections should be updated.
      */
     protected abstract boolean shouldReloadData();
-}
\ No newline at end of file
+
+    /**
+     * Whether the data of this Loader depends on the Language set in {@link Settings}, meaning it has to be reloaded when the
+     * Language changes. Loaders holding their data in {@link LocalizedStaticData} load the Strings of each Language on demand
+     * and should return {@code false}.
+     * @return Whether the Loader has to be run again when the Language changes
+     */
+    protected boolean dependsOnLanguage() {
+        return true;
+    }
+
+    /**
+     * Gets the path of the snapshot file with the given name inside the "data" Folder. Loaders can pass it to
+     * {@link StaticData#update(Map, java.util.function.Function, String, Path)} after a successful load and to
+     * {@link StaticData#loadSnapshot(Path, String, java.util.function.Function, java.util.function.Function)} to start from it.
+     * @param name The name of the data set, e.g. <i>champions</i>
+     * @return The path of the snapshot file
+     */
+    protected static Path getSnapshotFile(String name) {
+        return Path.of("data", name + ".snapshot");
+    }
+
+    /**
+     * Gets the Loaders, which need to be finished before this Loader can {@link #load()}, identified by their class.
+     * Dependencies that were not added by {@link #addLoader(Loader)} are ignored. When a Loader reloads its data,
+     * all Loaders depending on it reload as well. Loaders without dependencies run in the order they were added, unless
+     * {@link Settings#setLoaderParallelism(int)} is set.
+     * @return The classes of the Loaders this Loader depends on
+     */
+    protected Collection<Class<? extends Loader>> getDependencies() {
+        return List.of();
+    }
+
+    /**
+     * Runs the given Loaders as a dependency graph. Independent Loaders are loaded concurrently on a bounded pool of Threads,
+     * and the time each Loader took is logged. Dependencies outside the given Loaders are considered to be loaded already.
+     * @param loaders The Loaders to run
+     * @throws IllegalStateException If the dependencies of the Loaders contain a cycle
+     * @throws RuntimeException The first exception thrown by a Loader, after all other Loaders finished. Loaders depending on
+     * a failed Loader are skipped.
+     */
+    private static void runLoaders(Collection<Loader> loaders) {
+        if (loaders.isEmpty()) return;
+        Map<Class<? extends Loader>, Collection<Class<? extends Loader>>> dependencies = resolveDependencies(loaders);
+        List<Loader> ordered = topologicalOrder(loaders, dependencies);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(Settings.getLoaderParallelism(), ordered.size()), runnable -> {
+            Thread thread = new Thread(runnable, "Loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            Map<Class<? extends Loader>, CompletableFuture<Void>> futures = new HashMap<>();
+            for (Loader loader : ordered) {
+                CompletableFuture<?>[] loaderDependencies = dependencies.get(loader.getClass()).stream()
+                        .map(futures::get)
+                        .filter(Objects::nonNull)
+                        .toArray(CompletableFuture[]::new);
+                futures.put(loader.getClass(), CompletableFuture.allOf(loaderDependencies).thenRunAsync(() -> {
+                    long loaderStart = System.nanoTime();
+                    load(loader, false);
+                    Core.LOGGER.info(MARKER, "Loaded {} in {} ms", loader.getClass().getSimpleName(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loaderStart));
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        } finally {
+            executor.shutdown();
+            Core.LOGGER.info(MARKER, "Ran {} loaders in {} ms", ordered.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Utility Method to get the dependencies of the given Loaders. Unless {@link Settings#setLoaderParallelism(int)} is set,
+     * each Loader without declared dependencies depends on the Loader without declared dependencies added right before it,
+     * such that these Loaders run one after another in the order they were added
+     * @param loaders The Loaders to run
+     * @return The classes of the Loaders each Loader depends on, by the class of the Loader
+     */
+    private static Map<Class<? extends Loader>, Collection<Class<? extends Loader>>> resolveDependencies(Collection<Loader> loaders) {
+        Map<Class<? extends Loader>, Collection<Class<? extends Loader>>> dependencies = new HashMap<>();
+        boolean sequential = !Settings.isLoaderParallelismSet();
+        Class<? extends Loader> previous = null;
+        for (Loader loader : loaders.stream().sorted(Comparator.comparingInt(LOADERS::indexOf)).toList()) {
+            Collection<Class<? extends Loader>> declared = loader.getDependencies();
+            if (sequential && declared.isEmpty()) {
+                dependencies.put(loader.getClass(), previous != null ? List.of(previous) : List.of());
+                previous = loader.getClass();
+            } else {
+                dependencies.put(loader.getClass(), declared);
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Utility Method to sort the given Loaders, such that each Loader comes after all of its dependencies
+     * @param loaders The Loaders to sort
+     * @param dependencies The dependencies of each Loader, see {@link #resolveDependencies(Collection)}
+     * @return The sorted Loaders
+     * @throws IllegalStateException If the dependencies of the Loaders contain a cycle
+     */
+    private static List<Loader> topologicalOrder(Collection<Loader> loaders, Map<Class<? extends Loader>, Collection<Class<? extends Loader>>> dependencies) {
+        Map<Class<? extends Loader>, Loader> byClass = new LinkedHashMap<>();
+        loaders.forEach(loader -> byClass.put(loader.getClass(), loader));
+        List<Loader> ordered = new ArrayList<>(byClass.size());
+        Set<Class<? extends Loader>> visited = new HashSet<>();
+        Set<Class<? extends Loader>> inProgress = new HashSet<>();
+        for (Loader loader : byClass.values()) {
+            visit(loader, byClass, dependencies, visited, inProgress, ordered);
+        }
+        return ordered;
+    }
+
+    private static void visit(Loader loader, Map<Class<? extends Loader>, Loader> byClass, Map<Class<? extends Loader>, Collection<Class<? extends Loader>>> dependencies,
+                              Set<Class<? extends Loader>> visited, Set<Class<? extends Loader>> inProgress, List<Loader> ordered) {
+        if (visited.contains(loader.getClass())) return;
+        if (!inProgress.add(loader.getClass())) {
+            throw new IllegalStateException("Cyclic dependency between loaders involving " + loader.getClass().getName());
+        }
+        for (Class<? extends Loader> dependency : dependencies.get(loader.getClass())) {
+            Loader dependencyLoader = byClass.get(dependency);
+            if (dependencyLoader != null) visit(dependencyLoader, byClass, dependencies, visited, inProgress, ordered);
+        }
+        inProgress.remove(loader.getClass());
+        visited.add(loader.getClass());
+        ordered.add(loader);
+    }
+
+    /**
+     * Utility Method to extend the given Loaders by all registered Loaders which (transitively) depend on them
+     * @param loaders The Loaders whose data changes
+     * @return The given Loaders and their dependents
+     */
+    private static Collection<Loader> withDependents(Collection<Loader> loaders) {
+        Set<Loader> result = new LinkedHashSet<>(loaders);
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (Loader loader : LOADERS) {
+                if (!result.contains(loader) && result.stream().anyMatch(l -> loader.getDependencies().contains(l.getClass()))) {
+                    added = result.add(loader);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * State of a Loader added by {@link #addLazyLoader(Class, Supplier)}
+     */
+    private static class LazyLoader {
+        private final Supplier<? extends Loader> supplier;
+        private volatile CompletableFuture<Void> future;
+        private volatile Thread loadingThread;
+
+        private LazyLoader(Supplier<? extends Loader> supplier) {
+            this.supplier = supplier;
+        }
+
+        private boolean isLoaded() {
+            CompletableFuture<Void> future = this.future;
+            return future != null && future.isDone() && !future.isCompletedExceptionally();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package net.petersil98.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import net.petersil98.core.Core;
+import net.petersil98.core.util.settings.Language;
+import net.petersil98.core.util.settings.Settings;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Holder for a static data set, whose language-independent part (ids, stats, images, ...) is shared by all {@link Language Languages},
+ * while the localized Strings (names, descriptions, ...) are loaded per Language on demand. This allows serving several Languages
+ * at once, without reloading the data set whenever {@link Settings#getLanguage()} changes.
+ * <br>
+ * The localized Strings of a Language are stored in a compact table, which holds one reference per key and localized field.
+ * The Strings themselves are interned across all Languages and data sets, so Strings that are equal in several Languages
+ * (e.g. proper names, or most Strings of <i>en_US</i> and <i>en_GB</i>) are only stored once.
+ * Loaders holding such a data set should return {@code false} in {@link Loader#dependsOnLanguage()}.
+ * @param <K> Type of the Keys
+ * @param <V> Type of the language-independent Values
+ */
+public class LocalizedStaticData<K, V> {
+
+    private static final Marker MARKER = MarkerManager.getMarker(LocalizedStaticData.class.getSimpleName());
+    private static final Interner<String> STRINGS = Interners.newWeakInterner();
+
+    private final StaticData<K, V> shared = new StaticData<>();
+    private final Map<String, Integer> fields;
+    private final Function<Language, Map<K, Map<String, String>>> stringLoader;
+    private final ConcurrentMap<Language, CompletableFuture<StringTable<K>>> tables = new ConcurrentHashMap<>();
+    private volatile Layout<K> layout = new Layout<>(Map.of(), null);
+
+    /**
+     * Constructor
+     * @param fields The names of the localized fields
+     * @param stringLoader The function loading the localized Strings of a Language, keyed by the key of the entry and
+     *                     the name of the field. Missing entries and fields are treated as {@code null}
+     */
+    public LocalizedStaticData(Collection<String> fields, Function<Language, Map<K, Map<String, String>>> stringLoader) {
+        Map<String, Integer> fieldIndex = new HashMap<>();
+        for (String field : fields) fieldIndex.putIfAbsent(field, fieldIndex.size());
+        this.fields = Map.copyOf(fieldIndex);
+        this.stringLoader = Objects.requireNonNull(stringLoader);
+    }
+
+    /**
+     * Gets the language-independent part of the data set, e.g. to mark it as {@link StaticData#loadedBy(Class) loaded by}
+     * a lazy Loader. New data sets have to be published via this class, such that the localized Strings are reloaded as well.
+     * @return The language-independent part
+     */
+    public StaticData<K, V> getShared() {
+        return this.shared;
+    }
+
+    /**
+     * Gets the language-independent value associated with the key
+     * @param key The key
+     * @return The value, {@code null} if there is none
+     */
+    public V get(K key) {
+        return this.shared.get(key);
+    }
+
+    /**
+     * Gets a localized String in the Language set in {@link Settings}
+     * @see #getString(Object, String, Language)
+     * @param key The key of the entry
+     * @param field The name of the localized field
+     * @return The localized String, {@code null} if there is none
+     */
+    public String getString(K key, String field) {
+        return getString(key, field, Settings.getLanguage());
+    }
+
+    /**
+     * Gets a localized String. The Strings of the Language are loaded on first access, concurrent first accesses
+     * share a single load.
+     * @param key The key of the entry
+     * @param field The name of the localized field
+     * @param language The Language
+     * @return The localized String, {@code null} if there is none
+     */
+    public String getString(K key, String field, Language language) {
+        this.shared.ensureLoaded();
+        Integer fieldIndex = this.fields.get(field);
+        if (fieldIndex == null) return null;
+        while (true) {
+            Layout<K> layout = this.layout;
+            Integer keyIndex = layout.keys.get(key);
+            if (keyIndex == null) return null;
+            StringTable<K> table = table(language, layout);
+            if (table.layout == layout) return table.strings[keyIndex * this.fields.size() + fieldIndex];
+        }
+    }
+
+    /**
+     * Gets the Languages whose Strings are currently loaded
+     * @return The loaded Languages
+     */
+    public Set<Language> getLoadedLanguages() {
+        Set<Language> languages = EnumSet.noneOf(Language.class);
+        this.tables.forEach((language, table) -> {
+            if (table.isDone() && !table.isCompletedExceptionally()) languages.add(language);
+        });
+        return languages;
+    }
+
+    /**
+     * Drops the Strings of a Language. They get loaded again on the next access
+     * @param language The Language
+     */
+    public void unload(Language language) {
+        this.tables.remove(language);
+    }
+
+    /**
+     * Publishes a new language-independent data set. Loaded Strings are dropped and loaded again on the next access.
+     * @see StaticData#publish(Map, String)
+     * @param values The new data set
+     * @param version The version of the new data set
+     */
+    public void publish(Map<K, V> values, String version) {
+        this.shared.publish(values, version);
+        relayout();
+    }
+
+    /**
+     * Publishes a new language-independent data set built from the given JSON entries. Loaded Strings are dropped and loaded
+     * again on the next access.
+     * @see StaticData#update(Map, Function, String)
+     * @param entries The JSON of each entry of the new data set
+     * @param parser The function to parse the JSON of an entry
+     * @param version The version of the new data set
+     * @return The number of entries that had to be parsed
+     */
+    public int update(Map<K, JsonNode> entries, Function<JsonNode, V> parser, String version) {
+        int parsed = this.shared.update(entries, parser, version);
+        relayout();
+        return parsed;
+    }
+
+    private void relayout() {
+        Map<K, Integer> keys = new HashMap<>();
+        for (K key : this.shared.asMap().keySet()) keys.put(key, keys.size());
+        this.layout = new Layout<>(keys, this.shared.getVersion());
+        this.tables.clear();
+    }
+
+    private StringTable<K> table(Language language, Layout<K> layout) {
+        CompletableFuture<StringTable<K>> future = this.tables.get(language);
+        if (future == null) {
+            CompletableFuture<StringTable<K>> created = new CompletableFuture<>();
+            future = this.tables.putIfAbsent(language, created);
+            if (future == null) {
+                future = created;
+                try {
+                    created.complete(loadTable(language, layout));
+                } catch (RuntimeException e) {
+                    this.tables.remove(language, created);
+                    created.completeExceptionally(e);
+                }
+            }
+        }
+        StringTable<K> table;
+        try {
+            table = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        if (table.layout != layout) this.tables.remove(language, future);
+        return table;
+    }
+
+    private StringTable<K> loadTable(Language language, Layout<K> layout) {
+        long start = System.nanoTime();
+        String[] strings = new String[layout.keys.size() * this.fields.size()];
+        this.stringLoader.apply(language).forEach((key, values) -> {
+            Integer keyIndex = layout.keys.get(key);
+            if (keyIndex == null || values == null) return;
+            values.forEach((field, value) -> {
+                Integer fieldIndex = this.fields.get(field);
+                if (fieldIndex != null && value != null) strings[keyIndex * this.fields.size() + fieldIndex] = STRINGS.intern(value);
+            });
+        });
+        if (Core.LOGGER.isDebugEnabled(MARKER)) {
+            Core.LOGGER.debug(MARKER, "Loaded {} strings for {} in {} ms", strings.length, language,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return new StringTable<>(layout, strings);
+    }
+
+    /**
+     * Position of each key in the String tables of one version of the data set
+     */
+    private record Layout<K>(Map<K, Integer> keys, String version) {}
+
+    /**
+     * Localized Strings of one Language, indexed by <i>keyIndex * fieldCount + fieldIndex</i>
+     */
+    private record StringTable<K>(Layout<K> layout, String[] strings) {}
+}
@@ -0,0 +1,60 @@
+package net.petersil98.core.util;
+
+import net.petersil98.core.Core;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits how many messages get logged per interval, such that a burst of identical errors, e.g. while the Rate Limit is
+ * exceeded, doesn't flood the log. Messages beyond the limit are dropped and counted; the number of dropped messages is
+ * logged with the first message of the next interval.
+ */
+public class LogThrottle {
+
+    private final Marker marker;
+    private final int maxPerInterval;
+    private final long intervalInNanos;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger logged = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    /**
+     * Constructor
+     * @param marker The Marker the messages are logged with
+     * @param maxPerInterval The maximum number of messages logged per interval
+     * @param interval The length of an interval
+     */
+    public LogThrottle(Marker marker, int maxPerInterval, Duration interval) {
+        this.marker = marker;
+        this.maxPerInterval = maxPerInterval;
+        this.intervalInNanos = interval.toNanos();
+    }
+
+    /**
+     * Checks whether a message of the given level should be logged, which is the case if the level is enabled and the limit
+     * of the current interval isn't reached. Meant as guard around the actual (parameterized) logging call, such that
+     * neither the message nor its parameters are built for dropped messages, e.g.
+     * <pre>{@code if (THROTTLE.shouldLog(Level.WARN)) Core.LOGGER.warn(MARKER, "Failed request to {}", url);}</pre>
+     * @param level The level
+     * @return Whether the message should be logged
+     */
+    public boolean shouldLog(Level level) {
+        if (!Core.LOGGER.isEnabled(level, this.marker)) return false;
+        long now = System.nanoTime();
+        long start = this.windowStart.get();
+        if (now - start >= this.intervalInNanos && this.windowStart.compareAndSet(start, now)) {
+            this.logged.set(0);
+            int dropped = this.suppressed.getAndSet(0);
+            if (dropped > 0) Core.LOGGER.log(level, this.marker, "Suppressed {} similar messages", dropped);
+        }
+        if (this.logged.incrementAndGet() > this.maxPerInterval) {
+            this.suppressed.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,223 @@
+package net.petersil98.core.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.hash.Hashing;
+import net.petersil98.core.Core;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Holder for a static data set loaded by a {@link Loader}, e.g. all Champions or Items keyed by their id.
+ * <br>
+ * Each new version of the data set is built off to the side and then published with a single atomic reference swap,
+ * so readers either see the complete old or the complete new data set, but never a half-loaded one, and never have to wait.
+ * {@link #update(Map, Function, String)} additionally allows incremental reloads: only entries whose JSON changed compared to
+ * the current data set get parsed again, unchanged entries reuse the already parsed objects.
+ * <br>
+ * After a successful load, the data set can be written to a binary snapshot file (see {@link #update(Map, Function, String, Path)}),
+ * which {@link #loadSnapshot(Path, String, Function, Function)} maps read-only on the next start. Values of a mapped data set
+ * are only parsed when they are first accessed.
+ * @param <K> Type of the Keys
+ * @param <V> Type of the Values
+ */
+public class StaticData<K, V> {
+
+    private static final Marker MARKER = MarkerManager.getMarker(StaticData.class.getSimpleName());
+
+    private final AtomicReference<Snapshot<K, V>> snapshot = new AtomicReference<>(new Snapshot<>(Map.of(), Map.of(), null));
+    private volatile Class<? extends Loader> loader;
+
+    /**
+     * Marks this data set as loaded by the given lazy Loader (see {@link Loader#addLazyLoader(Class, java.util.function.Supplier)}).
+     * The first access to the data set then loads it, if it wasn't loaded yet.
+     * @param loader The class of the Loader
+     * @return This data set
+     */
+    public StaticData<K, V> loadedBy(Class<? extends Loader> loader) {
+        this.loader = loader;
+        return this;
+    }
+
+    /**
+     * Gets the value associated with the key in the current data set
+     * @param key The key
+     * @return The value, {@code null} if there is none
+     */
+    public V get(K key) {
+        ensureLoaded();
+        return this.snapshot.get().values.get(key);
+    }
+
+    /**
+     * Gets the current data set as an unmodifiable Map. The Map doesn't change when a new data set is published
+     * @return The current data set
+     */
+    public Map<K, V> asMap() {
+        ensureLoaded();
+        return this.snapshot.get().values;
+    }
+
+    /**
+     * Gets the values of the current data set. The Collection doesn't change when a new data set is published
+     * @return The values of the current data set
+     */
+    public Collection<V> values() {
+        ensureLoaded();
+        return this.snapshot.get().values.values();
+    }
+
+    public int size() {
+        ensureLoaded();
+        return this.snapshot.get().values.size();
+    }
+
+    /**
+     * Gets the version of the current data set, as given when it was published
+     * @return The version, {@code null} if no data set was published yet
+     */
+    public String getVersion() {
+        ensureLoaded();
+        return this.snapshot.get().version;
+    }
+
+    /**
+     * Publishes a completely new data set. The given Map gets copied, such that it can't be modified afterward.
+     * Incremental reloads are only possible after data sets that were published by {@link #update(Map, Function, String)}.
+     * @param values The new data set
+     * @param version The version of the new data set
+     */
+    public void publish(Map<K, V> values, String version) {
+        this.snapshot.set(new Snapshot<>(Collections.unmodifiableMap(new LinkedHashMap<>(values)), Map.of(), version));
+    }
+
+    /**
+     * Publishes a new data set built from the given JSON entries. Entries whose JSON is equal to the one of the current
+     * data set reuse the already parsed value, only new and changed entries get parsed. Entries missing in the given Map
+     * are removed. If parsing an entry fails, nothing gets published.
+     * @param entries The JSON of each entry of the new data set
+     * @param parser The function to parse the JSON of an entry
+     * @param version The version of the new data set
+     * @return The number of entries that had to be parsed
+     */
+    public int update(Map<K, JsonNode> entries, Function<JsonNode, V> parser, String version) {
+        return update(entries, parser, version, null);
+    }
+
+    /**
+     * Publishes a new data set like {@link #update(Map, Function, String)} and afterward writes it to the given snapshot file,
+     * such that the next start can use {@link #loadSnapshot(Path, String, Function, Function)} instead of loading the data again.
+     * The keys are stored by their String representation. Failing to write the snapshot is logged, but doesn't affect the published data set.
+     * @param entries The JSON of each entry of the new data set
+     * @param parser The function to parse the JSON of an entry
+     * @param version The version of the new data set
+     * @param snapshotFile The file to write the snapshot to, {@code null} to not write a snapshot
+     * @return The number of entries that had to be parsed
+     */
+    public int update(Map<K, JsonNode> entries, Function<JsonNode, V> parser, String version, Path snapshotFile) {
+        Snapshot<K, V> current = this.snapshot.get();
+        Map<K, V> values = new LinkedHashMap<>(entries.size() * 4 / 3 + 1);
+        Map<K, Long> fingerprints = new HashMap<>(entries.size() * 4 / 3 + 1);
+        Map<String, byte[]> serialized = snapshotFile != null ? new HashMap<>(entries.size() * 4 / 3 + 1) : null;
+        int parsed = 0;
+        for (Map.Entry<K, JsonNode> entry : entries.entrySet()) {
+            byte[] json = serialize(entry.getValue());
+            long fingerprint = Hashing.murmur3_128().hashBytes(json).asLong();
+            Long currentFingerprint = current.fingerprints.get(entry.getKey());
+            V value = currentFingerprint != null && currentFingerprint == fingerprint ? current.values.get(entry.getKey()) : null;
+            if (value == null) {
+                value = parser.apply(entry.getValue());
+                parsed++;
+            }
+            values.put(entry.getKey(), value);
+            fingerprints.put(entry.getKey(), fingerprint);
+            if (serialized != null) serialized.put(entry.getKey().toString(), json);
+        }
+        this.snapshot.set(new Snapshot<>(Collections.unmodifiableMap(values), fingerprints, version));
+        if (serialized != null) {
+            Map<String, Long> stringFingerprints = new HashMap<>(fingerprints.size() * 4 / 3 + 1);
+            fingerprints.forEach((key, fingerprint) -> stringFingerprints.put(key.toString(), fingerprint));
+            try {
+                StaticDataFile.write(snapshotFile, version, serialized, stringFingerprints);
+            } catch (IOException e) {
+                Core.LOGGER.warn(MARKER, "Failed to write static data snapshot {}", snapshotFile, e);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Publishes the data set stored in the given snapshot file, which was written by {@link #update(Map, Function, String, Path)}.
+     * The file is memory-mapped read-only and values are only parsed when they are first accessed. Incremental reloads
+     * by {@link #update(Map, Function, String)} work after a mapped data set as well.
+     * @param snapshotFile The snapshot file
+     * @param version The expected version of the data set, {@code null} to accept any version
+     * @param keyParser The function to create a key from its String representation
+     * @param parser The function to parse the JSON of an entry
+     * @return Whether the snapshot was published. {@code false} if the file doesn't exist, is invalid or has a different version
+     */
+    public boolean loadSnapshot(Path snapshotFile, String version, Function<String, K> keyParser, Function<JsonNode, V> parser) {
+        if (!Files.isRegularFile(snapshotFile)) return false;
+        StaticDataFile file;
+        try {
+            file = StaticDataFile.open(snapshotFile);
+        } catch (IOException e) {
+            Core.LOGGER.warn(MARKER, "Ignoring invalid static data snapshot {}", snapshotFile, e);
+            return false;
+        }
+        if (version != null && !version.equals(file.getVersion())) return false;
+        Map<K, Long> fingerprints = new HashMap<>(file.size() * 4 / 3 + 1);
+        file.fingerprints().forEach((key, fingerprint) -> fingerprints.put(keyParser.apply(key), fingerprint));
+        this.snapshot.set(new Snapshot<>(file.asMap(keyParser, parser), fingerprints, file.getVersion()));
+        return true;
+    }
+
+    /**
+     * Publishes a new data set built from the fields of a JSON object, as used by the Data Dragon (e.g. the <i>data</i> object
+     * of <i>champion.json</i>).
+     * @see #update(Map, Function, String)
+     * @param object The JSON object, whose fields are the entries of the new data set
+     * @param keyParser The function to create the key from the name of a field
+     * @param parser The function to parse the JSON of an entry
+     * @param version The version of the new data set
+     * @return The number of entries that had to be parsed
+     */
+    public int update(JsonNode object, Function<String, K> keyParser, Function<JsonNode, V> parser, String version) {
+        Map<K, JsonNode> entries = new LinkedHashMap<>();
+        object.fields().forEachRemaining(field -> entries.put(keyParser.apply(field.getKey()), field.getValue()));
+        return update(entries, parser, version);
+    }
+
+    /**
+     * Utility Method to load the data set on first access, if it's loaded by a lazy Loader. The Loader is only forgotten
+     * once it finished successfully, such that accesses from the Loader itself while it's running, or after it failed,
+     * keep going through {@link Loader#ensureLoaded(Class)}.
+     */
+    void ensureLoaded() {
+        Class<? extends Loader> loader = this.loader;
+        if (loader != null) {
+            Loader.ensureLoaded(loader);
+            if (Loader.isLoaded(loader)) this.loader = null;
+        }
+    }
+
+    private static byte[] serialize(JsonNode node) {
+        try {
+            return Core.MAPPER.writeValueAsBytes(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize entry", e);
+        }
+    }
+
+    /**
+     * Immutable version of the data set
+     */
+    private record Snapshot<K, V>(Map<K, V> values, Map<K, Long> fingerprints, String version) {}
+}
@@ -0,0 +1,278 @@
+package net.petersil98.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import net.petersil98.core.Core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Versioned binary snapshot of a {@link StaticData} data set, which is memory-mapped read-only when loaded. Values are kept as
+ * their JSON in the mapped file and only get parsed when they are accessed, so loading a snapshot is a file map instead of
+ * a JSON parse, and several JVMs on one host share the same pages of the page cache.
+ * <br>
+ * The file starts with a header (magic number, format version and the version of the data set), followed by an index sorted
+ * by the hash of the keys and the data section holding the UTF-8 encoded keys and the JSON of the values:
+ * <pre>
+ * int magic, short formatVersion, short versionLength, byte[] version, int entryCount
+ * entryCount * (int keyHash, int keyOffset, int keyLength, int valueOffset, int valueLength, long fingerprint)
+ * byte[] data
+ * </pre>
+ */
+class StaticDataFile {
+
+    private static final int MAGIC = 0x50534453;
+    private static final short FORMAT_VERSION = 1;
+    private static final int INDEX_ENTRY_SIZE = 5 * Integer.BYTES + Long.BYTES;
+
+    private final ByteBuffer buffer;
+    private final String version;
+    private final int entryCount;
+    private final int indexStart;
+    private final int dataStart;
+
+    private StaticDataFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < 8 || buffer.getInt(0) != MAGIC) throw new IOException("Not a static data snapshot");
+        short formatVersion = buffer.getShort(4);
+        if (formatVersion != FORMAT_VERSION) throw new IOException("Unsupported static data snapshot format " + formatVersion);
+        int versionLength = Short.toUnsignedInt(buffer.getShort(6));
+        if (12 + versionLength > buffer.limit()) throw new IOException("Corrupt static data snapshot");
+        byte[] versionBytes = new byte[versionLength];
+        buffer.get(8, versionBytes);
+        this.version = new String(versionBytes, StandardCharsets.UTF_8);
+        this.entryCount = buffer.getInt(8 + versionLength);
+        this.indexStart = 12 + versionLength;
+        long dataStart = this.indexStart + (long) this.entryCount * INDEX_ENTRY_SIZE;
+        if (this.entryCount < 0 || dataStart > buffer.limit()) throw new IOException("Corrupt static data snapshot");
+        this.dataStart = (int) dataStart;
+    }
+
+    /**
+     * Maps the given snapshot file read-only
+     * @param file The snapshot file
+     * @return The mapped snapshot
+     * @throws IOException If the file can't be mapped or is not a valid snapshot
+     */
+    static StaticDataFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new StaticDataFile(buffer);
+        }
+    }
+
+    /**
+     * Writes a snapshot file. The file is replaced atomically, such that concurrent readers never map a partially written file.
+     * @param file The snapshot file
+     * @param version The version of the data set
+     * @param entries The keys and JSON values of the data set
+     * @param fingerprints The fingerprints of the JSON values as computed by {@link StaticData}
+     * @throws IOException If the file can't be written
+     */
+    static void write(Path file, String version, Map<String, byte[]> entries, Map<String, Long> fingerprints) throws IOException {
+        record Entry(String key, byte[] keyBytes, byte[] value, long fingerprint) {}
+        List<Entry> sorted = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> sorted.add(new Entry(key, key.getBytes(StandardCharsets.UTF_8), value, fingerprints.getOrDefault(key, 0L))));
+        sorted.sort(Comparator.comparingInt((Entry entry) -> entry.key.hashCode()).thenComparing(Entry::key));
+
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp); DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+            byte[] versionBytes = version.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(MAGIC);
+            data.writeShort(FORMAT_VERSION);
+            data.writeShort(versionBytes.length);
+            data.write(versionBytes);
+            data.writeInt(sorted.size());
+            int offset = 0;
+            for (Entry entry : sorted) {
+                data.writeInt(entry.key.hashCode());
+                data.writeInt(offset);
+                data.writeInt(entry.keyBytes.length);
+                data.writeInt(offset + entry.keyBytes.length);
+                data.writeInt(entry.value.length);
+                data.writeLong(entry.fingerprint);
+                offset += entry.keyBytes.length + entry.value.length;
+            }
+            for (Entry entry : sorted) {
+                data.write(entry.keyBytes);
+                data.write(entry.value);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    String getVersion() {
+        return this.version;
+    }
+
+    int size() {
+        return this.entryCount;
+    }
+
+    /**
+     * Creates a read-only Map view of this snapshot, which parses values lazily on first access and keeps them afterward
+     * @param keyParser The function to create a key from its String representation
+     * @param parser The function to parse the JSON of a value
+     * @return The Map view
+     * @param <K> Type of the Keys
+     * @param <V> Type of the Values
+     */
+    <K, V> Map<K, V> asMap(Function<String, K> keyParser, Function<JsonNode, V> parser) {
+        return new MappedMap<>(this, keyParser, parser);
+    }
+
+    /**
+     * Collects the fingerprints of all values, keyed by the String representation of their keys
+     * @return The fingerprints
+     */
+    Map<String, Long> fingerprints() {
+        Map<String, Long> fingerprints = new HashMap<>(this.entryCount * 4 / 3 + 1);
+        for (int i = 0; i < this.entryCount; i++) {
+            fingerprints.put(key(i), this.buffer.getLong(indexPosition(i) + 5 * Integer.BYTES));
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Finds the index of the entry with the given key
+     * @param key The String representation of the key
+     * @return The index of the entry, {@code -1} if there is none
+     */
+    int indexOf(String key) {
+        int hash = key.hashCode();
+        int low = 0;
+        int high = this.entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midHash = this.buffer.getInt(indexPosition(mid));
+            if (midHash < hash) low = mid + 1;
+            else if (midHash > hash) high = mid - 1;
+            else {
+                for (int i = mid; i >= 0 && this.buffer.getInt(indexPosition(i)) == hash; i--) {
+                    if (keyEquals(i, key)) return i;
+                }
+                for (int i = mid + 1; i < this.entryCount && this.buffer.getInt(indexPosition(i)) == hash; i++) {
+                    if (keyEquals(i, key)) return i;
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    String key(int index) {
+        int position = indexPosition(index);
+        byte[] bytes = new byte[this.buffer.getInt(position + 2 * Integer.BYTES)];
+        this.buffer.get(this.dataStart + this.buffer.getInt(position + Integer.BYTES), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    JsonNode value(int index) {
+        int position = indexPosition(index);
+        ByteBuffer value = this.buffer.slice(this.dataStart + this.buffer.getInt(position + 3 * Integer.BYTES), this.buffer.getInt(position + 4 * Integer.BYTES));
+        try {
+            return Core.MAPPER.readTree(new ByteBufferBackedInputStream(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse entry " + key(index) + " of static data snapshot", e);
+        }
+    }
+
+    private boolean keyEquals(int index, String key) {
+        return key(index).equals(key);
+    }
+
+    private int indexPosition(int index) {
+        return this.indexStart + index * INDEX_ENTRY_SIZE;
+    }
+
+    /**
+     * Read-only Map backed by a mapped snapshot. Values are parsed on first access, without a lock: Threads reading the
+     * same value for the first time concurrently may each parse it, but all of them get the instance published first.
+     */
+    private static class MappedMap<K, V> extends AbstractMap<K, V> {
+        private final StaticDataFile file;
+        private final Function<String, K> keyParser;
+        private final Function<JsonNode, V> parser;
+        private final AtomicReferenceArray<V> values;
+        private Set<Map.Entry<K, V>> entrySet;
+
+        private MappedMap(StaticDataFile file, Function<String, K> keyParser, Function<JsonNode, V> parser) {
+            this.file = file;
+            this.keyParser = keyParser;
+            this.parser = parser;
+            this.values = new AtomicReferenceArray<>(file.size());
+        }
+
+        @Override
+        public V get(Object key) {
+            int index = key == null ? -1 : this.file.indexOf(key.toString());
+            return index < 0 ? null : valueAt(index);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != null && this.file.indexOf(key.toString()) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return this.file.size();
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            if (this.entrySet == null) {
+                this.entrySet = new AbstractSet<>() {
+                    @Override
+                    public Iterator<Map.Entry<K, V>> iterator() {
+                        return new Iterator<>() {
+                            private int index = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return this.index < file.size();
+                            }
+
+                            @Override
+                            public Map.Entry<K, V> next() {
+                                if (!hasNext()) throw new NoSuchElementException();
+                                int current = this.index++;
+                                return new SimpleImmutableEntry<>(keyParser.apply(file.key(current)), valueAt(current));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return file.size();
+                    }
+                };
+            }
+            return this.entrySet;
+        }
+
+        private V valueAt(int index) {
+            V value = this.values.get(index);
+            if (value != null) return value;
+            V parsed = this.parser.apply(this.file.value(index));
+            if (parsed == null || this.values.compareAndSet(index, null, parsed)) return parsed;
+            return this.values.get(index);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package net.petersil98.core.util.settings;
+
+import net.petersil98.core.http.RiotClient;
+import net.petersil98.core.model.AccountIndex;
+import net.petersil98.core.util.Loader;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * This class holds the Settings of a {@link RiotClient}, see {@link Settings} for the Settings of the current one:
+ * <ul>
+ *     <li><b>Language</b></li>
+ *     <li><b>API Key</b></li>
+ *     <li><b>Decryptor</b> used to decrypt the API Key</li>
+ *     <li><b>API Base Path</b> the requests are sent to</li>
+ *     <li><b>Default Rate Limits</b> used until the actual Rate Limits are known</li>
+ *     <li><b>Loader Parallelism</b> used to load the static data</li>
+ *     <li><b>Not Found Cache TTL</b> for how long responses with status code 404 are cached, per Method</li>
+ *     <li><b>Bulkhead</b> bounding the concurrent requests per Region and Platform</li>
+ *     <li><b>Circuit Breaker</b> rejecting requests to Regions and Platforms that fail or are slow</li>
+ *     <li><b>Adaptive Concurrency</b> limiting the requests in flight per Region and Platform based on their latency</li>
+ * </ul>
+ * The Language should be set at the start of the application. The language only affects the language of the static data.
+ * Changing the language only takes affect if {@link Loader#init()} is called afterward.
+ * <br>
+ * The API Key and Decryptor need to be set before API Requests are being made.
+ */
+public class ClientSettings {
+    private Language language = Language.EN_US;
+    private Supplier<String> encryptedKey;
+    private Function<String, String> decryptor = (s -> s);
+    private boolean shouldCache = false;
+    private String apiBasePath = "https://#.api.riotgames.com/";
+    private String defaultAppRateLimits;
+    private String defaultMethodRateLimits;
+    private int loaderParallelism;
+    private Duration notFoundCacheTTL = Duration.ofSeconds(30);
+    private final Map<String, Duration> notFoundCacheTTLs = new ConcurrentHashMap<>();
+    private int bulkheadMaxConcurrent = 64;
+    private int bulkheadMaxQueued = 1024;
+    private Duration bulkheadMaxWait = Duration.ofSeconds(30);
+    private double circuitBreakerFailureRate = 0.5;
+    private Duration circuitBreakerSlowCallThreshold = Duration.ofSeconds(10);
+    private Duration circuitBreakerOpenDuration = Duration.ofSeconds(30);
+    private int adaptiveConcurrencyInitialLimit = 20;
+    private int adaptiveConcurrencyMaxLimit = 200;
+    private AccountIndex accountIndex;
+    private Duration accountIndexMaxAge = Duration.ofDays(1);
+    private boolean compactAccounts = false;
+
+    public Language getLanguage() {
+        return this.language;
+    }
+
+    public void setLanguage(Language newLanguage) {
+        if (newLanguage != null) this.language = newLanguage;
+    }
+
+    public String getAPIKey() {
+        return this.decryptor.apply(this.encryptedKey.get());
+    }
+
+    public void setAPIKey(Supplier<String> encryptedKey) {
+        if (encryptedKey != null) this.encryptedKey = encryptedKey;
+    }
+
+    public void setDecryptor(Function<String, String> decryptor) {
+        if (decryptor != null) this.decryptor = decryptor;
+    }
+
+    public void useCache(boolean shouldCache) {
+        this.shouldCache = shouldCache;
+    }
+
+    public boolean useCache() {
+        return this.shouldCache;
+    }
+
+    public String getAPIBasePath() {
+        return this.apiBasePath;
+    }
+
+    /**
+     * Sets the Base Path all API requests are sent to. The <b>#</b> in the Path gets replaced with the Region or Platform
+     * of the request. Defaults to <code>https://#.api.riotgames.com/</code> and only needs to be changed to point the
+     * library at a proxy or a local stub server.
+     * @param apiBasePath The new Base Path, including the trailing <b>/</b>
+     */
+    public void setAPIBasePath(String apiBasePath) {
+        if (apiBasePath != null) this.apiBasePath = apiBasePath;
+    }
+
+    public String getDefaultAppRateLimits() {
+        return this.defaultAppRateLimits;
+    }
+
+    public String getDefaultMethodRateLimits() {
+        return this.defaultMethodRateLimits;
+    }
+
+    /**
+     * Sets the Rate Limits that are used for a Region or Method until the actual Rate Limits are known from the headers
+     * of the first response. Without default Rate Limits, only a single probe request per Region and Method is made until
+     * the Rate Limits are known. The Rate Limits use the format of the <i>x-app-rate-limit</i> and <i>x-method-rate-limit</i>
+     * headers, e.g. <code>20:1,100:120</code>, and {@code null} disables the respective default.
+     * @param appRateLimits The default Application Rate Limits per Region
+     * @param methodRateLimits The default Rate Limits per Method in a Region
+     * @throws IllegalArgumentException If one of the Rate Limits is not in the expected format
+     */
+    public void setDefaultRateLimits(String appRateLimits, String methodRateLimits) {
+        this.defaultAppRateLimits = validateRateLimits(appRateLimits);
+        this.defaultMethodRateLimits = validateRateLimits(methodRateLimits);
+    }
+
+    /**
+     * Gets the maximum number of {@link Loader Loaders} that load their static data concurrently
+     * @return The parallelism if set, the number of available processors otherwise
+     */
+    public int getLoaderParallelism() {
+        return this.loaderParallelism > 0 ? this.loaderParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public boolean isLoaderParallelismSet() {
+        return this.loaderParallelism > 0;
+    }
+
+    /**
+     * Sets the maximum number of {@link Loader Loaders} that load their static data concurrently. Defaults to the number of
+     * available processors. As long as it isn't set, Loaders that don't declare their {@link Loader#getDependencies() dependencies}
+     * run one after another in the order they were added, like they did before Loaders could declare dependencies. Once it's set,
+     * all Loaders without dependencies between them may run concurrently.
+     * @param loaderParallelism The maximum number of concurrently running Loaders, needs to be positive
+     */
+    public void setLoaderParallelism(int loaderParallelism) {
+        if (loaderParallelism > 0) this.loaderParallelism = loaderParallelism;
+    }
+
+    /**
+     * Gets for how long responses with status code 404 of the given Method are cached
+     * @param endpointMethod The Method, e.g. <code>account/v1/accounts/by-puuid</code>
+     * @return The TTL of the Method if set, the default TTL otherwise
+     */
+    public Duration getNotFoundCacheTTL(String endpointMethod) {
+        return this.notFoundCacheTTLs.getOrDefault(endpointMethod, this.notFoundCacheTTL);
+    }
+
+    /**
+     * Sets for how long responses with status code 404 are cached by default. Repeated requests for a missing resource within
+     * the TTL then fail without using up the Rate Limits. Unlike the regular cache, this is independent of {@link #useCache()}.
+     * Defaults to 30 seconds, zero disables caching of 404 responses.
+     * @param ttl The default TTL
+     */
+    public void setNotFoundCacheTTL(Duration ttl) {
+        if (ttl != null) this.notFoundCacheTTL = ttl;
+    }
+
+    /**
+     * Sets for how long responses with status code 404 of the given Method are cached
+     * @see #setNotFoundCacheTTL(Duration)
+     * @param endpointMethod The Method, e.g. <code>account/v1/accounts/by-puuid</code>
+     * @param ttl The TTL of the Method, {@code null} to use the default TTL again
+     */
+    public void setNotFoundCacheTTL(String endpointMethod, Duration ttl) {
+        if (ttl == null) this.notFoundCacheTTLs.remove(endpointMethod);
+        else this.notFoundCacheTTLs.put(endpointMethod, ttl);
+    }
+
+    public int getBulkheadMaxConcurrent() {
+        return this.bulkheadMaxConcurrent;
+    }
+
+    public int getBulkheadMaxQueued() {
+        return this.bulkheadMaxQueued;
+    }
+
+    public Duration getBulkheadMaxWait() {
+        return this.bulkheadMaxWait;
+    }
+
+    /**
+     * Sets the Bulkhead used for each Region and Platform, which bounds the number of requests to a Region in flight at once, such that
+     * Threads piling up on a slow Region can't starve the other Regions. Only affects Regions without requests so far.
+     * Defaults to 64 concurrent and 1024 waiting requests, which wait up to 30 seconds.
+     * @param maxConcurrent The maximum number of concurrent requests per Region, needs to be positive
+     * @param maxQueued The maximum number of requests per Region waiting for one of the others to finish
+     * @param maxWait How long a request waits at most, before it fails with a {@link net.petersil98.core.http.exceptions.BulkheadFullException}
+     */
+    public void setBulkhead(int maxConcurrent, int maxQueued, Duration maxWait) {
+        if (maxConcurrent > 0) this.bulkheadMaxConcurrent = maxConcurrent;
+        this.bulkheadMaxQueued = Math.max(0, maxQueued);
+        if (maxWait != null) this.bulkheadMaxWait = maxWait;
+    }
+
+    public double getCircuitBreakerFailureRate() {
+        return this.circuitBreakerFailureRate;
+    }
+
+    public Duration getCircuitBreakerSlowCallThreshold() {
+        return this.circuitBreakerSlowCallThreshold;
+    }
+
+    public Duration getCircuitBreakerOpenDuration() {
+        return this.circuitBreakerOpenDuration;
+    }
+
+    /**
+     * Sets the Circuit Breaker used for each Region and Platform. Once the share of recent requests to a Region that failed (no response
+     * or a server error) or were slow reaches the failure rate, requests to the Region fail fast with a
+     * {@link net.petersil98.core.http.exceptions.CircuitOpenException} or are served from the cache, until the open duration passed.
+     * Only affects Regions without requests so far. Defaults to a failure rate of 0.5, 10 seconds for slow requests and
+     * 30 seconds open duration. A failure rate above 1 disables the Circuit Breaker.
+     * @param failureRate The share of failed or slow requests at which requests are rejected
+     * @param slowCallThreshold The duration after which a request counts as slow
+     * @param openDuration How long requests are rejected before trying the Region again
+     */
+    public void setCircuitBreaker(double failureRate, Duration slowCallThreshold, Duration openDuration) {
+        if (failureRate > 0) this.circuitBreakerFailureRate = failureRate;
+        if (slowCallThreshold != null) this.circuitBreakerSlowCallThreshold = slowCallThreshold;
+        if (openDuration != null) this.circuitBreakerOpenDuration = openDuration;
+    }
+
+    public int getAdaptiveConcurrencyInitialLimit() {
+        return this.adaptiveConcurrencyInitialLimit;
+    }
+
+    public int getAdaptiveConcurrencyMaxLimit() {
+        return this.adaptiveConcurrencyMaxLimit;
+    }
+
+    /**
+     * Sets the limits of the adaptive concurrency limiter used for each Region and Platform, which grows the number of requests in flight
+     * while the latency of the Region stays low, and shrinks it once the latency inflates or requests fail.
+     * Only affects Regions without requests so far. Defaults to an initial limit of 20 and a maximum of 200.
+     * @see net.petersil98.core.http.resilience.AdaptiveConcurrencyLimiter
+     * @param initialLimit The number of concurrent requests per Region to start with, zero or negative disables the limiter
+     * @param maxLimit The maximum number of concurrent requests per Region
+     */
+    public void setAdaptiveConcurrency(int initialLimit, int maxLimit) {
+        this.adaptiveConcurrencyInitialLimit = initialLimit;
+        this.adaptiveConcurrencyMaxLimit = Math.max(initialLimit, maxLimit);
+    }
+
+    public AccountIndex getAccountIndex() {
+        return this.accountIndex;
+    }
+
+    public Duration getAccountIndexMaxAge() {
+        return this.accountIndexMaxAge;
+    }
+
+    /**
+     * Sets the persistent {@link AccountIndex} Accounts are looked up in before making a request. Every Account returned
+     * by the API is written to the index. Disabled by default.
+     * @param accountIndex The index, {@code null} disables it
+     * @param maxAge How long an Account in the index is used before it's requested again. Defaults to 1 day
+     */
+    public void setAccountIndex(AccountIndex accountIndex, Duration maxAge) {
+        this.accountIndex = accountIndex;
+        if (maxAge != null) this.accountIndexMaxAge = maxAge;
+    }
+
+    public boolean useCompactAccounts() {
+        return this.compactAccounts;
+    }
+
+    /**
+     * Sets whether the Accounts returned by the Account lookups are stored compactly and deduplicated by their PUUID,
+     * which reduces the memory of large numbers of Accounts held at once. Disabled by default.
+     * @see net.petersil98.core.model.Account
+     * @param compactAccounts Whether compact Accounts are enabled
+     */
+    public void setCompactAccounts(boolean compactAccounts) {
+        this.compactAccounts = compactAccounts;
+    }
+
+    private static String validateRateLimits(String rateLimits) {
+        if (rateLimits != null && !rateLimits.matches("[1-9]\\d*:[1-9]\\d*(,[1-9]\\d*:[1-9]\\d*)*")) {
+            throw new IllegalArgumentException("Rate Limits need to be in the format <limit>:<seconds>[,<limit>:<seconds>]* but got " + rateLimits);
+        }
+        return rateLimits;
+    }
+}
@@ -1,53 +1,197 @@
 package net.petersil98.core.util.settings;
 
-import net.petersil98.core.util.Loader;
+import net.petersil98.core.http.RiotClient;
+import net.petersil98.core.model.AccountIndex;
 
+import java.time.Duration;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
- * This class holds the current Settings used by the library:
- * <ul>
- *     <li><b>Language</b></li>
- *     <li><b>API Key</b></li>
- *     <li><b>Decryptor</b> used to decrypt the API Key</li>
- * </ul>
- * The Language should be set at the start of the application. The language only affects the language of the static data.
- * Changing the language only takes affect if {@link Loader#init()} is called afterward.
+ * This class gives access to the Settings of the current {@link RiotClient}, which is the client the calling Thread runs
+ * requests for (see {@link RiotClient#call(java.util.function.Supplier)}), or the default client otherwise.
+ * Applications with a single API Key only ever use the default client. See {@link ClientSettings} for the individual Settings.
+ * <br>
+ * The Language is shared by the static data of all clients and should be set on the default client at the start of the
+ * application. Changing the language only takes affect if {@link net.petersil98.core.util.Loader#init()} is called afterward.
  * <br>
  * The API Key and Decryptor need to be set before API Requests are being made.
  */
 public class Settings {
-    private static Language language = Language.EN_US;
-    private static Supplier<String> encryptedKey;
-    private static Function<String, String> decryptor = (s -> s);
-    private static boolean shouldCache = false;
+
+    private static ClientSettings current() {
+        return RiotClient.current().getSettings();
+    }
 
     public static Language getLanguage() {
-        return Settings.language;
+        return current().getLanguage();
     }
 
     public static void setLanguage(Language newLanguage) {
-        if (newLanguage != null) Settings.language = newLanguage;
+        current().setLanguage(newLanguage);
     }
 
     public static String getAPIKey() {
-        return Settings.decryptor.apply(Settings.encryptedKey.get());
+        return current().getAPIKey();
     }
 
     public static void setAPIKey(Supplier<String> encryptedKey) {
-        if (encryptedKey != null) Settings.encryptedKey = encryptedKey;
+        current().setAPIKey(encryptedKey);
     }
 
     public static void setDecryptor(Function<String, String> decryptor) {
-        if (decryptor != null) Settings.decryptor = decryptor;
+        current().setDecryptor(decryptor);
     }
 
     public static void useCache(boolean shouldCache) {
-        Settings.shouldCache = shouldCache;
+        current().useCache(shouldCache);
     }
 
     public static boolean useCache() {
-        return shouldCache;
+        return current().useCache();
+    }
+
+    public static String getAPIBasePath() {
+        return current().getAPIBasePath();
+    }
+
+    /**
+     * @see ClientSettings#setAPIBasePath(String)
+     */
+    public static void setAPIBasePath(String apiBasePath) {
+        current().setAPIBasePath(apiBasePath);
+    }
+
+    public static String getDefaultAppRateLimits() {
+        return current().getDefaultAppRateLimits();
+    }
+
+    public static String getDefaultMethodRateLimits() {
+        return current().getDefaultMethodRateLimits();
+    }
+
+    /**
+     * @see ClientSettings#setDefaultRateLimits(String, String)
+     */
+    public static void setDefaultRateLimits(String appRateLimits, String methodRateLimits) {
+        current().setDefaultRateLimits(appRateLimits, methodRateLimits);
+    }
+
+    /**
+     * @see ClientSettings#getLoaderParallelism()
+     */
+    public static int getLoaderParallelism() {
+        return current().getLoaderParallelism();
+    }
+
+    public static boolean isLoaderParallelismSet() {
+        return current().isLoaderParallelismSet();
+    }
+
+    /**
+     * @see ClientSettings#setLoaderParallelism(int)
+     */
+    public static void setLoaderParallelism(int loaderParallelism) {
+        current().setLoaderParallelism(loaderParallelism);
+    }
+
+    /**
+     * @see ClientSettings#getNotFoundCacheTTL(String)
+     */
+    public static Duration getNotFoundCacheTTL(String endpointMethod) {
+        return current().getNotFoundCacheTTL(endpointMethod);
+    }
+
+    /**
+     * @see ClientSettings#setNotFoundCacheTTL(Duration)
+     */
+    public static void setNotFoundCacheTTL(Duration ttl) {
+        current().setNotFoundCacheTTL(ttl);
+    }
+
+    /**
+     * @see ClientSettings#setNotFoundCacheTTL(String, Duration)
+     */
+    public static void setNotFoundCacheTTL(String endpointMethod, Duration ttl) {
+        current().setNotFoundCacheTTL(endpointMethod, ttl);
+    }
+
+    public static int getBulkheadMaxConcurrent() {
+        return current().getBulkheadMaxConcurrent();
+    }
+
+    public static int getBulkheadMaxQueued() {
+        return current().getBulkheadMaxQueued();
+    }
+
+    public static Duration getBulkheadMaxWait() {
+        return current().getBulkheadMaxWait();
+    }
+
+    /**
+     * @see ClientSettings#setBulkhead(int, int, Duration)
+     */
+    public static void setBulkhead(int maxConcurrent, int maxQueued, Duration maxWait) {
+        current().setBulkhead(maxConcurrent, maxQueued, maxWait);
+    }
+
+    public static double getCircuitBreakerFailureRate() {
+        return current().getCircuitBreakerFailureRate();
+    }
+
+    public static Duration getCircuitBreakerSlowCallThreshold() {
+        return current().getCircuitBreakerSlowCallThreshold();
+    }
+
+    public static Duration getCircuitBreakerOpenDuration() {
+        return current().getCircuitBreakerOpenDuration();
+    }
+
+    /**
+     * @see ClientSettings#setCircuitBreaker(double, Duration, Duration)
+     */
+    public static void setCircuitBreaker(double failureRate, Duration slowCallThreshold, Duration openDuration) {
+        current().setCircuitBreaker(failureRate, slowCallThreshold, openDuration);
+    }
+
+    public static int getAdaptiveConcurrencyInitialLimit() {
+        return current().getAdaptiveConcurrencyInitialLimit();
+    }
+
+    public static int getAdaptiveConcurrencyMaxLimit() {
+        return current().getAdaptiveConcurrencyMaxLimit();
+    }
+
+    /**
+     * @see ClientSettings#setAdaptiveConcurrency(int, int)
+     */
+    public static void setAdaptiveConcurrency(int initialLimit, int maxLimit) {
+        current().setAdaptiveConcurrency(initialLimit, maxLimit);
+    }
+
+    public static AccountIndex getAccountIndex() {
+        return current().getAccountIndex();
+    }
+
+    public static Duration getAccountIndexMaxAge() {
+        return current().getAccountIndexMaxAge();
+    }
+
+    /**
+     * @see ClientSettings#setAccountIndex(AccountIndex, Duration)
+     */
+    public static void setAccountIndex(AccountIndex accountIndex, Duration maxAge) {
+        current().setAccountIndex(accountIndex, maxAge);
+    }
+
+    public static boolean useCompactAccounts() {
+        return current().useCompactAccounts();
+    }
+
+    /**
+     * @see ClientSettings#setCompactAccounts(boolean)
+     */
+    public static void setCompactAccounts(boolean compactAccounts) {
+        current().setCompactAccounts(compactAccounts);
     }
 }
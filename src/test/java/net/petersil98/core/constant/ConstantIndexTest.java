@@ -0,0 +1,98 @@
+package net.petersil98.core.constant;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstantIndexTest {
+
+    @Test
+    void regionsAreFoundCaseInsensitively() {
+        assertSame(Region.EUROPE, Region.getRegion("europe"));
+        assertSame(Region.EUROPE, Region.getRegion("EUROPE"));
+        assertSame(Region.SEA, Region.getRegion("Sea"));
+        assertNull(Region.getRegion("eu"));
+        assertNull(Region.getRegion(""));
+        assertNull(Region.getRegion(null));
+    }
+
+    @Test
+    void valuesAreCachedInDeclarationOrder() {
+        List<Region> values = Region.values(Region.class);
+
+        assertEquals(List.of(Region.AMERICA, Region.EUROPE, Region.ASIA, Region.SEA), values);
+        assertSame(values, Region.values(Region.class));
+        assertThrows(UnsupportedOperationException.class, () -> values.add(Region.EUROPE));
+    }
+
+    @Test
+    void constantsOfSubclassesAreIndexedSeparately() {
+        assertSame(TestPlatform.EUW1, Platform.getPlatform(TestPlatform.class, "euw1"));
+        assertSame(TestPlatform.NA1, Platform.getPlatform(TestPlatform.class, "NA1"));
+        assertNull(Platform.getPlatform(TestPlatform.class, "kr"));
+        assertNull(Platform.getPlatform("euw1"));
+        assertEquals(List.of(TestPlatform.EUW1, TestPlatform.NA1), Platform.values(TestPlatform.class));
+        assertEquals(List.of(), Platform.values(Platform.class));
+    }
+
+    @Test
+    void everyConstantOfALargeClassIsFound() {
+        List<TestRegion> values = Region.values(TestRegion.class);
+
+        assertEquals(12, values.size());
+        for (TestRegion region : values) {
+            assertSame(region, Region.getRegion(TestRegion.class, region.toString().toUpperCase()));
+        }
+        assertNull(Region.getRegion(TestRegion.class, "region13"));
+    }
+
+    @Test
+    void indexBuiltDuringStaticInitializationIsNotCached() {
+        assertEquals(List.of(SelfReferencingPlatform.FIRST), SelfReferencingPlatform.EARLY);
+
+        assertEquals(List.of(SelfReferencingPlatform.FIRST, SelfReferencingPlatform.SECOND), Platform.values(SelfReferencingPlatform.class));
+        assertSame(SelfReferencingPlatform.SECOND, Platform.getPlatform(SelfReferencingPlatform.class, "second"));
+    }
+
+    static class TestPlatform extends Platform {
+        public static final TestPlatform EUW1 = new TestPlatform("euw1");
+        public static final TestPlatform NA1 = new TestPlatform("na1");
+        public static TestPlatform notFinal = new TestPlatform("kr");
+        static final TestPlatform NOT_PUBLIC = new TestPlatform("jp1");
+
+        private TestPlatform(String name) {
+            super(name);
+        }
+    }
+
+    static class TestRegion extends Region {
+        public static final TestRegion REGION1 = new TestRegion("region1");
+        public static final TestRegion REGION2 = new TestRegion("region2");
+        public static final TestRegion REGION3 = new TestRegion("region3");
+        public static final TestRegion REGION4 = new TestRegion("region4");
+        public static final TestRegion REGION5 = new TestRegion("region5");
+        public static final TestRegion REGION6 = new TestRegion("region6");
+        public static final TestRegion REGION7 = new TestRegion("region7");
+        public static final TestRegion REGION8 = new TestRegion("region8");
+        public static final TestRegion REGION9 = new TestRegion("region9");
+        public static final TestRegion REGION10 = new TestRegion("region10");
+        public static final TestRegion REGION11 = new TestRegion("region11");
+        public static final TestRegion REGION12 = new TestRegion("region12");
+
+        private TestRegion(String name) {
+            super(name);
+        }
+    }
+
+    static class SelfReferencingPlatform extends Platform {
+        public static final SelfReferencingPlatform FIRST = new SelfReferencingPlatform("first");
+        public static final List<SelfReferencingPlatform> EARLY = values(SelfReferencingPlatform.class);
+        public static final SelfReferencingPlatform SECOND = new SelfReferencingPlatform("second");
+
+        private SelfReferencingPlatform(String name) {
+            super(name);
+        }
+    }
+}
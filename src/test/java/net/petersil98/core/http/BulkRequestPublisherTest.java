@@ -0,0 +1,198 @@
+package net.petersil98.core.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRequestPublisherTest {
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final Semaphore finish = new Semaphore(0);
+
+    @Test
+    void requestsAreOnlyStartedForOutstandingDemand() throws Exception {
+        BulkRequestPublisher<Integer, Integer> publisher = new BulkRequestPublisher<>(IntStream.range(0, 10).boxed(), this::blockingRequest, 4);
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        awaitStarted(2);
+        this.finish.release(2);
+        assertNotNull(subscriber.results.poll(5, TimeUnit.SECONDS));
+        assertNotNull(subscriber.results.poll(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(2, this.started.get());
+
+        subscriber.subscription.request(3);
+        awaitStarted(5);
+        Thread.sleep(100);
+        assertEquals(5, this.started.get());
+        this.finish.release(3);
+        for (int i = 0; i < 3; i++) assertNotNull(subscriber.results.poll(5, TimeUnit.SECONDS));
+        assertFalse(subscriber.done.isDone());
+        subscriber.subscription.cancel();
+    }
+
+    @Test
+    void resultsAreBufferedUntilTheyAreRequested() throws Exception {
+        BulkRequestPublisher<Integer, Integer> publisher = new BulkRequestPublisher<>(IntStream.range(0, 10).boxed(), key -> {
+            this.started.incrementAndGet();
+            return key;
+        }, 4);
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(3);
+        Set<Integer> results = new HashSet<>();
+        for (int i = 0; i < 3; i++) results.add(subscriber.results.poll(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(3, this.started.get());
+        assertTrue(subscriber.results.isEmpty());
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.done.get(5, TimeUnit.SECONDS);
+        subscriber.results.drainTo(results);
+        assertEquals(10, results.size());
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void atMostMaxInFlightRequestsRunAtOnce() throws Exception {
+        BulkRequestPublisher<Integer, Integer> publisher = new BulkRequestPublisher<>(IntStream.range(0, 50).boxed(), key -> {
+            int running = this.running.incrementAndGet();
+            this.maxRunning.accumulateAndGet(running, Math::max);
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.running.decrementAndGet();
+            return key;
+        }, 3);
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        subscriber.done.get(10, TimeUnit.SECONDS);
+        assertEquals(50, subscriber.results.size());
+        assertTrue(this.maxRunning.get() <= 3, "ran " + this.maxRunning.get() + " requests at once");
+    }
+
+    @Test
+    void keysWithoutResultAreSkipped() throws Exception {
+        BulkRequestPublisher<Integer, Integer> publisher = new BulkRequestPublisher<>(IntStream.range(0, 10).boxed(), key -> {
+            if (key % 3 == 0) return null;
+            if (key % 3 == 1) throw new IllegalStateException("Request failed");
+            return key;
+        }, 2);
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        subscriber.done.get(5, TimeUnit.SECONDS);
+        assertEquals(Set.of(2, 5, 8), new HashSet<>(subscriber.results));
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void cancellingStopsRequestsAndClosesTheKeys() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        BulkRequestPublisher<Integer, Integer> publisher = new BulkRequestPublisher<>(
+                IntStream.range(0, 10).boxed().onClose(() -> closed.set(true)), this::blockingRequest, 2);
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        awaitStarted(2);
+        subscriber.subscription.cancel();
+        this.finish.release(10);
+
+        assertTrue(closed.get());
+        Thread.sleep(100);
+        assertEquals(2, this.started.get());
+        assertTrue(subscriber.results.isEmpty());
+        assertFalse(subscriber.done.isDone());
+    }
+
+    @Test
+    void nonPositiveDemandIsAnError() throws Exception {
+        BulkRequestPublisher<Integer, Integer> publisher = new BulkRequestPublisher<>(IntStream.range(0, 10).boxed(), key -> key, 2);
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        subscriber.done.get(5, TimeUnit.SECONDS);
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+    }
+
+    @Test
+    void publisherCanOnlyBeSubscribedToOnce() throws Exception {
+        BulkRequestPublisher<Integer, Integer> publisher = new BulkRequestPublisher<>(IntStream.range(0, 10).boxed(), key -> key, 2);
+        RecordingSubscriber<Integer> first = new RecordingSubscriber<>();
+        RecordingSubscriber<Integer> second = new RecordingSubscriber<>();
+        publisher.subscribe(first);
+
+        publisher.subscribe(second);
+
+        second.done.get(5, TimeUnit.SECONDS);
+        assertInstanceOf(IllegalStateException.class, second.error);
+        first.subscription.cancel();
+    }
+
+    private Integer blockingRequest(Integer key) {
+        this.started.incrementAndGet();
+        this.finish.acquireUninterruptibly();
+        return key;
+    }
+
+    private void awaitStarted(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (this.started.get() < count) {
+            if (System.nanoTime() > deadline) fail("Only " + this.started.get() + " of " + count + " requests started");
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Subscriber recording all signals, which requests nothing by itself
+     */
+    private static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+        private final BlockingQueue<T> results = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            this.results.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+            this.done.complete(null);
+        }
+
+        @Override
+        public void onComplete() {
+            this.done.complete(null);
+        }
+    }
+}
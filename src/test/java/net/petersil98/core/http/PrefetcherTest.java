@@ -0,0 +1,51 @@
+package net.petersil98.core.http;
+
+import net.petersil98.core.constant.Region;
+import net.petersil98.core.util.settings.ClientSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefetcherTest {
+
+    private static final PrefetchRequest REQUEST = new PrefetchRequest("https://europe.api.riotgames.com/riot/account/v1/accounts/by-puuid/puuid",
+            "account/v1/accounts/by-puuid/", Region.EUROPE);
+
+    private final Prefetcher prefetcher = new Prefetcher(1, 0.2);
+    private RiotClient client;
+
+    @BeforeEach
+    void createClient() {
+        this.client = new RiotClient(new ClientSettings());
+        this.client.setPrefetcher(this.prefetcher);
+    }
+
+    @AfterEach
+    void closeClient() {
+        this.client.close();
+    }
+
+    @Test
+    void rejectedRequestCanBeScheduledAgain() {
+        this.prefetcher.shutdown();
+
+        this.prefetcher.prefetch(REQUEST);
+        this.prefetcher.prefetch(REQUEST);
+        assertEquals(2, this.prefetcher.getDroppedCount());
+    }
+
+    @Test
+    void warmUpReturnsOnceRequestsAreRejected() {
+        this.prefetcher.shutdown();
+
+        long start = System.nanoTime();
+        assertEquals(0, this.prefetcher.warmUp(List.of(REQUEST), Duration.ofSeconds(30), 10));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+        assertEquals(1, this.prefetcher.getDroppedCount());
+    }
+}
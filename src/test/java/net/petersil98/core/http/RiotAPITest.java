@@ -0,0 +1,103 @@
+package net.petersil98.core.http;
+
+import net.petersil98.core.constant.Region;
+import net.petersil98.core.http.ratelimit.IPermit;
+import net.petersil98.core.http.ratelimit.RateLimiter;
+import net.petersil98.core.http.resilience.Bulkhead;
+import net.petersil98.core.http.resilience.CircuitBreaker;
+import net.petersil98.core.util.settings.ClientSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiotAPITest {
+
+    private final CountingRateLimiter rateLimiter = new CountingRateLimiter();
+    private RiotClient client;
+
+    @BeforeEach
+    void createClient() {
+        ClientSettings settings = new ClientSettings();
+        settings.setBulkhead(1, 0, Duration.ZERO);
+        settings.setCircuitBreaker(0.5, Duration.ofSeconds(10), Duration.ofMinutes(10));
+        this.client = new RiotClient(settings, this.rateLimiter);
+    }
+
+    @AfterEach
+    void closeClient() {
+        this.client.close();
+    }
+
+    @Test
+    void requestRejectedByFullBulkheadTakesNoPermit() {
+        Bulkhead bulkhead = this.client.getBulkhead(Region.EUROPE);
+        assertTrue(bulkhead.tryEnter());
+
+        assertFailure(Result.ErrorType.BULKHEAD_FULL, request());
+        assertEquals(0, this.rateLimiter.acquired.get());
+
+        bulkhead.exit();
+        assertEquals(1, bulkhead.getAvailableSlots());
+    }
+
+    @Test
+    void requestRejectedByOpenCircuitTakesNoPermit() {
+        CircuitBreaker circuitBreaker = this.client.getCircuitBreaker(Region.EUROPE);
+        for (int i = 0; i < CircuitBreaker.MINIMUM_CALLS; i++) circuitBreaker.onResult(false, 0);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        assertFailure(Result.ErrorType.CIRCUIT_OPEN, request());
+        assertEquals(0, this.rateLimiter.acquired.get());
+    }
+
+    @Test
+    void requestWithoutPermitGivesBackItsBulkheadSlot() {
+        Result<Object> result = this.client.call(() -> RiotAPI.withDeadline(Duration.ZERO, this::request));
+
+        assertFailure(Result.ErrorType.DEADLINE_EXCEEDED, result);
+        assertEquals(1, this.client.getBulkhead(Region.EUROPE).getAvailableSlots());
+        assertEquals(CircuitBreaker.State.CLOSED, this.client.getCircuitBreaker(Region.EUROPE).getState());
+    }
+
+    private Result<Object> request() {
+        return this.client.call(() -> RiotAPI.tryRequestRiotAccountEndpoint("accounts/by-puuid/", "puuid", Region.EUROPE, Object.class));
+    }
+
+    private static void assertFailure(Result.ErrorType type, Result<Object> result) {
+        Result.Failure<Object> failure = assertInstanceOf(Result.Failure.class, result);
+        assertEquals(type, failure.type());
+    }
+
+    /**
+     * Rate Limiter which gives out Permits right away and counts them
+     */
+    private static class CountingRateLimiter extends RateLimiter {
+
+        private final AtomicInteger acquired = new AtomicInteger();
+
+        @Override
+        public IPermit acquire(Region region, String endpointMethod) {
+            this.acquired.incrementAndGet();
+            return new IPermit() {
+                @Override
+                public void cancel() {}
+
+                @Override
+                public void remove() {}
+
+                @Override
+                public boolean isInvalid() {
+                    return true;
+                }
+
+                @Override
+                public void close() {}
+            };
+        }
+    }
+}
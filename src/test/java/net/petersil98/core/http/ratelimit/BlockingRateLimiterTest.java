@@ -0,0 +1,114 @@
+package net.petersil98.core.http.ratelimit;
+
+import net.petersil98.core.constant.Region;
+import net.petersil98.core.http.exceptions.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockingRateLimiterTest {
+
+    private static final String METHOD = "account/v1/accounts/by-puuid/";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ManualClock clock = new ManualClock();
+    private final BlockingRateLimiter rateLimiter = new BlockingRateLimiter(this.clock);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        this.executor.shutdownNow();
+        this.rateLimiter.shutdown();
+    }
+
+    @Test
+    void waitsUntilTheWindowEnds() throws Exception {
+        exhaust("1:1");
+        CompletableFuture<IPermit> permit = acquireAsync(() -> this.rateLimiter.acquire(Region.EUROPE, METHOD));
+        assertWaiting(permit);
+
+        this.clock.advance(Duration.ofSeconds(1).plusNanos(1));
+        permit.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).close();
+    }
+
+    @Test
+    void waitsUntilTheExceededRateLimitEnds() throws Exception {
+        exhaust("100:1");
+        this.rateLimiter.handleRateLimitExceeded(Region.EUROPE, METHOD, HttpHeaders.of(Map.of(
+                "x-rate-limit-type", List.of("application"), "retry-after", List.of("10")), (name, value) -> true));
+        CompletableFuture<IPermit> permit = acquireAsync(() -> this.rateLimiter.acquire(Region.EUROPE, METHOD));
+        assertWaiting(permit);
+
+        this.clock.advance(Duration.ofSeconds(9));
+        assertWaiting(permit);
+        this.clock.advance(Duration.ofSeconds(1));
+        permit.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).close();
+    }
+
+    @Test
+    void failsOncePassedDeadline() {
+        exhaust("1:10");
+        long deadline = this.clock.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        CompletableFuture<IPermit> permit = acquireAsync(() -> this.rateLimiter.acquire(Region.EUROPE, METHOD, deadline));
+        assertWaiting(permit);
+
+        this.clock.advance(Duration.ofSeconds(2));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> permit.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        assertInstanceOf(DeadlineExceededException.class, e.getCause());
+    }
+
+    @Test
+    void failsRightAwayIfDeadlinePassed() {
+        exhaust("10:1");
+        assertThrows(DeadlineExceededException.class, () -> this.rateLimiter.acquire(Region.EUROPE, METHOD, this.clock.nanoTime()));
+    }
+
+    @Test
+    void prefersEarlierDeadline() throws Exception {
+        exhaust("1:1");
+        CompletableFuture<IPermit> later = acquireAsync(() ->
+                this.rateLimiter.acquire(Region.EUROPE, METHOD, this.clock.nanoTime() + TimeUnit.SECONDS.toNanos(60)));
+        assertWaiting(later);
+        CompletableFuture<IPermit> earlier = acquireAsync(() ->
+                this.rateLimiter.acquire(Region.EUROPE, METHOD, this.clock.nanoTime() + TimeUnit.SECONDS.toNanos(30)));
+        assertWaiting(earlier);
+
+        this.clock.advance(Duration.ofSeconds(1).plusNanos(1));
+        earlier.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).close();
+        assertWaiting(later);
+
+        this.clock.advance(Duration.ofSeconds(1).plusNanos(1));
+        later.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).close();
+    }
+
+    /**
+     * Utility Method to make the given Rate Limit known for the App and the Method, counting the request of the response
+     * as the only one, which uses up Rate Limits allowing one request
+     * @param rateLimit The Rate Limit in the format of the <i>x-app-rate-limit</i> header
+     */
+    private void exhaust(String rateLimit) {
+        this.rateLimiter.updateRateLimitsFromHeaders(Region.EUROPE, METHOD, HttpHeaders.of(Map.of(
+                "x-app-rate-limit", List.of(rateLimit), "x-method-rate-limit", List.of(rateLimit)), (name, value) -> true));
+    }
+
+    private CompletableFuture<IPermit> acquireAsync(Supplier<IPermit> acquire) {
+        return CompletableFuture.supplyAsync(acquire, this.executor);
+    }
+
+    private static void assertWaiting(CompletableFuture<IPermit> permit) {
+        assertThrows(TimeoutException.class, () -> permit.get(300, TimeUnit.MILLISECONDS));
+    }
+}
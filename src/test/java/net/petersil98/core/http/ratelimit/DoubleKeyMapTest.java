@@ -0,0 +1,189 @@
+package net.petersil98.core.http.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoubleKeyMapTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void valuesAreIdentifiedByBothKeys() {
+        DoubleKeyMap<String, Integer, String> map = new DoubleKeyMap<>();
+
+        assertTrue(map.isEmpty());
+        assertNull(map.put("a", 1, "a1"));
+        assertNull(map.put("a", 2, "a2"));
+        assertNull(map.put("b", 1, "b1"));
+        assertEquals("a1", map.put("a", 1, "A1"));
+
+        assertEquals(3, map.size());
+        assertFalse(map.isEmpty());
+        assertEquals("A1", map.get("a", 1));
+        assertEquals("b1", map.get("b", 1));
+        assertNull(map.get("b", 2));
+        assertNull(map.get("c", 1));
+        assertTrue(map.containsKey("a", 2));
+        assertFalse(map.containsKey("c", 2));
+        assertEquals("A1", map.putIfAbsent("a", 1, "other"));
+        assertNull(map.putIfAbsent("c", 1, "c1"));
+        assertEquals("c1", map.get("c", 1));
+    }
+
+    @Test
+    void conditionalOperationsOnlyApplyToTheExpectedValue() {
+        DoubleKeyMap<String, Integer, String> map = new DoubleKeyMap<>();
+        map.put("a", 1, "a1");
+
+        assertFalse(map.replace("a", 1, "other", "new"));
+        assertFalse(map.replace("b", 1, "a1", "new"));
+        assertTrue(map.replace("a", 1, "a1", "new"));
+        assertEquals("new", map.get("a", 1));
+
+        assertFalse(map.remove("a", 1, "a1"));
+        assertFalse(map.remove("b", 1, "new"));
+        assertTrue(map.remove("a", 1, "new"));
+        assertNull(map.remove("a", 1));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void removeIfOnlyRemovesMatchingValues() {
+        DoubleKeyMap<String, Integer, Integer> map = new DoubleKeyMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i % 2 == 0 ? "even" : "odd", i, i);
+        }
+
+        assertTrue(map.removeIf((key1, key2, value) -> key1.equals("even") && value >= 4));
+        assertFalse(map.removeIf((key1, key2, value) -> value > 100));
+
+        assertEquals(7, map.size());
+        assertTrue(map.containsKey("even", 2));
+        assertFalse(map.containsKey("even", 4));
+        assertTrue(map.containsKey("odd", 9));
+    }
+
+    @Test
+    void iteratorsRemoveFromTheMap() {
+        DoubleKeyMap<String, Integer, Integer> map = new DoubleKeyMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put("key" + i % 3, i, i);
+        }
+
+        Iterator<DoubleKeyMap.Entry<String, Integer, Integer>> entries = map.entrySet().iterator();
+        assertThrows(IllegalStateException.class, entries::remove);
+        while (entries.hasNext()) {
+            DoubleKeyMap.Entry<String, Integer, Integer> entry = entries.next();
+            assertEquals("key" + entry.getKey2() % 3, entry.getKey1());
+            if (entry.getValue() < 5) entries.remove();
+        }
+        assertThrows(NoSuchElementException.class, entries::next);
+
+        map.values().removeIf(value -> value == 9);
+
+        List<Integer> values = new ArrayList<>(map.values());
+        Collections.sort(values);
+        assertEquals(List.of(5, 6, 7, 8), values);
+        assertEquals(4, map.entrySet().size());
+    }
+
+    @Test
+    void modifyingWhileIteratingDoesNotThrow() {
+        DoubleKeyMap<Integer, Integer, Integer> map = new DoubleKeyMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i % 10, i, i);
+        }
+
+        int visited = 0;
+        for (DoubleKeyMap.Entry<Integer, Integer, Integer> entry : map.entrySet()) {
+            map.remove(entry.getKey1(), entry.getKey2());
+            if (entry.getKey1() < 100) map.put(entry.getKey1() + 100, entry.getKey2(), entry.getValue());
+            visited++;
+        }
+        map.forEach((key1, key2, value) -> map.remove(key1, key2));
+
+        assertTrue(visited >= 100);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void concurrentComputeIfAbsentComputesEachValueOnce() throws Exception {
+        DoubleKeyMap<String, Integer, Object> map = new DoubleKeyMap<>();
+        AtomicInteger computed = new AtomicInteger();
+        List<List<Object>> results = runConcurrently(thread -> {
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                values.add(map.computeIfAbsent("key" + i % 10, i, (key1, key2) -> {
+                    computed.incrementAndGet();
+                    return new Object();
+                }));
+            }
+            return values;
+        });
+
+        assertEquals(100, computed.get());
+        assertEquals(100, map.size());
+        for (List<Object> values : results) {
+            for (int i = 0; i < 100; i++) {
+                assertSame(map.get("key" + i % 10, i), values.get(i));
+            }
+        }
+    }
+
+    @Test
+    void concurrentConditionalRemoveSucceedsOnce() throws Exception {
+        DoubleKeyMap<String, Integer, String> map = new DoubleKeyMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i % 10, i, "value" + i);
+        }
+
+        List<Integer> removed = runConcurrently(thread -> {
+            int count = 0;
+            for (int i = 0; i < 100; i++) {
+                if (map.remove("key" + i % 10, i, "value" + i)) count++;
+            }
+            return count;
+        });
+
+        assertEquals(100, removed.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(map.isEmpty());
+    }
+
+    /**
+     * Utility Method to run the given task on several threads, which all start at the same time
+     * @param task The task, which gets the index of its thread
+     * @return The results of all threads
+     */
+    private static <T> List<T> runConcurrently(ThreadTask<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.run(thread);
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask<T> {
+        T run(int thread);
+    }
+}
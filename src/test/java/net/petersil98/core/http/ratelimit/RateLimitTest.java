@@ -0,0 +1,75 @@
+package net.petersil98.core.http.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTest {
+
+    private final ManualClock clock = new ManualClock();
+
+    @Test
+    void permitsCountUntilTheirWindowEnds() {
+        RateLimit rateLimit = new RateLimit(2, 1, this.clock);
+        rateLimit.acquire().close();
+        rateLimit.acquire().close();
+        assertFalse(rateLimit.isPermitAvailable());
+
+        this.clock.advance(Duration.ofMillis(999));
+        assertEquals(0, rateLimit.releaseInvalidPermits());
+        assertFalse(rateLimit.isPermitAvailable());
+        assertEquals(1, rateLimit.getTimeUntilNextRelease());
+
+        this.clock.advance(Duration.ofMillis(1).plusNanos(1));
+        assertEquals(2, rateLimit.releaseInvalidPermits());
+        assertTrue(rateLimit.isPermitAvailable());
+    }
+
+    @Test
+    void windowStartsWhenPermitIsClosed() {
+        RateLimit rateLimit = new RateLimit(1, 1, this.clock);
+        RateLimit.Permit permit = rateLimit.acquire();
+        this.clock.advance(Duration.ofSeconds(5));
+        assertEquals(0, rateLimit.releaseInvalidPermits());
+        assertEquals(Long.MAX_VALUE, rateLimit.getTimeUntilNextRelease());
+
+        permit.close();
+        this.clock.advance(Duration.ofSeconds(1));
+        assertEquals(0, rateLimit.releaseInvalidPermits());
+        this.clock.advance(Duration.ofNanos(1));
+        assertEquals(1, rateLimit.releaseInvalidPermits());
+    }
+
+    @Test
+    void canceledPermitsAreReleasedRightAway() {
+        RateLimit rateLimit = new RateLimit(1, 10, this.clock);
+        rateLimit.acquire().cancel();
+        assertEquals(1, rateLimit.releaseInvalidPermits());
+        assertTrue(rateLimit.isPermitAvailable());
+    }
+
+    @Test
+    void reserveIsKeptFree() {
+        RateLimit rateLimit = new RateLimit(10, 1, this.clock);
+        for (int i = 0; i < 7; i++) {
+            rateLimit.acquire().close();
+        }
+        assertTrue(rateLimit.isPermitAvailable(0.2));
+        rateLimit.acquire().close();
+        assertFalse(rateLimit.isPermitAvailable(0.2));
+        assertTrue(rateLimit.isPermitAvailable());
+    }
+
+    @Test
+    void exceededRateLimitEndsAfterRetryAfter() {
+        RateLimiter.ExceededRateLimit exceeded = new RateLimiter.ExceededRateLimit(this.clock, this.clock.nanoTime(), 2);
+        assertTrue(exceeded.isStillExceeded());
+        this.clock.advance(Duration.ofMillis(1500));
+        assertTrue(exceeded.isStillExceeded());
+        assertEquals(500, exceeded.getRemainingTime());
+        this.clock.advance(Duration.ofMillis(500));
+        assertFalse(exceeded.isStillExceeded());
+    }
+}
@@ -0,0 +1,113 @@
+package net.petersil98.core.http.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = Duration.ofMillis(1).toNanos();
+
+    @Test
+    void limitGrowsWhileRequestsAreFastAndTheLimitIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 100);
+
+        for (int round = 0; round < 20; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) limiter.acquire();
+            for (int i = 0; i < limit; i++) limiter.release(RTT, false);
+        }
+
+        assertTrue(limiter.getLimit() > 4, "limit is " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitDoesNotGrowWhileMostOfItIsUnused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+
+        for (int i = 0; i < 1_000; i++) {
+            limiter.acquire();
+            limiter.release(RTT, false);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void limitNeverExceedsTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 6);
+
+        for (int round = 0; round < 200; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) limiter.acquire();
+            for (int i = 0; i < limit; i++) limiter.release(RTT, false);
+        }
+
+        assertEquals(6, limiter.getLimit());
+        assertEquals(6, new AdaptiveConcurrencyLimiter(10, 6).getLimit());
+    }
+
+    @Test
+    void failedRequestShrinksTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+
+        limiter.acquire();
+        limiter.release(1, true);
+
+        assertEquals((int) (10 * AdaptiveConcurrencyLimiter.BACKOFF_RATIO), limiter.getLimit());
+    }
+
+    @Test
+    void slowRequestShrinksTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+        limiter.acquire();
+        limiter.release(RTT, false);
+        Thread.sleep(10);
+
+        limiter.acquire();
+        limiter.release((long) (RTT * AdaptiveConcurrencyLimiter.LATENCY_TOLERANCE) + 1, false);
+
+        assertEquals((int) (10 * AdaptiveConcurrencyLimiter.BACKOFF_RATIO), limiter.getLimit());
+    }
+
+    @Test
+    void limitShrinksAtMostOncePerRoundTrip() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+        for (int i = 0; i < 5; i++) limiter.acquire();
+
+        for (int i = 0; i < 5; i++) limiter.release(Duration.ofMinutes(1).toNanos(), true);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void limitNeverShrinksBelowTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.release(1, true);
+        }
+
+        assertEquals(AdaptiveConcurrencyLimiter.MIN_LIMIT, limiter.getLimit());
+    }
+
+    @Test
+    void acquireWaitsWhileTheLimitIsReached() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1);
+        limiter.acquire();
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(limiter::acquire);
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+
+        limiter.release(RTT, false);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(1, limiter.getInFlight());
+    }
+}
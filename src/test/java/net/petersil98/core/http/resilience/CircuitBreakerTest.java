@@ -0,0 +1,118 @@
+package net.petersil98.core.http.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(20).toNanos();
+
+    @Test
+    void circuitStaysClosedBelowTheMinimumNumberOfCalls() {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(10));
+
+        record(circuitBreaker, CircuitBreaker.MINIMUM_CALLS - 1, false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void circuitOpensOnceTheFailureRateIsReached() {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(10));
+        record(circuitBreaker, CircuitBreaker.MINIMUM_CALLS / 2, true);
+        record(circuitBreaker, CircuitBreaker.MINIMUM_CALLS / 2 - 1, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        record(circuitBreaker, 1, false);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.isCallPermitted());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void slowCallsCountAsFailures() {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(10));
+
+        for (int i = 0; i < CircuitBreaker.MINIMUM_CALLS; i++) circuitBreaker.onResult(true, SLOW);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void oldCallsSlideOutOfTheWindow() {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMinutes(10));
+        record(circuitBreaker, CircuitBreaker.WINDOW_SIZE / 2 + 1, true);
+        record(circuitBreaker, CircuitBreaker.WINDOW_SIZE / 2 - 1, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        record(circuitBreaker, 1, false);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void successfulTrialRequestsCloseTheCircuit() throws InterruptedException {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMillis(20));
+        record(circuitBreaker, CircuitBreaker.MINIMUM_CALLS, false);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        Thread.sleep(40);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_CALLS; i++) assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.isCallPermitted());
+        assertFalse(circuitBreaker.tryAcquire());
+        record(circuitBreaker, CircuitBreaker.HALF_OPEN_CALLS - 1, true);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        record(circuitBreaker, 1, true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        record(circuitBreaker, CircuitBreaker.MINIMUM_CALLS - 1, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void failedTrialRequestOpensTheCircuitAgain() throws InterruptedException {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ofMillis(20));
+        record(circuitBreaker, CircuitBreaker.MINIMUM_CALLS, false);
+        Thread.sleep(40);
+        assertTrue(circuitBreaker.tryAcquire());
+        assertTrue(circuitBreaker.tryAcquire());
+
+        record(circuitBreaker, 1, true);
+        record(circuitBreaker, 1, false);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+        Thread.sleep(40);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void releasedTrialRequestCanBeTakenAgain() {
+        CircuitBreaker circuitBreaker = circuitBreaker(Duration.ZERO);
+        record(circuitBreaker, CircuitBreaker.MINIMUM_CALLS, false);
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_CALLS; i++) assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+
+        circuitBreaker.release();
+
+        assertTrue(circuitBreaker.isCallPermitted());
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    private static CircuitBreaker circuitBreaker(Duration openDuration) {
+        return new CircuitBreaker("europe", 0.5, Duration.ofSeconds(10), openDuration);
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, int calls, boolean success) {
+        for (int i = 0; i < calls; i++) circuitBreaker.onResult(success, FAST);
+    }
+}
@@ -0,0 +1,184 @@
+package net.petersil98.core.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountIndexTest {
+
+    private static final Duration MAX_AGE = Duration.ofDays(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void accountsSurviveReopening() throws IOException {
+        Path file = this.directory.resolve("accounts.idx");
+        try (AccountIndex index = AccountIndex.open(file)) {
+            index.put(new Account("puuid-1", "Petersil98", "EUW"));
+            index.put(new Account("puuid-2", "Sträßle", "ÄÖÜ"));
+        }
+
+        try (AccountIndex index = AccountIndex.open(file)) {
+            assertEquals(2, index.size());
+            assertAccount("puuid-1", "Petersil98", "EUW", index.getByPuuid("puuid-1", MAX_AGE));
+            assertAccount("puuid-2", "Sträßle", "ÄÖÜ", index.getByRiotId("Sträßle", "ÄÖÜ", MAX_AGE));
+            assertNull(index.getByPuuid("puuid-3", MAX_AGE));
+        }
+    }
+
+    @Test
+    void riotIdLookupsAreCaseInsensitive() throws IOException {
+        try (AccountIndex index = AccountIndex.open(this.directory.resolve("accounts.idx"))) {
+            index.put(new Account("puuid-1", "Petersil98", "EUW"));
+
+            assertAccount("puuid-1", "Petersil98", "EUW", index.getByRiotId("petersil98", "euw", MAX_AGE));
+        }
+    }
+
+    @Test
+    void recordsOlderThanTheMaximumAgeAreMissing() throws IOException {
+        try (AccountIndex index = AccountIndex.open(this.directory.resolve("accounts.idx"))) {
+            index.put(new Account("puuid-1", "Petersil98", "EUW"));
+
+            assertNull(index.getByPuuid("puuid-1", Duration.ofMillis(-1)));
+            assertNull(index.getByRiotId("Petersil98", "EUW", Duration.ofMillis(-1)));
+        }
+    }
+
+    @Test
+    void renamedAccountIsNotFoundByItsOldRiotId() throws IOException {
+        try (AccountIndex index = AccountIndex.open(this.directory.resolve("accounts.idx"))) {
+            index.put(new Account("puuid-1", "Old", "EUW"));
+            index.put(new Account("puuid-1", "New", "EUW"));
+
+            assertEquals(1, index.size());
+            assertNull(index.getByRiotId("Old", "EUW", MAX_AGE));
+            assertAccount("puuid-1", "New", "EUW", index.getByRiotId("New", "EUW", MAX_AGE));
+            assertAccount("puuid-1", "New", "EUW", index.getByPuuid("puuid-1", MAX_AGE));
+        }
+    }
+
+    @Test
+    void reassignedRiotIdResolvesToItsNewAccount() throws IOException {
+        try (AccountIndex index = AccountIndex.open(this.directory.resolve("accounts.idx"))) {
+            index.put(new Account("puuid-1", "Name", "EUW"));
+            index.put(new Account("puuid-1", "Renamed", "EUW"));
+            index.put(new Account("puuid-2", "Name", "EUW"));
+
+            assertAccount("puuid-2", "Name", "EUW", index.getByRiotId("Name", "EUW", MAX_AGE));
+            assertAccount("puuid-1", "Renamed", "EUW", index.getByPuuid("puuid-1", MAX_AGE));
+        }
+    }
+
+    @Test
+    void growingKeepsAllAccounts() throws IOException {
+        Path file = this.directory.resolve("accounts.idx");
+        int accounts = 10_000;
+        try (AccountIndex index = AccountIndex.open(file)) {
+            for (int i = 0; i < accounts; i++) {
+                index.put(new Account("puuid-" + i, "Name" + i, "EUW"));
+            }
+            assertEquals(accounts, index.size());
+        }
+
+        try (AccountIndex index = AccountIndex.open(file)) {
+            assertEquals(accounts, index.size());
+            for (int i = 0; i < accounts; i++) {
+                assertAccount("puuid-" + i, "Name" + i, "EUW", index.getByRiotId("Name" + i, "EUW", MAX_AGE));
+            }
+        }
+        assertFalse(Files.exists(this.directory.resolve("accounts.idx.tmp")));
+    }
+
+    @Test
+    void rebuildingDropsReplacedRecords() throws IOException {
+        Path file = this.directory.resolve("accounts.idx");
+        try (AccountIndex index = AccountIndex.open(file)) {
+            for (int i = 0; i < 2_000; i++) {
+                index.put(new Account("puuid-" + (i % 10), "Name" + i, "EUW"));
+            }
+            assertEquals(10, index.size());
+            for (int i = 0; i < 10; i++) {
+                String gameName = "Name" + (1_990 + i);
+                assertAccount("puuid-" + i, gameName, "EUW", index.getByPuuid("puuid-" + i, MAX_AGE));
+                assertAccount("puuid-" + i, gameName, "EUW", index.getByRiotId(gameName, "EUW", MAX_AGE));
+                assertNull(index.getByRiotId("Name" + i, "EUW", MAX_AGE));
+            }
+        }
+    }
+
+    @Test
+    void fileWithWrongMagicIsRejected() throws IOException {
+        Path file = createIndex();
+        writeInt(file, 0, 0x12345678);
+
+        assertThrows(IOException.class, () -> AccountIndex.open(file));
+    }
+
+    @Test
+    void fileWithUnsupportedVersionIsRejected() throws IOException {
+        Path file = createIndex();
+        writeInt(file, 4, 99);
+
+        assertThrows(IOException.class, () -> AccountIndex.open(file));
+    }
+
+    @Test
+    void fileWithCorruptCapacityIsRejected() throws IOException {
+        Path file = createIndex();
+        writeInt(file, 8, 3000);
+        assertThrows(IOException.class, () -> AccountIndex.open(file));
+
+        writeInt(file, 8, Integer.MIN_VALUE);
+        assertThrows(IOException.class, () -> AccountIndex.open(file));
+    }
+
+    @Test
+    void fileWithDataBeyondItsEndIsRejected() throws IOException {
+        Path file = createIndex();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, Files.size(file) + 1), 20);
+        }
+
+        assertThrows(IOException.class, () -> AccountIndex.open(file));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = this.directory.resolve("accounts.idx");
+        Files.write(file, new byte[]{0x41, 0x43, 0x49, 0x58});
+
+        assertThrows(IOException.class, () -> AccountIndex.open(file));
+    }
+
+    private Path createIndex() throws IOException {
+        Path file = this.directory.resolve("accounts.idx");
+        try (AccountIndex index = AccountIndex.open(file)) {
+            index.put(new Account("puuid-1", "Petersil98", "EUW"));
+        }
+        return file;
+    }
+
+    private static void writeInt(Path file, int position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+        }
+    }
+
+    private static void assertAccount(String puuid, String gameName, String tagLine, Account account) {
+        assertNotNull(account);
+        assertEquals(puuid, account.getPuuid());
+        assertEquals(gameName, account.getGameName());
+        assertEquals(tagLine, account.getTagLine());
+    }
+}
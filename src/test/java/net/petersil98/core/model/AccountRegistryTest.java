@@ -0,0 +1,122 @@
+package net.petersil98.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountRegistryTest {
+
+    /**
+     * Capacity of a registry created with the default constructor
+     */
+    private static final int CAPACITY = 32;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void accountsOfTheSamePuuidResolveToOneInstance() {
+        AccountRegistry registry = new AccountRegistry();
+        String puuid = PackedPuuidTest.randomPuuid(this.random, 78);
+
+        Account registered = registry.intern(new Account(puuid, "Old", "EUW"));
+        Account renamed = registry.intern(new Account(puuid, "New", "EUW"));
+
+        assertSame(registered, renamed);
+        assertSame(registered, registry.get(puuid));
+        assertEquals("New", registered.getGameName());
+        assertEquals(puuid, registered.getPuuid());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void removingShiftsBackCollidingAccounts() {
+        AccountRegistry registry = new AccountRegistry();
+        List<String> puuids = collidingPuuids(homeSlotPrefix(5), 5);
+        puuids.forEach(puuid -> registry.intern(new Account(puuid, puuid.substring(70), "EUW")));
+
+        assertNotNull(registry.remove(puuids.get(1)));
+
+        assertEquals(4, registry.size());
+        assertNull(registry.get(puuids.get(1)));
+        for (String puuid : List.of(puuids.get(0), puuids.get(2), puuids.get(3), puuids.get(4))) {
+            assertEquals(puuid, registry.get(puuid).getPuuid());
+        }
+        assertNull(registry.remove(puuids.get(1)));
+    }
+
+    @Test
+    void removingShiftsBackAccountsWrappedAroundTheEnd() {
+        AccountRegistry registry = new AccountRegistry();
+        List<String> wrapped = collidingPuuids(homeSlotPrefix(CAPACITY - 1), 3);
+        List<String> atStart = collidingPuuids(homeSlotPrefix(0), 2);
+        wrapped.forEach(puuid -> registry.intern(new Account(puuid, "Name", "EUW")));
+        atStart.forEach(puuid -> registry.intern(new Account(puuid, "Name", "EUW")));
+
+        assertNotNull(registry.remove(wrapped.get(0)));
+        assertNotNull(registry.remove(atStart.get(0)));
+
+        assertEquals(3, registry.size());
+        for (String puuid : List.of(wrapped.get(1), wrapped.get(2), atStart.get(1))) {
+            assertEquals(puuid, registry.get(puuid).getPuuid());
+        }
+    }
+
+    @Test
+    void registryGrowsAndKeepsAllAccounts() {
+        AccountRegistry registry = new AccountRegistry();
+        List<String> puuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String puuid = PackedPuuidTest.randomPuuid(this.random, 78);
+            puuids.add(puuid);
+            registry.intern(new Account(puuid, "Name" + i, "EUW"));
+        }
+
+        assertEquals(10_000, registry.size());
+        for (int i = 0; i < puuids.size(); i++) {
+            assertEquals("Name" + i, registry.get(puuids.get(i)).getGameName());
+        }
+        for (int i = 0; i < puuids.size(); i += 2) {
+            assertNotNull(registry.remove(puuids.get(i)));
+        }
+        assertEquals(5_000, registry.size());
+        for (int i = 1; i < puuids.size(); i += 2) {
+            assertEquals("Name" + i, registry.get(puuids.get(i)).getGameName());
+        }
+    }
+
+    @Test
+    void puuidsWhichCantBePackedAreRegisteredToo() {
+        AccountRegistry registry = new AccountRegistry();
+
+        Account registered = registry.intern(new Account("not+base64url", "Name", "EUW"));
+
+        assertSame(registered, registry.get("not+base64url"));
+        assertSame(registered, registry.remove("not+base64url"));
+        assertEquals(0, registry.size());
+    }
+
+    /**
+     * Utility Method to find a PUUID prefix, long enough to determine the key, whose Accounts start probing at the given slot
+     * @param slot The slot
+     * @return The prefix
+     */
+    private String homeSlotPrefix(int slot) {
+        while (true) {
+            String prefix = PackedPuuidTest.randomPuuid(this.random, 11);
+            long key = PackedPuuid.key(PackedPuuid.pack(prefix + "A".repeat(67)));
+            if (((int) (key ^ (key >>> 32)) & (CAPACITY - 1)) == slot) return prefix;
+        }
+    }
+
+    private List<String> collidingPuuids(String prefix, int count) {
+        List<String> puuids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            puuids.add(prefix + PackedPuuidTest.randomPuuid(this.random, 67));
+        }
+        return puuids;
+    }
+}
@@ -0,0 +1,80 @@
+package net.petersil98.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedPuuidTest {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    private static final String PUUID = "kYp3Gq5R1wBzV7vX8mN2cL4hT6jF9dS0aQeWrTyUiOpAsDfGhJkLzXcVbNm1234567890abcdefghijk";
+
+    @Test
+    void puuidPacksIntoSixBitsPerCharacter() {
+        byte[] packed = PackedPuuid.pack(PUUID);
+
+        assertNotNull(packed);
+        assertEquals(1 + (PUUID.length() * 6 + 7) / 8, packed.length);
+        assertEquals(packed.length, PackedPuuid.length(packed));
+        assertEquals(PUUID, PackedPuuid.unpack(packed));
+    }
+
+    @Test
+    void puuidsOfAnyLengthRoundTrip() {
+        Random random = new Random(42);
+        for (int length = 0; length <= 255; length++) {
+            String puuid = randomPuuid(random, length);
+            byte[] packed = PackedPuuid.pack(puuid);
+
+            assertNotNull(packed, puuid);
+            assertEquals(puuid, PackedPuuid.unpack(packed));
+            assertEquals(puuid.hashCode(), PackedPuuid.hashCode(packed), puuid);
+        }
+    }
+
+    @Test
+    void hashCodeMatchesTheHashCodeOfTheString() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            String puuid = randomPuuid(random, 78);
+            assertEquals(puuid.hashCode(), PackedPuuid.hashCode(PackedPuuid.pack(puuid)));
+        }
+    }
+
+    @Test
+    void puuidsOutsideTheAlphabetAreNotPacked() {
+        assertNull(PackedPuuid.pack("not+base64url"));
+        assertNull(PackedPuuid.pack("umlaut-ä"));
+        assertNull(PackedPuuid.pack("A".repeat(256)));
+    }
+
+    @Test
+    void trailingDataIsIgnoredByEqualsAndHashCode() {
+        byte[] packed = PackedPuuid.pack(PUUID);
+        byte[] withTrailing = PackedPuuid.pack(PUUID, 5);
+        withTrailing[withTrailing.length - 1] = 42;
+
+        assertEquals(packed.length + 5, withTrailing.length);
+        assertEquals(packed.length, PackedPuuid.length(withTrailing));
+        assertTrue(PackedPuuid.equals(packed, withTrailing));
+        assertEquals(PackedPuuid.hashCode(packed), PackedPuuid.hashCode(withTrailing));
+        assertEquals(PackedPuuid.key(packed), PackedPuuid.key(withTrailing));
+        assertEquals(PUUID, PackedPuuid.unpack(withTrailing));
+    }
+
+    @Test
+    void differentPuuidsAreNotEqual() {
+        assertFalse(PackedPuuid.equals(PackedPuuid.pack(PUUID), PackedPuuid.pack(PUUID.substring(1))));
+        assertFalse(PackedPuuid.equals(PackedPuuid.pack(PUUID), PackedPuuid.pack(PUUID.replace('k', 'K'))));
+    }
+
+    static String randomPuuid(Random random, int length) {
+        StringBuilder puuid = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            puuid.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return puuid.toString();
+    }
+}
@@ -0,0 +1,188 @@
+package net.petersil98.core.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoaderTest {
+
+    private static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    private static final List<String> LAZY_EVENTS = new CopyOnWriteArrayList<>();
+    private static final Map<Class<?>, AtomicInteger> LOADS = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void shutdown() {
+        Loader.shutdown();
+    }
+
+    @Test
+    void loadersWithoutDependenciesRunInTheOrderTheyWereAdded() {
+        Loader.setUpdateInterval(Duration.ZERO, 0);
+        Loader.addLoader(new First());
+        Loader.addLoader(new Second());
+        Loader.addLoader(new Third());
+
+        Loader.init();
+
+        assertEquals(List.of("start First", "end First", "start Second", "end Second", "start Third", "end Third"), EVENTS);
+    }
+
+    @Test
+    void lazyLoaderOnlyLoadsOnFirstAccess() {
+        Loader.addLazyLoader(Lazy.class, Lazy::new);
+        assertFalse(Loader.isLoaded(Lazy.class));
+
+        Loader.ensureLoaded(Lazy.class);
+        Loader.ensureLoaded(Lazy.class);
+
+        assertTrue(Loader.isLoaded(Lazy.class));
+        assertEquals(1, loads(Lazy.class));
+    }
+
+    @Test
+    void concurrentFirstAccessesShareOneLoad() throws Exception {
+        Loader.addLazyLoader(SlowLazy.class, SlowLazy::new);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> accesses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                accesses.add(executor.submit(() -> {
+                    start.await();
+                    Loader.ensureLoaded(SlowLazy.class);
+                    return Loader.isLoaded(SlowLazy.class);
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> access : accesses) {
+                assertTrue(access.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads(SlowLazy.class));
+    }
+
+    @Test
+    void failedLazyLoaderIsLoadedAgainOnTheNextAccess() {
+        Loader.addLazyLoader(FailingOnceLazy.class, FailingOnceLazy::new);
+
+        assertThrows(IllegalStateException.class, () -> Loader.ensureLoaded(FailingOnceLazy.class));
+        assertFalse(Loader.isLoaded(FailingOnceLazy.class));
+
+        Loader.ensureLoaded(FailingOnceLazy.class);
+        assertTrue(Loader.isLoaded(FailingOnceLazy.class));
+        assertEquals(2, loads(FailingOnceLazy.class));
+    }
+
+    @Test
+    void dependenciesOfLazyLoadersAreLoadedFirst() {
+        Loader.addLazyLoader(DependentLazy.class, DependentLazy::new);
+        Loader.addLazyLoader(DependencyLazy.class, DependencyLazy::new);
+
+        Loader.ensureLoaded(DependentLazy.class);
+
+        assertEquals(List.of("DependencyLazy", "DependentLazy"), LAZY_EVENTS);
+        assertTrue(Loader.isLoaded(DependencyLazy.class));
+    }
+
+    private static int loads(Class<?> type) {
+        return LOADS.getOrDefault(type, new AtomicInteger()).get();
+    }
+
+    /**
+     * Loader recording when it runs, which fails if another one runs at the same time
+     */
+    private abstract static class RecordingLoader extends Loader {
+
+        @Override
+        protected void load() {
+            String name = getClass().getSimpleName();
+            assertEquals(1, RUNNING.incrementAndGet(), name + " ran concurrently");
+            EVENTS.add("start " + name);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            EVENTS.add("end " + name);
+            RUNNING.decrementAndGet();
+        }
+
+        @Override
+        protected boolean shouldReloadData() {
+            return false;
+        }
+    }
+
+    private static class First extends RecordingLoader {}
+
+    private static class Second extends RecordingLoader {}
+
+    private static class Third extends RecordingLoader {}
+
+    /**
+     * Lazy Loader counting how often it loads
+     */
+    private static class Lazy extends Loader {
+
+        @Override
+        protected void load() {
+            LOADS.computeIfAbsent(getClass(), type -> new AtomicInteger()).incrementAndGet();
+        }
+
+        @Override
+        protected boolean shouldReloadData() {
+            return false;
+        }
+    }
+
+    private static class SlowLazy extends Lazy {
+
+        @Override
+        protected void load() {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.load();
+        }
+    }
+
+    private static class FailingOnceLazy extends Lazy {
+
+        @Override
+        protected void load() {
+            super.load();
+            if (loads(FailingOnceLazy.class) == 1) throw new IllegalStateException("First load fails");
+        }
+    }
+
+    private static class DependencyLazy extends Lazy {
+
+        @Override
+        protected void load() {
+            LAZY_EVENTS.add(getClass().getSimpleName());
+        }
+    }
+
+    private static class DependentLazy extends DependencyLazy {
+
+        @Override
+        protected Collection<Class<? extends Loader>> getDependencies() {
+            return List.of(DependencyLazy.class);
+        }
+    }
+}
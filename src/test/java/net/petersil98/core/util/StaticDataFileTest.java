@@ -0,0 +1,200 @@
+package net.petersil98.core.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticDataFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotRoundTrips() throws IOException {
+        Path file = this.directory.resolve("champions.snapshot");
+        StaticDataFile.write(file, "14.1.1", Map.of("1", json("{\"name\":\"Annie\"}"), "103", json("{\"name\":\"Ahri\"}")),
+                Map.of("1", 11L, "103", 103L));
+
+        StaticDataFile snapshot = StaticDataFile.open(file);
+
+        assertEquals("14.1.1", snapshot.getVersion());
+        assertEquals(2, snapshot.size());
+        assertEquals("Annie", snapshot.value(snapshot.indexOf("1")).get("name").asText());
+        assertEquals("Ahri", snapshot.value(snapshot.indexOf("103")).get("name").asText());
+        assertEquals("103", snapshot.key(snapshot.indexOf("103")));
+        assertEquals(-1, snapshot.indexOf("2"));
+        assertEquals(Map.of("1", 11L, "103", 103L), snapshot.fingerprints());
+        assertFalse(Files.exists(this.directory.resolve("champions.snapshot.tmp")));
+    }
+
+    @Test
+    void keysWithTheSameHashAreFound() throws IOException {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        Path file = this.directory.resolve("collisions.snapshot");
+        StaticDataFile.write(file, "1", Map.of("Aa", json("1"), "BB", json("2"), "C", json("3")), Map.of());
+
+        StaticDataFile snapshot = StaticDataFile.open(file);
+
+        assertEquals(1, snapshot.value(snapshot.indexOf("Aa")).asInt());
+        assertEquals(2, snapshot.value(snapshot.indexOf("BB")).asInt());
+        assertEquals(3, snapshot.value(snapshot.indexOf("C")).asInt());
+        assertEquals(0L, snapshot.fingerprints().get("Aa"));
+    }
+
+    @Test
+    void manyEntriesRoundTrip() throws IOException {
+        Map<String, byte[]> entries = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            entries.put("key-" + i + "-ü", json("{\"value\":" + i + "}"));
+        }
+        Path file = this.directory.resolve("many.snapshot");
+        StaticDataFile.write(file, "version", entries, Map.of());
+
+        Map<String, Integer> map = StaticDataFile.open(file).asMap(Function.identity(), node -> node.get("value").asInt());
+
+        assertEquals(5_000, map.size());
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(i, map.get("key-" + i + "-ü"));
+        }
+        Map<String, Integer> copy = new HashMap<>(map);
+        assertEquals(5_000, copy.size());
+        assertEquals(42, copy.get("key-42-ü"));
+    }
+
+    @Test
+    void writingReplacesTheSnapshot() throws IOException {
+        Path file = this.directory.resolve("items.snapshot");
+        StaticDataFile.write(file, "1", Map.of("a", json("1")), Map.of());
+        StaticDataFile.write(file, "2", Map.of("b", json("2")), Map.of());
+
+        StaticDataFile snapshot = StaticDataFile.open(file);
+
+        assertEquals("2", snapshot.getVersion());
+        assertEquals(-1, snapshot.indexOf("a"));
+        assertEquals(2, snapshot.value(snapshot.indexOf("b")).asInt());
+    }
+
+    @Test
+    void mapParsesEachValueOnce() throws IOException {
+        Path file = this.directory.resolve("champions.snapshot");
+        StaticDataFile.write(file, "1", Map.of("1", json("{\"name\":\"Annie\"}")), Map.of());
+        AtomicInteger parsed = new AtomicInteger();
+
+        Map<Integer, JsonNode> map = StaticDataFile.open(file).asMap(Integer::valueOf, node -> {
+            parsed.incrementAndGet();
+            return node;
+        });
+
+        assertTrue(map.containsKey(1));
+        assertFalse(map.containsKey(2));
+        assertEquals(0, parsed.get());
+        assertSame(map.get(1), map.get(1));
+        assertEquals(1, parsed.get());
+        assertEquals(Set.of(1), map.keySet());
+        assertSame(map.get(1), map.values().iterator().next());
+        assertEquals(1, parsed.get());
+        assertNull(map.get(2));
+    }
+
+    @Test
+    void concurrentFirstAccessesGetTheSameValue() throws Exception {
+        Path file = this.directory.resolve("champions.snapshot");
+        StaticDataFile.write(file, "1", Map.of("1", json("{\"name\":\"Annie\"}")), Map.of());
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 50; round++) {
+                Map<String, JsonNode> map = StaticDataFile.open(file).asMap(Function.identity(), Function.identity());
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<JsonNode>> values = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    values.add(executor.submit(() -> {
+                        start.await();
+                        return map.get("1");
+                    }));
+                }
+                start.countDown();
+                JsonNode first = values.get(0).get(5, TimeUnit.SECONDS);
+                for (Future<JsonNode> value : values) {
+                    assertSame(first, value.get(5, TimeUnit.SECONDS));
+                }
+                assertSame(first, map.get("1"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void fileWithWrongMagicIsRejected() throws IOException {
+        Path file = createSnapshot();
+        writeInt(file, 0, 0x12345678);
+
+        assertThrows(IOException.class, () -> StaticDataFile.open(file));
+    }
+
+    @Test
+    void fileWithUnsupportedFormatVersionIsRejected() throws IOException {
+        Path file = createSnapshot();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(2).putShort(0, (short) 2), 4);
+        }
+
+        IOException e = assertThrows(IOException.class, () -> StaticDataFile.open(file));
+        assertTrue(e.getMessage().contains("format 2"));
+    }
+
+    @Test
+    void fileWithCorruptEntryCountIsRejected() throws IOException {
+        Path file = createSnapshot();
+        int entryCountPosition = 8 + "14.1.1".length();
+        writeInt(file, entryCountPosition, -1);
+        assertThrows(IOException.class, () -> StaticDataFile.open(file));
+
+        writeInt(file, entryCountPosition, 1_000);
+        assertThrows(IOException.class, () -> StaticDataFile.open(file));
+
+        writeInt(file, entryCountPosition, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> StaticDataFile.open(file));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = this.directory.resolve("truncated.snapshot");
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(createSnapshot()), 10));
+        assertThrows(IOException.class, () -> StaticDataFile.open(file));
+
+        Files.write(file, new byte[]{0x50, 0x53});
+        assertThrows(IOException.class, () -> StaticDataFile.open(file));
+    }
+
+    private Path createSnapshot() throws IOException {
+        Path file = this.directory.resolve("champions.snapshot");
+        StaticDataFile.write(file, "14.1.1", Map.of("1", json("{\"name\":\"Annie\"}")), Map.of());
+        return file;
+    }
+
+    private static byte[] json(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeInt(Path file, int position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+        }
+    }
+}